@@ -25,6 +25,8 @@ CREATE TABLE IF NOT EXISTS tenants (
     max_users INTEGER DEFAULT 10,
     storage_limit_gb INTEGER DEFAULT 100,
     api_rate_limit INTEGER DEFAULT 1000,
+    custom_domain VARCHAR(253),
+    audit_retention_days INTEGER,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_by VARCHAR(255) DEFAULT 'system',
@@ -52,6 +54,8 @@ CREATE TABLE IF NOT EXISTS users (
     login_count BIGINT DEFAULT 0,
     failed_login_attempts INTEGER DEFAULT 0,
     account_locked_until TIMESTAMP,
+    security_stamp INTEGER NOT NULL DEFAULT 0,
+    security_stamp_updated_at TIMESTAMP,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_by VARCHAR(255) DEFAULT 'system',
@@ -68,6 +72,21 @@ CREATE TABLE IF NOT EXISTS user_roles (
     PRIMARY KEY (user_id, role)
 );
 
+-- Revoked tokens table
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(64) PRIMARY KEY,
+    user_id BIGINT,
+    tenant_id VARCHAR(255),
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Deleted users' security stamp tombstones
+CREATE TABLE IF NOT EXISTS user_security_tombstones (
+    user_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Projects table
 CREATE TABLE IF NOT EXISTS projects (
     id BIGSERIAL PRIMARY KEY,
@@ -132,6 +151,11 @@ CREATE TABLE IF NOT EXISTS tenant_subscriptions (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Flyway schema names this table "subscriptions"; expose it under that name too
+CREATE OR REPLACE VIEW subscriptions AS
+SELECT id, tenant_id, plan_id, status, start_date, end_date, auto_renew, payment_method, created_at, updated_at
+FROM tenant_subscriptions;
+
 -- Invoices table
 CREATE TABLE IF NOT EXISTS invoices (
     id BIGSERIAL PRIMARY KEY,
@@ -268,6 +292,105 @@ CREATE TABLE IF NOT EXISTS tenant_settings (
     UNIQUE(tenant_id, setting_key)
 );
 
+-- Kafka audit logs, as V2_1_0 to V3_6_0 leave them. The audit writer inserts rows without an id,
+-- so the column default has to exist; ids are allocated 50 at a time (see V3_8_1)
+CREATE SEQUENCE IF NOT EXISTS kafka_audit_logs_id_seq INCREMENT BY 50;
+
+CREATE OR REPLACE FUNCTION kafka_audit_search_text(user_email TEXT, action TEXT, resource_name TEXT,
+                                                   cluster_name TEXT, topic_name TEXT, consumer_group TEXT)
+RETURNS TEXT LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT coalesce(user_email, '') || ' ' || coalesce(action, '') || ' ' || coalesce(resource_name, '') || ' ' ||
+           coalesce(cluster_name, '') || ' ' || coalesce(topic_name, '') || ' ' || coalesce(consumer_group, '')
+$$;
+
+CREATE OR REPLACE FUNCTION kafka_audit_search_vector(user_email TEXT, action TEXT, resource_name TEXT,
+                                                     cluster_name TEXT, topic_name TEXT, consumer_group TEXT)
+RETURNS tsvector LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(resource_name, '') || ' ' || coalesce(topic_name, '')), 'A') ||
+           setweight(to_tsvector('simple', coalesce(cluster_name, '') || ' ' || coalesce(consumer_group, '') || ' ' ||
+                                           coalesce(action, '')), 'B') ||
+           setweight(to_tsvector('simple', coalesce(user_email, '')), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION kafka_audit_logs_search_vector_update() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := kafka_audit_search_vector(NEW.user_email, NEW.action, NEW.resource_name,
+                                                   NEW.cluster_name, NEW.topic_name, NEW.consumer_group);
+    RETURN NEW;
+END
+$$;
+
+CREATE TABLE IF NOT EXISTS kafka_audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('kafka_audit_logs_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    user_id BIGINT,
+    user_email VARCHAR(255) NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    resource_type VARCHAR(50) NOT NULL,
+    resource_name VARCHAR(200),
+    cluster_id BIGINT,
+    cluster_name VARCHAR(100),
+    topic_name VARCHAR(200),
+    consumer_group VARCHAR(200),
+    details JSONB,
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    duration_ms INTEGER,
+    status VARCHAR(20) DEFAULT 'SUCCESS',
+    metadata JSONB,
+    session_id VARCHAR(255),
+    request_id VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(255) DEFAULT 'system',
+    updated_by VARCHAR(255) DEFAULT 'system',
+    version BIGINT DEFAULT 1,
+    search_vector tsvector,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE kafka_audit_logs_id_seq OWNED BY kafka_audit_logs.id;
+
+-- AuditPartitionManager adds the monthly partitions on startup and moves these rows into them
+CREATE TABLE IF NOT EXISTS kafka_audit_logs_default PARTITION OF kafka_audit_logs DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_tenant_timestamp_id ON kafka_audit_logs(tenant_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_user_action ON kafka_audit_logs(user_id, action);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_cluster_topic ON kafka_audit_logs(cluster_id, topic_name);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_timestamp ON kafka_audit_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_action ON kafka_audit_logs(action);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_resource_type ON kafka_audit_logs(resource_type);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_search_vector ON kafka_audit_logs USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_kafka_audit_search_trgm ON kafka_audit_logs USING GIN (
+    kafka_audit_search_text(user_email, action, resource_name, cluster_name, topic_name, consumer_group) gin_trgm_ops
+);
+
+DROP TRIGGER IF EXISTS trg_kafka_audit_logs_search_vector ON kafka_audit_logs;
+CREATE TRIGGER trg_kafka_audit_logs_search_vector
+    BEFORE INSERT OR UPDATE OF user_email, action, resource_name, cluster_name, topic_name, consumer_group
+    ON kafka_audit_logs
+    FOR EACH ROW EXECUTE FUNCTION kafka_audit_logs_search_vector_update();
+
+-- Per tenant, day and action rollups of kafka_audit_logs, maintained by the audit writer (see V3_7_0)
+CREATE TABLE IF NOT EXISTS kafka_audit_daily_stats (
+    tenant_id VARCHAR(255) NOT NULL,
+    day DATE NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    duration_count BIGINT NOT NULL DEFAULT 0,
+    duration_sum BIGINT NOT NULL DEFAULT 0,
+    -- Events with duration_ms <= 10, 50, 100, 500, 1000, 5000 and above 5000
+    duration_histogram BIGINT[] NOT NULL DEFAULT '{0,0,0,0,0,0,0}',
+    PRIMARY KEY (tenant_id, day, action)
+);
+
+CREATE OR REPLACE FUNCTION kafka_audit_histogram_add(a BIGINT[], b BIGINT[]) RETURNS BIGINT[]
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT array_agg(COALESCE(x, 0) + COALESCE(y, 0) ORDER BY i)
+    FROM unnest(a, b) WITH ORDINALITY AS t(x, y, i)
+$$;
+
 -- Insert sample tenants
 INSERT INTO tenants (tenant_id, name, subdomain, description, admin_email, admin_first_name, admin_last_name, phone, city, country, status, trial_end_date, max_users, storage_limit_gb) VALUES
 ('acme-corp', 'ACME Corporation', 'acme', 'Global manufacturing and logistics company', 'admin@acme-corp.com', 'John', 'Smith', '+1-555-0101', 'New York', 'USA', 'ACTIVE', NULL, 50, 500),
@@ -450,3 +573,7 @@ INSERT INTO tenant_settings (tenant_id, setting_key, setting_value, setting_type
 ('global-retail', 'CURRENCY_DEFAULT', 'GBP', 'STRING', 'Default currency for financial operations'),
 ('healthcare-plus', 'ENABLE_AUDIT_LOG', 'true', 'BOOLEAN', 'Enable comprehensive audit logging'),
 ('edu-platform', 'SESSION_TIMEOUT_MINUTES', '60', 'INTEGER', 'User session timeout in minutes');
+
+-- Entity ids are allocated 50 at a time from these sequences (see V3_8_1)
+ALTER SEQUENCE tenants_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
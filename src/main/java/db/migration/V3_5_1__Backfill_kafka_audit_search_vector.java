@@ -0,0 +1,69 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Fills {@code kafka_audit_logs.search_vector} for rows written before V3_5_0 added the column.
+ * <p>
+ * Runs outside a transaction and commits every id range separately, so a large audit history is
+ * never locked or rewritten in one go and an interrupted run resumes where it stopped (only rows
+ * still missing a vector are updated). New rows are covered by the trigger from V3_5_0. The search
+ * indexes are built afterwards by V3_5_2, so the backfill does not maintain them row by row.
+ */
+public class V3_5_1__Backfill_kafka_audit_search_vector extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V3_5_1__Backfill_kafka_audit_search_vector.class);
+
+    private static final long CHUNK_SIZE = 10_000;
+
+    private static final String UPDATE_CHUNK =
+            "UPDATE kafka_audit_logs SET search_vector = kafka_audit_search_vector(" +
+            "user_email, action, resource_name, cluster_name, topic_name, consumer_group) " +
+            "WHERE id >= ? AND id < ? AND search_vector IS NULL";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            long minId;
+            long maxId;
+            try (Statement statement = connection.createStatement();
+                 ResultSet bounds = statement.executeQuery(
+                         "SELECT MIN(id), MAX(id) FROM kafka_audit_logs WHERE search_vector IS NULL")) {
+                bounds.next();
+                minId = bounds.getLong(1);
+                maxId = bounds.getLong(2);
+                if (bounds.wasNull()) {
+                    return;
+                }
+            }
+
+            long updated = 0;
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_CHUNK)) {
+                for (long from = minId; from <= maxId; from += CHUNK_SIZE) {
+                    update.setLong(1, from);
+                    update.setLong(2, from + CHUNK_SIZE);
+                    updated += update.executeUpdate();
+                }
+            }
+            logger.info("Backfilled search vectors for {} Kafka audit log rows", updated);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
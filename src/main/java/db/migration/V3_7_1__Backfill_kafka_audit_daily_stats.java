@@ -0,0 +1,81 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Builds {@code kafka_audit_daily_stats} from the audit rows written before V3_7_0.
+ * <p>
+ * Runs outside a transaction and aggregates one month per statement, so the history is never
+ * scanned in one go. Every day of a month is written by the same statement and existing days are
+ * skipped, so an interrupted run resumes without counting a month twice.
+ */
+public class V3_7_1__Backfill_kafka_audit_daily_stats extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V3_7_1__Backfill_kafka_audit_daily_stats.class);
+
+    private static final String INSERT_MONTH = """
+            INSERT INTO kafka_audit_daily_stats
+                (tenant_id, day, action, event_count, duration_count, duration_sum, duration_histogram)
+            SELECT tenant_id, CAST(timestamp AS date), action, COUNT(*), COUNT(duration_ms),
+                   COALESCE(SUM(duration_ms), 0),
+                   ARRAY[COUNT(*) FILTER (WHERE duration_ms <= 10),
+                         COUNT(*) FILTER (WHERE duration_ms > 10 AND duration_ms <= 50),
+                         COUNT(*) FILTER (WHERE duration_ms > 50 AND duration_ms <= 100),
+                         COUNT(*) FILTER (WHERE duration_ms > 100 AND duration_ms <= 500),
+                         COUNT(*) FILTER (WHERE duration_ms > 500 AND duration_ms <= 1000),
+                         COUNT(*) FILTER (WHERE duration_ms > 1000 AND duration_ms <= 5000),
+                         COUNT(*) FILTER (WHERE duration_ms > 5000)]
+            FROM kafka_audit_logs
+            WHERE timestamp >= ? AND timestamp < ?
+            GROUP BY tenant_id, CAST(timestamp AS date), action
+            ON CONFLICT (tenant_id, day, action) DO NOTHING
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            LocalDate first;
+            LocalDate last;
+            try (Statement statement = connection.createStatement();
+                 ResultSet bounds = statement.executeQuery(
+                         "SELECT CAST(MIN(timestamp) AS date), CAST(MAX(timestamp) AS date) FROM kafka_audit_logs")) {
+                bounds.next();
+                if (bounds.getDate(1) == null) {
+                    return;
+                }
+                first = bounds.getDate(1).toLocalDate().withDayOfMonth(1);
+                last = bounds.getDate(2).toLocalDate();
+            }
+
+            long rows = 0;
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_MONTH)) {
+                for (LocalDate month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                    insert.setTimestamp(1, Timestamp.valueOf(month.atStartOfDay()));
+                    insert.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atStartOfDay()));
+                    rows += insert.executeUpdate();
+                }
+            }
+            logger.info("Backfilled {} Kafka audit daily stats rows", rows);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
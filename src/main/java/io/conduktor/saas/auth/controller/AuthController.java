@@ -3,10 +3,13 @@ package io.conduktor.saas.auth.controller;
 import io.conduktor.saas.auth.dto.*;
 import io.conduktor.saas.auth.service.AuthService;
 import io.conduktor.saas.common.dto.ApiResponse;
+import io.conduktor.saas.core.exception.TooManyRequestsException;
 import io.conduktor.saas.user.dto.UserDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
@@ -32,6 +35,10 @@ public class AuthController {
         } catch (BadCredentialsException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Authentication failed", e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error("Login failed", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Login failed", e.getMessage()));
@@ -60,7 +67,7 @@ public class AuthController {
             LoginResponse loginResponse = authService.refreshToken(refreshRequest.getRefreshToken());
             return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", loginResponse));
         } catch (BadCredentialsException e) {
-            return ResponseEntity.badRequest()
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(ApiResponse.error("Token refresh failed", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -73,12 +80,8 @@ public class AuthController {
     public ResponseEntity<ApiResponse<Void>> logout(
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            // Extract username from token or security context
-            // For now, we'll just perform basic logout operations
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                String username = authService.getUsernameFromToken(token);
-                authService.logout(username);
+                authService.logout(authHeader.substring(7));
             }
             
             return ResponseEntity.ok(ApiResponse.success("Logout successful"));
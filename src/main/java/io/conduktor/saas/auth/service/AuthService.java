@@ -3,18 +3,23 @@ package io.conduktor.saas.auth.service;
 import io.conduktor.saas.auth.dto.LoginRequest;
 import io.conduktor.saas.auth.dto.LoginResponse;
 import io.conduktor.saas.auth.dto.RegisterRequest;
+import io.conduktor.saas.security.JwtClaims;
 import io.conduktor.saas.security.JwtTokenProvider;
 import io.conduktor.saas.security.TenantContext;
+import io.conduktor.saas.security.TokenRevocationService;
 import io.conduktor.saas.tenant.entity.Tenant;
 import io.conduktor.saas.tenant.service.TenantService;
 import io.conduktor.saas.user.dto.UserDTO;
 import io.conduktor.saas.user.entity.User;
+import io.conduktor.saas.user.service.SecurityStampService;
 import io.conduktor.saas.user.service.UserService;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.UUID;
 import java.util.Optional;
 import java.util.Set;
 
@@ -25,15 +30,24 @@ public class AuthService {
     private final TenantService tenantService;
     private final JwtTokenProvider jwtTokenProvider;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final SecurityStampService securityStampService;
 
     public AuthService(UserService userService, 
                       TenantService tenantService,
                       JwtTokenProvider jwtTokenProvider, 
-                      PasswordEncoder passwordEncoder) {
+                      PasswordEncoder passwordEncoder,
+                      TokenRevocationService tokenRevocationService,
+                      PasswordHashingExecutor passwordHashingExecutor,
+                      SecurityStampService securityStampService) {
         this.userService = userService;
         this.tenantService = tenantService;
         this.jwtTokenProvider = jwtTokenProvider;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.securityStampService = securityStampService;
     }
 
     public LoginResponse login(LoginRequest loginRequest) {
@@ -65,8 +79,8 @@ public class AuthService {
         // Validate password (handle both plain text for dev and BCrypt for prod)
         boolean passwordMatches;
         if (user.getPassword().startsWith("$2a$") || user.getPassword().startsWith("$2b$") || user.getPassword().startsWith("$2y$")) {
-            // BCrypt encoded password
-            passwordMatches = passwordEncoder.matches(loginRequest.getPassword(), user.getPassword());
+            // BCrypt encoded password, verified on the bounded hashing pool
+            passwordMatches = passwordHashingExecutor.matches(user.getTenantId(), loginRequest.getPassword(), user.getPassword());
         } else {
             // Plain text password (dev mode)
             passwordMatches = loginRequest.getPassword().equals(user.getPassword());
@@ -80,9 +94,10 @@ public class AuthService {
         // Record successful login
 //        user = userService.recordLogin(user);
 
-        // Generate tokens
-        String accessToken = jwtTokenProvider.createToken(user);
-        String refreshToken = jwtTokenProvider.createRefreshToken(user);
+        // Generate tokens, sharing a session id so logout can revoke both
+        String sessionId = UUID.randomUUID().toString();
+        String accessToken = jwtTokenProvider.createToken(user, sessionId);
+        String refreshToken = jwtTokenProvider.createRefreshToken(user, sessionId);
 
         UserDTO userDTO = new UserDTO(user);
         
@@ -96,11 +111,12 @@ public class AuthService {
     }
 
     public LoginResponse refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        JwtClaims claims = jwtTokenProvider.parseIfValid(refreshToken);
+        if (claims == null || tokenRevocationService.isRevoked(claims)) {
             throw new BadCredentialsException("Invalid refresh token");
         }
 
-        String username = jwtTokenProvider.getUsername(refreshToken);
+        String username = claims.username();
         Optional<User> userOpt = userService.findByUsername(username);
         
         if (userOpt.isEmpty()) {
@@ -108,13 +124,22 @@ public class AuthService {
         }
 
         User user = userOpt.get();
-        
+
+        // A password change, disable or lock bumps the stamp, which ends every session issued before it
+        if (!user.getId().equals(claims.userId()) || !isCurrentStamp(user, claims.securityStamp())) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            throw new BadCredentialsException("Account is disabled or locked");
+        }
+
         // Set tenant context
         TenantContext.setCurrentTenantId(user.getTenantId());
 
-        // Generate new tokens
-        String newAccessToken = jwtTokenProvider.createToken(user);
-        String newRefreshToken = jwtTokenProvider.createRefreshToken(user);
+        // Generate new tokens in the same session
+        String sessionId = claims.sessionId() != null ? claims.sessionId() : UUID.randomUUID().toString();
+        String newAccessToken = jwtTokenProvider.createToken(user, sessionId);
+        String newRefreshToken = jwtTokenProvider.createRefreshToken(user, sessionId);
 
         UserDTO userDTO = new UserDTO(user);
         
@@ -127,6 +152,15 @@ public class AuthService {
         );
     }
 
+    private boolean isCurrentStamp(User user, Integer tokenStamp) {
+        if (tokenStamp == null) {
+            // Issued before refresh tokens carried a stamp
+            return false;
+        }
+        int userStamp = user.getSecurityStamp() != null ? user.getSecurityStamp() : 0;
+        return tokenStamp >= userStamp && securityStampService.isCurrent(user.getId(), tokenStamp);
+    }
+
     public UserDTO register(RegisterRequest registerRequest) {
         // Validate passwords match
         if (!registerRequest.isPasswordsMatch()) {
@@ -163,13 +197,16 @@ public class AuthService {
         return new UserDTO(user);
     }
 
-    public void logout(String username) {
-        // In a more complete implementation, you might:
-        // 1. Blacklist the token
-        // 2. Clear any session data
-        // 3. Log the logout event
-        
-        // For now, we just clear the tenant context
+    public void logout(String token) {
+        // Revoke the presented token and its session, so neither it nor the session's refresh
+        // tokens are accepted on any node until they expire
+        JwtClaims claims = jwtTokenProvider.parseIfValid(token);
+        if (claims != null) {
+            tokenRevocationService.revoke(claims);
+            tokenRevocationService.revokeSession(claims,
+                    Instant.now().plusSeconds(jwtTokenProvider.getRefreshTokenValidityInSeconds()));
+        }
+
         TenantContext.clear();
     }
 
@@ -180,7 +217,8 @@ public class AuthService {
     }
 
     public boolean validateToken(String token) {
-        return jwtTokenProvider.validateToken(token);
+        JwtClaims claims = jwtTokenProvider.parseIfValid(token);
+        return claims != null && !tokenRevocationService.isRevoked(claims);
     }
 
     public String getUsernameFromToken(String token) {
@@ -0,0 +1,225 @@
+package io.conduktor.saas.auth.service;
+
+import io.conduktor.saas.core.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password verification on a dedicated, fixed-size pool instead of the request thread, so a
+ * burst of logins cannot pin every servlet worker on BCrypt.
+ * <p>
+ * Pending checks are queued per tenant and workers serve tenants round-robin, one check at a
+ * time, so a single tenant under credential stuffing only delays its own logins. The queue is
+ * bounded both globally and per tenant; when either bound is hit the login is rejected
+ * immediately with a {@link TooManyRequestsException} rather than waiting.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private static final String METRIC_PREFIX = "auth.password.hash";
+
+    private final PasswordEncoder passwordEncoder;
+    private final int queueCapacity;
+    private final int perTenantQueueLimit;
+    private final long waitTimeoutMs;
+
+    private final Map<String, TenantQueue> tenantQueues = new ConcurrentHashMap<>();
+    private final BlockingQueue<TenantQueue> readyTenants = new LinkedBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter queueFullRejections;
+    private final Counter tenantLimitRejections;
+    private final Counter timeoutRejections;
+
+    private volatile boolean running = true;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.security.password-hashing.pool-size:0}") int poolSize,
+                                   @Value("${app.security.password-hashing.queue-capacity:200}") int queueCapacity,
+                                   @Value("${app.security.password-hashing.per-tenant-queue-limit:50}") int perTenantQueueLimit,
+                                   @Value("${app.security.password-hashing.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+        this.perTenantQueueLimit = perTenantQueueLimit;
+        this.waitTimeoutMs = waitTimeoutMs;
+
+        this.hashTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .description("Time spent verifying a password hash")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Time a password check spent queued before a worker picked it up")
+                .register(meterRegistry);
+        this.queueFullRejections = rejectionCounter(meterRegistry, "queue_full");
+        this.tenantLimitRejections = rejectionCounter(meterRegistry, "tenant_limit");
+        this.timeoutRejections = rejectionCounter(meterRegistry, "timeout");
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", queued, AtomicInteger::get)
+                .description("Password checks waiting for a hashing worker")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", active, AtomicInteger::get)
+                .description("Password checks currently being hashed")
+                .register(meterRegistry);
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::runWorker, "password-hash-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        logger.info("Started {} password hashing workers (queue capacity {}, per tenant {})",
+                threads, queueCapacity, perTenantQueueLimit);
+    }
+
+    /**
+     * Verifies {@code rawPassword} against {@code encodedPassword} on the hashing pool, blocking the
+     * caller until the result is available.
+     *
+     * @throws TooManyRequestsException if the queue is saturated or the check did not complete in time
+     */
+    public boolean matches(String tenantId, String rawPassword, String encodedPassword) {
+        HashTask task = new HashTask(rawPassword, encodedPassword, System.nanoTime());
+        enqueue(tenantId != null ? tenantId : "", task);
+
+        try {
+            return task.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.result.cancel(false);
+            timeoutRejections.increment();
+            throw new TooManyRequestsException("Login is temporarily unavailable, please retry", 1);
+        } catch (InterruptedException e) {
+            task.result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    private void enqueue(String tenantId, HashTask task) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            queueFullRejections.increment();
+            throw new TooManyRequestsException("Too many concurrent login attempts, please retry", 1);
+        }
+
+        TenantQueue tenantQueue = tenantQueues.computeIfAbsent(tenantId, key -> new TenantQueue());
+        synchronized (tenantQueue) {
+            if (tenantQueue.tasks.size() >= perTenantQueueLimit) {
+                queued.decrementAndGet();
+                tenantLimitRejections.increment();
+                throw new TooManyRequestsException("Too many concurrent login attempts for this tenant, please retry", 1);
+            }
+            tenantQueue.tasks.add(task);
+            if (!tenantQueue.scheduled) {
+                tenantQueue.scheduled = true;
+                readyTenants.add(tenantQueue);
+            }
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            TenantQueue tenantQueue;
+            try {
+                tenantQueue = readyTenants.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            HashTask task;
+            synchronized (tenantQueue) {
+                task = tenantQueue.tasks.poll();
+                // Send the tenant to the back of the line so other tenants get the next turn
+                if (tenantQueue.tasks.isEmpty()) {
+                    tenantQueue.scheduled = false;
+                } else {
+                    readyTenants.add(tenantQueue);
+                }
+            }
+            if (task == null) {
+                continue;
+            }
+            queued.decrementAndGet();
+            execute(task);
+        }
+    }
+
+    private void execute(HashTask task) {
+        // The caller already gave up on this one
+        if (task.result.isDone()) {
+            return;
+        }
+        waitTimer.record(System.nanoTime() - task.enqueuedAt, TimeUnit.NANOSECONDS);
+
+        active.incrementAndGet();
+        try {
+            boolean matches = hashTimer.record(() -> passwordEncoder.matches(task.rawPassword, task.encodedPassword));
+            task.result.complete(matches);
+        } catch (RuntimeException e) {
+            task.result.completeExceptionally(e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Password checks rejected without hashing")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class TenantQueue {
+        private final Queue<HashTask> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+    }
+
+    private static final class HashTask {
+        private final String rawPassword;
+        private final String encodedPassword;
+        private final long enqueuedAt;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private HashTask(String rawPassword, String encodedPassword, long enqueuedAt) {
+            this.rawPassword = rawPassword;
+            this.encodedPassword = encodedPassword;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.conduktor.saas.common.dto;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -14,6 +15,9 @@ public class PageResponse<T> {
     private boolean first;
     private boolean last;
     private boolean empty;
+    private boolean hasNext;
+    private TotalMode totalMode = TotalMode.EXACT;
+    private String nextCursor;
 
     public PageResponse() {}
 
@@ -26,6 +30,7 @@ public class PageResponse<T> {
         this.first = page.isFirst();
         this.last = page.isLast();
         this.empty = page.isEmpty();
+        this.hasNext = page.hasNext();
     }
 
     public PageResponse(List<T> content, int pageNumber, int pageSize, long totalElements, int totalPages, boolean first, boolean last) {
@@ -37,12 +42,57 @@ public class PageResponse<T> {
         this.first = first;
         this.last = last;
         this.empty = content.isEmpty();
+        this.hasNext = !last;
     }
 
     public static <T> PageResponse<T> of(Page<T> page) {
         return new PageResponse<>(page);
     }
 
+    /**
+     * A page without a total: {@code totalElements} and {@code totalPages} are -1.
+     */
+    public static <T> PageResponse<T> ofSlice(Slice<T> slice) {
+        PageResponse<T> response = new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                -1, -1, slice.isFirst(), slice.isLast());
+        response.totalMode = TotalMode.NONE;
+        return response;
+    }
+
+    /**
+     * A page whose total is an estimate. The estimate is raised to what this page proves exists, and
+     * trimmed on the last page where the exact total is known anyway.
+     */
+    public static <T> PageResponse<T> ofEstimate(Slice<T> slice, long estimatedTotal) {
+        long seen = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+        long total;
+        if (slice.hasNext()) {
+            total = Math.max(estimatedTotal, seen + 1);
+        } else if (slice.hasContent() || slice.isFirst()) {
+            total = seen;
+        } else {
+            // Past the end: only known to be at most the offset
+            total = Math.max(0, Math.min(estimatedTotal, seen));
+        }
+        int totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) total / slice.getSize());
+        PageResponse<T> response = new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                total, totalPages, slice.isFirst(), slice.isLast());
+        response.totalMode = slice.hasNext() || (!slice.hasContent() && !slice.isFirst())
+                ? TotalMode.ESTIMATED : TotalMode.EXACT;
+        return response;
+    }
+
+    /**
+     * A page of a cursor-paginated listing. No total is computed, so {@code totalElements} and
+     * {@code totalPages} are -1; {@code nextCursor} is null on the last page.
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> content, int pageSize, boolean first, String nextCursor) {
+        PageResponse<T> response = new PageResponse<>(content, 0, pageSize, -1, -1, first, nextCursor == null);
+        response.totalMode = TotalMode.NONE;
+        response.nextCursor = nextCursor;
+        return response;
+    }
+
     // Getters and Setters
     public List<T> getContent() { return content; }
     public void setContent(List<T> content) { this.content = content; }
@@ -67,4 +117,13 @@ public class PageResponse<T> {
 
     public boolean isEmpty() { return empty; }
     public void setEmpty(boolean empty) { this.empty = empty; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public TotalMode getTotalMode() { return totalMode; }
+    public void setTotalMode(TotalMode totalMode) { this.totalMode = totalMode; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
\ No newline at end of file
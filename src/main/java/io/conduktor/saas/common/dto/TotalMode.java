@@ -0,0 +1,32 @@
+package io.conduktor.saas.common.dto;
+
+import java.util.Locale;
+
+/**
+ * How a paged listing reports its total, selected with the {@code total} query parameter.
+ */
+public enum TotalMode {
+
+    /** Exact {@code COUNT} alongside the page query (the default). */
+    EXACT,
+
+    /** Planner statistics or a briefly cached count; no count query on most requests. */
+    ESTIMATED,
+
+    /** No total at all; the page only reports whether another one follows. */
+    NONE;
+
+    /**
+     * @throws IllegalArgumentException for anything other than exact, estimated or none
+     */
+    public static TotalMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported total mode: " + value + " (expected exact, estimated or none)");
+        }
+    }
+}
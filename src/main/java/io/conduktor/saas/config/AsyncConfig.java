@@ -0,0 +1,19 @@
+package io.conduktor.saas.config;
+
+import io.conduktor.saas.security.TenantContextTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Picked up by the auto-configured {@code applicationTaskExecutor}, whether it is a thread pool
+     * or, with {@code spring.threads.virtual.enabled}, a virtual-thread-per-task executor.
+     */
+    @Bean
+    public TaskDecorator tenantContextTaskDecorator() {
+        return new TenantContextTaskDecorator();
+    }
+}
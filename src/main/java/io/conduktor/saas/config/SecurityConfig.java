@@ -1,12 +1,14 @@
 package io.conduktor.saas.config;
 
 import io.conduktor.saas.security.JwtAuthenticationFilter;
+import io.conduktor.saas.security.PrincipalMethodSecurityExpressionHandler;
 import io.conduktor.saas.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -48,6 +50,11 @@ public class SecurityConfig {
         return authProvider;
     }
 
+    @Bean
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        return new PrincipalMethodSecurityExpressionHandler();
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
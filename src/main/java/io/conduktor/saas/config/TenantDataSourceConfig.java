@@ -0,0 +1,113 @@
+package io.conduktor.saas.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.conduktor.saas.core.datasource.TenantRoutingDataSource;
+import io.conduktor.saas.tenant.service.TenantDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single Hikari pool with one pool per partition in {@code app.datasource.routing},
+ * routed by the current tenant's assignment (explicit, then by plan, then the default partition).
+ * Free-tier tenants can share a small pool while paying tenants get their own capacity, or their
+ * own database.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(TenantDataSourceProperties.class)
+public class TenantDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantDataSourceConfig.class);
+
+    @Bean
+    @Primary
+    public TenantRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                              TenantDataSourceProperties routing,
+                                              Environment environment,
+                                              ObjectProvider<TenantDirectory> tenantDirectory,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        // Same settings Boot would give its own pool, as the base for every partition
+        HikariConfig base = Binder.get(environment)
+                .bind("spring.datasource.hikari", Bindable.ofInstance(new HikariConfig()))
+                .orElseGet(HikariConfig::new);
+        base.setJdbcUrl(dataSourceProperties.determineUrl());
+        base.setUsername(dataSourceProperties.determineUsername());
+        base.setPassword(dataSourceProperties.determinePassword());
+        base.setDriverClassName(dataSourceProperties.determineDriverClassName());
+
+        Map<String, TenantDataSourceProperties.Partition> partitionSettings = new LinkedHashMap<>(routing.getPartitions());
+        partitionSettings.putIfAbsent(routing.getDefaultPartition(), new TenantDataSourceProperties.Partition());
+
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        partitionSettings.forEach((name, partition) -> {
+            HikariConfig config = new HikariConfig();
+            base.copyStateTo(config);
+            config.setPoolName("tenant-pool-" + name);
+            if (partition.getMaximumPoolSize() != null) {
+                config.setMaximumPoolSize(partition.getMaximumPoolSize());
+                config.setMinimumIdle(Math.min(config.getMinimumIdle(), partition.getMaximumPoolSize()));
+            }
+            if (StringUtils.hasText(partition.getUrl())) {
+                config.setJdbcUrl(partition.getUrl());
+            }
+            if (partition.getUsername() != null) {
+                config.setUsername(partition.getUsername());
+            }
+            if (partition.getPassword() != null) {
+                config.setPassword(partition.getPassword());
+            }
+            meterRegistry.ifAvailable(config::setMetricRegistry);
+            HikariDataSource pool = new HikariDataSource(config);
+            pools.put(name, pool);
+            logger.info("Tenant connection pool '{}': max {} connections", name, config.getMaximumPoolSize());
+        });
+
+        return new TenantRoutingDataSource(
+                pools,
+                routing.getDefaultPartition(),
+                tenantId -> resolvePartition(tenantId, routing, tenantDirectory),
+                partition -> {
+                    TenantDataSourceProperties.Partition settings = partitionSettings.get(partition);
+                    return settings != null && settings.getTenantConnectionLimit() != null
+                            ? settings.getTenantConnectionLimit()
+                            : routing.getTenantConnectionLimit();
+                },
+                routing.getAcquireTimeoutMs(),
+                meterRegistry.getIfAvailable());
+    }
+
+    private static String resolvePartition(String tenantId,
+                                           TenantDataSourceProperties routing,
+                                           ObjectProvider<TenantDirectory> tenantDirectory) {
+        String partition = routing.getTenants().get(tenantId);
+        if (partition == null && !routing.getPlans().isEmpty()) {
+            // peek() rather than resolve(): a miss must not query the database from inside getConnection()
+            TenantDirectory directory = tenantDirectory.getIfAvailable();
+            TenantDirectory.Entry tenant = directory != null ? directory.peek(tenantId) : null;
+            if (tenant != null && tenant.plan() != null) {
+                partition = routing.getPlans().get(tenant.plan());
+            }
+        }
+        if (partition == null || !routing.getPartitions().containsKey(partition)) {
+            return routing.getDefaultPartition();
+        }
+        return partition;
+    }
+}
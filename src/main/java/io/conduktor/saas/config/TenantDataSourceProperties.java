@@ -0,0 +1,83 @@
+package io.conduktor.saas.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for routing JDBC connections to per-tenant pool partitions
+ * ({@code app.datasource.routing.*}).
+ */
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class TenantDataSourceProperties {
+
+    private boolean enabled;
+
+    /** Partition used by tenants without an explicit or plan-based assignment, and by work without a tenant. */
+    private String defaultPartition = "shared";
+
+    /** Maximum connections a single tenant may hold at once, unless its partition overrides it. */
+    private int tenantConnectionLimit = 10;
+
+    /** How long a request waits for a free slot under its tenant's limit before failing. */
+    private long acquireTimeoutMs = 5000;
+
+    /** Pool partitions by name; each inherits {@code spring.datasource.*} and overrides what it sets. */
+    private Map<String, Partition> partitions = new LinkedHashMap<>();
+
+    /** Subscription plan name to partition. */
+    private Map<String, String> plans = new HashMap<>();
+
+    /** Tenant id to partition; takes precedence over the plan. */
+    private Map<String, String> tenants = new HashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getDefaultPartition() { return defaultPartition; }
+    public void setDefaultPartition(String defaultPartition) { this.defaultPartition = defaultPartition; }
+
+    public int getTenantConnectionLimit() { return tenantConnectionLimit; }
+    public void setTenantConnectionLimit(int tenantConnectionLimit) { this.tenantConnectionLimit = tenantConnectionLimit; }
+
+    public long getAcquireTimeoutMs() { return acquireTimeoutMs; }
+    public void setAcquireTimeoutMs(long acquireTimeoutMs) { this.acquireTimeoutMs = acquireTimeoutMs; }
+
+    public Map<String, Partition> getPartitions() { return partitions; }
+    public void setPartitions(Map<String, Partition> partitions) { this.partitions = partitions; }
+
+    public Map<String, String> getPlans() { return plans; }
+    public void setPlans(Map<String, String> plans) { this.plans = plans; }
+
+    public Map<String, String> getTenants() { return tenants; }
+    public void setTenants(Map<String, String> tenants) { this.tenants = tenants; }
+
+    public static class Partition {
+
+        private Integer maximumPoolSize;
+
+        /** Set to give the partition its own database; schema migrations are not run against it. */
+        private String url;
+        private String username;
+        private String password;
+
+        private Integer tenantConnectionLimit;
+
+        public Integer getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(Integer maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public Integer getTenantConnectionLimit() { return tenantConnectionLimit; }
+        public void setTenantConnectionLimit(Integer tenantConnectionLimit) { this.tenantConnectionLimit = tenantConnectionLimit; }
+    }
+}
@@ -1,7 +1,12 @@
 package io.conduktor.saas.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.security.RateLimitFilter;
 import io.conduktor.saas.security.TenantFilter;
+import io.conduktor.saas.security.TenantRateLimiter;
+import io.conduktor.saas.tenant.service.TenantDirectory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -59,11 +64,22 @@ public class WebConfig implements WebMvcConfigurer {
     }
 
     @Bean
-    public FilterRegistrationBean<TenantFilter> tenantFilter() {
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenantDirectory tenantDirectory, ObjectMapper objectMapper) {
         FilterRegistrationBean<TenantFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new TenantFilter());
-        registrationBean.addUrlPatterns("/api/*", "/api/**");
+        registrationBean.setFilter(new TenantFilter(tenantDirectory, objectMapper));
+        // Patterns are relative to the /api context path
+        registrationBean.addUrlPatterns("/*");
         registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
         return registrationBean;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(TenantRateLimiter tenantRateLimiter, ObjectMapper objectMapper) {
+        FilterRegistrationBean<RateLimitFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new RateLimitFilter(tenantRateLimiter, objectMapper));
+        registrationBean.addUrlPatterns("/*");
+        // Right after the security chain, so the authenticated tenant is known
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registrationBean;
+    }
+}
@@ -0,0 +1,22 @@
+package io.conduktor.saas.core.bulk;
+
+import java.util.List;
+
+/**
+ * Writes the items of a bulk request one chunk at a time; see {@link BulkProcessor}.
+ */
+public interface BulkHandler<T> {
+
+    /**
+     * Runs before the chunk's transaction, for checks that can be answered with one query per chunk
+     * and for CPU-heavy work that should not hold a connection. Items failed here are not written.
+     */
+    default void prepare(List<BulkItem<T>> items) {
+    }
+
+    /**
+     * Writes {@code items} in the current transaction, marking each one created, updated or failed.
+     * Throwing rolls the chunk back, after which its items are retried one per transaction.
+     */
+    void write(List<BulkItem<T>> items);
+}
@@ -0,0 +1,44 @@
+package io.conduktor.saas.core.bulk;
+
+/**
+ * An item of a bulk request that passed validation, handed to a {@link BulkHandler}, which records
+ * what became of it.
+ */
+public final class BulkItem<T> {
+
+    private final T value;
+    private final BulkItemResult result;
+
+    BulkItem(T value, BulkItemResult result) {
+        this.value = value;
+        this.result = result;
+    }
+
+    public T value() {
+        return value;
+    }
+
+    public int index() {
+        return result.getIndex();
+    }
+
+    public void created(Long id) {
+        result.set(BulkItemResult.Status.CREATED, id, null);
+    }
+
+    public void updated(Long id) {
+        result.set(BulkItemResult.Status.UPDATED, id, null);
+    }
+
+    public void fail(String error) {
+        result.set(BulkItemResult.Status.FAILED, null, error);
+    }
+
+    public boolean isDone() {
+        return result.getStatus() != null;
+    }
+
+    void reset() {
+        result.set(null, null, null);
+    }
+}
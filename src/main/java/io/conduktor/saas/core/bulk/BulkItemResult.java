@@ -0,0 +1,42 @@
+package io.conduktor.saas.core.bulk;
+
+/**
+ * Outcome of one item of a bulk request, identified by its position in the request.
+ */
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    private final int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+    BulkItemResult(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void set(Status status, Long id, String error) {
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+}
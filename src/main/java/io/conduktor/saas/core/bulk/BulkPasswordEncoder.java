@@ -0,0 +1,74 @@
+package io.conduktor.saas.core.bulk;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes the passwords of bulk-created users in parallel on a fixed pool of its own, separate
+ * from the login pool ({@code PasswordHashingExecutor}) so an import cannot delay logins. When the
+ * bounded queue is full the request thread hashes the password itself, which throttles the import
+ * to the pool's pace.
+ */
+@Component
+public class BulkPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkPasswordEncoder.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public BulkPasswordEncoder(PasswordEncoder passwordEncoder,
+                               @Value("${app.bulk.password-hashing.pool-size:0}") int poolSize,
+                               @Value("${app.bulk.password-hashing.queue-capacity:1000}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "bulk-password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        logger.info("Started {} bulk password hashing workers (queue capacity {})", threads, queueCapacity);
+    }
+
+    /**
+     * Encodes {@code rawPasswords}, returning the hashes in the same order.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor));
+        }
+        List<String> encoded = new ArrayList<>(hashes.size());
+        try {
+            for (CompletableFuture<String> hash : hashes) {
+                encoded.add(hash.join());
+            }
+        } catch (CompletionException e) {
+            hashes.forEach(hash -> hash.cancel(false));
+            throw new IllegalStateException("Password encoding failed", e.getCause());
+        }
+        return encoded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,157 @@
+package io.conduktor.saas.core.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a bulk request body, either a JSON array or newline-delimited JSON, one item at a time and
+ * writes it in chunks of {@code app.bulk.batch-size} items, one transaction per chunk.
+ * <p>
+ * Items are bean-validated as they are read; invalid items are reported and skipped, so only one
+ * chunk of requests is held in memory however large the body is. When a chunk's transaction fails,
+ * its items are retried one per transaction so a single bad item only fails itself. A body that
+ * stops parsing, or that holds more than {@code app.bulk.max-items} items, is processed up to that
+ * point and the rest is reported in {@link BulkResult#getError()}.
+ */
+@Component
+public class BulkProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkProcessor.class);
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final int maxItems;
+
+    public BulkProcessor(ObjectMapper objectMapper,
+                         Validator validator,
+                         PlatformTransactionManager transactionManager,
+                         EntityManager entityManager,
+                         @Value("${app.bulk.batch-size:500}") int batchSize,
+                         @Value("${app.bulk.max-items:10000}") int maxItems) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    public <T> BulkResult process(InputStream body, Class<T> type, BulkHandler<T> handler) throws IOException {
+        BulkResult result = new BulkResult();
+        List<BulkItem<T>> chunk = new ArrayList<>(batchSize);
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            while (true) {
+                T value;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    value = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.next().set(BulkItemResult.Status.FAILED, null, "Malformed item: " + e.getOriginalMessage());
+                    result.stop("Request body could not be read past item " + (result.getTotal() - 1));
+                    break;
+                }
+                if (result.getTotal() >= maxItems) {
+                    result.stop("Only the first " + maxItems + " items were processed");
+                    break;
+                }
+
+                BulkItem<T> item = new BulkItem<>(value, result.next());
+                if (value == null) {
+                    item.fail("Item must not be null");
+                } else {
+                    Set<ConstraintViolation<T>> violations = validator.validate(value);
+                    if (!violations.isEmpty()) {
+                        item.fail(describe(violations));
+                    } else {
+                        chunk.add(item);
+                    }
+                }
+                if (chunk.size() >= batchSize) {
+                    write(chunk, handler);
+                    chunk.clear();
+                }
+            }
+        }
+        write(chunk, handler);
+        result.count();
+        return result;
+    }
+
+    private <T> void write(List<BulkItem<T>> chunk, BulkHandler<T> handler) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        handler.prepare(chunk);
+        List<BulkItem<T>> pending = chunk.stream().filter(item -> !item.isDone()).collect(Collectors.toList());
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            writeInTransaction(pending, handler);
+        } catch (RuntimeException e) {
+            logger.debug("Bulk chunk of {} items failed, retrying one at a time", pending.size(), e);
+            for (BulkItem<T> item : pending) {
+                item.reset();
+                try {
+                    writeInTransaction(List.of(item), handler);
+                } catch (RuntimeException itemFailure) {
+                    item.fail(message(itemFailure));
+                }
+            }
+        }
+    }
+
+    private <T> void writeInTransaction(List<BulkItem<T>> items, BulkHandler<T> handler) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                handler.write(items);
+                // Flush inside the transaction so constraint violations fail this chunk, not the next
+                entityManager.flush();
+            });
+        } finally {
+            // Open-in-view keeps one persistence context for the whole request; do not let it grow with every chunk
+            entityManager.clear();
+        }
+    }
+
+    private static <T> String describe(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String message(RuntimeException failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                // Do not echo the database error, which names constraints and other rows' values
+                return "Conflicts with existing data";
+            }
+        }
+        return failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+    }
+}
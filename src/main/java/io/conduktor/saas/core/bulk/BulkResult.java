@@ -0,0 +1,67 @@
+package io.conduktor.saas.core.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-item results of a bulk request, in request order.
+ */
+public class BulkResult {
+
+    private final List<BulkItemResult> items = new ArrayList<>();
+    private int created;
+    private int updated;
+    private int failed;
+    private String error;
+
+    public int getTotal() {
+        return items.size();
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Why the request was not read to the end, if it was not; items after that point were not
+     * processed.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+
+    BulkItemResult next() {
+        BulkItemResult result = new BulkItemResult(items.size());
+        items.add(result);
+        return result;
+    }
+
+    void stop(String error) {
+        this.error = error;
+    }
+
+    void count() {
+        created = 0;
+        updated = 0;
+        failed = 0;
+        for (BulkItemResult item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.conduktor.saas.core.datasource;
+
+import io.conduktor.saas.security.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Routes each connection request to the pool partition of the tenant in {@link TenantContext}, so
+ * a tenant saturating its partition cannot starve tenants in other partitions.
+ * <p>
+ * Within a partition every tenant is also capped at a number of concurrently held connections,
+ * enforced with a semaphore per tenant that is released when the connection is closed. Work
+ * without a tenant (startup, migrations, scheduled jobs) uses the default partition uncapped.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, DataSource> partitions;
+    private final Function<String, String> partitionResolver;
+    private final ToIntFunction<String> connectionLimits;
+    private final long acquireTimeoutMs;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TenantPermits> tenantPermits = new ConcurrentHashMap<>();
+
+    /**
+     * @param partitions        pools by partition name, including {@code defaultPartition}
+     * @param partitionResolver tenant id to partition name
+     * @param connectionLimits  partition name to per-tenant connection limit
+     * @param meterRegistry     registry for per-tenant metrics, may be null
+     */
+    public TenantRoutingDataSource(Map<String, DataSource> partitions,
+                                   String defaultPartition,
+                                   Function<String, String> partitionResolver,
+                                   ToIntFunction<String> connectionLimits,
+                                   long acquireTimeoutMs,
+                                   MeterRegistry meterRegistry) {
+        this.partitions = Map.copyOf(partitions);
+        this.partitionResolver = partitionResolver;
+        this.connectionLimits = connectionLimits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        setTargetDataSources(new HashMap<>(partitions));
+        setDefaultTargetDataSource(partitions.get(defaultPartition));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenantId = TenantContext.getCurrentTenantId();
+        return tenantId != null ? partitionResolver.apply(tenantId) : null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null) {
+            return super.getConnection();
+        }
+        TenantPermits permits = acquire(tenantId);
+        try {
+            return permits.track(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null) {
+            return super.getConnection(username, password);
+        }
+        TenantPermits permits = acquire(tenantId);
+        try {
+            return permits.track(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.semaphore.release();
+            throw e;
+        }
+    }
+
+    private TenantPermits acquire(String tenantId) throws SQLException {
+        String partition = partitionResolver.apply(tenantId);
+        TenantPermits permits = tenantPermits.get(tenantId);
+        if (permits == null || !permits.partition.equals(partition)) {
+            // First connection, or the tenant moved partitions since its permits were sized
+            permits = tenantPermits.compute(tenantId, (id, current) ->
+                    current != null && current.partition.equals(partition) ? current : new TenantPermits(id, partition));
+        }
+
+        try {
+            if (!permits.semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                if (permits.rejected != null) {
+                    permits.rejected.increment();
+                }
+                throw new SQLTransientConnectionException("Tenant " + tenantId + " reached its limit of "
+                        + permits.limit + " concurrent database connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        return permits;
+    }
+
+    @Override
+    public void close() {
+        for (DataSource partition : partitions.values()) {
+            if (partition instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close connection pool", e);
+                }
+            }
+        }
+    }
+
+    private final class TenantPermits {
+        private final String partition;
+        private final int limit;
+        private final Semaphore semaphore;
+        private final Counter rejected;
+
+        private TenantPermits(String tenantId, String partition) {
+            this.partition = partition;
+            this.limit = connectionLimits.applyAsInt(partition);
+            this.semaphore = new Semaphore(limit);
+            if (meterRegistry != null) {
+                Gauge.builder("tenant.datasource.connections.active", this, permits -> permits.limit - permits.semaphore.availablePermits())
+                        .description("Connections currently held by the tenant")
+                        .tag("tenant", tenantId)
+                        .tag("partition", partition)
+                        .register(meterRegistry);
+                this.rejected = Counter.builder("tenant.datasource.connections.rejected")
+                        .description("Connection requests refused because the tenant was at its limit")
+                        .tag("tenant", tenantId)
+                        .tag("partition", partition)
+                        .register(meterRegistry);
+            } else {
+                this.rejected = null;
+            }
+        }
+
+        /** Wraps {@code connection} so closing it releases the tenant's permit exactly once. */
+        private Connection track(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -2,6 +2,9 @@ package io.conduktor.saas.core.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -15,8 +18,17 @@ import java.util.Objects;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 
+    /**
+     * Allocated 50 at a time from the table's sequence (see V3_8_1), so inserts can be batched.
+     * With pooled-lo a fetched value is the first id of its block, which keeps rows inserted with
+     * the column default ({@code nextval}) clear of ids Hibernate has handed out.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "table_sequence")
+    @GenericGenerator(name = "table_sequence", type = TableSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     @Column(name = "tenant_id", nullable = false)
@@ -0,0 +1,23 @@
+package io.conduktor.saas.core.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator for {@link BaseEntity} ids that draws from each table's own
+ * {@code <table>_id_seq}, the sequence behind its {@code BIGSERIAL} column, so entities mapped
+ * through the shared superclass still get one sequence per table.
+ */
+public class TableSequenceGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.putIfAbsent(SEQUENCE_PARAM, parameters.getProperty(PersistentIdentifierGenerator.TABLE) + "_id_seq");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,12 @@
+package io.conduktor.saas.core.exception;
+
+/**
+ * A dependency needed to answer the request, such as the database, is unreachable; the request
+ * may succeed when retried.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,80 @@
+package io.conduktor.saas.core.export;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes the rows of a query to CSV as they are read. The query runs in a read-only transaction so
+ * Postgres serves it from a server-side cursor, {@code app.export.fetch-size} rows per round trip,
+ * and nothing but the current row is held in memory.
+ * <p>
+ * That transaction stays open while the client reads, so it is bounded with
+ * {@code app.export.statement-timeout-ms}, per fetch, and
+ * {@code app.export.idle-in-transaction-timeout-ms}, between fetches; a stalled client therefore
+ * cannot keep a connection and an old snapshot pinned for the whole async request timeout.
+ */
+@Component
+public class CsvQueryExporter {
+
+    @FunctionalInterface
+    public interface RowValues {
+        Object[] values(ResultSet rs) throws SQLException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long statementTimeoutMs;
+    private final long idleInTransactionTimeoutMs;
+
+    public CsvQueryExporter(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.export.fetch-size:1000}") int fetchSize,
+                            @Value("${app.export.statement-timeout-ms:300000}") long statementTimeoutMs,
+                            @Value("${app.export.idle-in-transaction-timeout-ms:60000}") long idleInTransactionTimeoutMs) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.statementTimeoutMs = statementTimeoutMs;
+        this.idleInTransactionTimeoutMs = idleInTransactionTimeoutMs;
+    }
+
+    /**
+     * @return the number of rows written
+     * @throws IOException if writing fails, e.g. because the client went away; the query is abandoned
+     */
+    public long export(Writer writer, String[] header, String sql, RowValues row, Object... args) throws IOException {
+        CSVPrinter csv = CSVFormat.DEFAULT.builder().setHeader(header).build().print(writer);
+        long[] rows = {0};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // SET LOCAL only lasts until the transaction ends, so the pooled connection is left as it was
+                jdbcTemplate.execute("SET LOCAL statement_timeout = " + statementTimeoutMs);
+                jdbcTemplate.execute("SET LOCAL idle_in_transaction_session_timeout = " + idleInTransactionTimeoutMs);
+                jdbcTemplate.query(sql, rs -> {
+                    try {
+                        csv.printRecord(row.values(rs));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                }, args);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+        return rows[0];
+    }
+}
@@ -0,0 +1,107 @@
+package io.conduktor.saas.core.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * An export running in the background and, once completed, its gzipped CSV file.
+ */
+public class ExportJob {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String type;
+    private final String tenantId;
+    private final String requestedBy;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Path file;
+    private volatile Status status = Status.PENDING;
+    private volatile LocalDateTime completedAt;
+    private volatile long rows;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    ExportJob(String id, String type, String tenantId, String requestedBy, Path file) {
+        this.id = id;
+        this.type = type;
+        this.tenantId = tenantId;
+        this.requestedBy = requestedBy;
+        this.file = file;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    @JsonIgnore
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @JsonIgnore
+    public Path getFile() {
+        return file;
+    }
+
+    public String getFilename() {
+        return type + "-" + id + ".csv.gz";
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    void completed(long rows, long sizeBytes) {
+        this.rows = rows;
+        this.sizeBytes = sizeBytes;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,199 @@
+package io.conduktor.saas.core.export;
+
+import io.conduktor.saas.core.exception.ResourceNotFoundException;
+import io.conduktor.saas.core.exception.TooManyRequestsException;
+import io.conduktor.saas.security.TenantContext;
+import io.conduktor.saas.security.TenantContextTaskDecorator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs large exports in the background, writing gzipped CSV files into
+ * {@code app.export.temp-directory} for later download.
+ * <p>
+ * Jobs are kept in memory on the node that runs them, so status and download requests must reach
+ * the same node. Finished jobs and their files are removed after {@code job-retention-minutes};
+ * files left by a previous run are removed at startup.
+ * <p>
+ * Jobs run on a fixed pool of their own ({@code app.export.job-pool-size}) rather than the shared
+ * task executor, so exports hold at most that many connections at once. Jobs beyond it wait in a
+ * bounded queue ({@code app.export.job-queue-capacity}); when that is full the submission is
+ * rejected with a {@link TooManyRequestsException}.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private static final String FILE_PREFIX = "export-";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final TenantContextTaskDecorator TASK_DECORATOR = new TenantContextTaskDecorator();
+
+    @FunctionalInterface
+    public interface CsvSource {
+        /**
+         * @return the number of rows written
+         */
+        long write(Writer writer) throws IOException;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final int maxJobsPerTenant;
+    private final long jobRetentionMinutes;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> unfinishedPerTenant = new ConcurrentHashMap<>();
+
+    public ExportJobService(@Value("${app.export.temp-directory:/tmp/saas-exports}") String directory,
+                            @Value("${app.export.max-jobs-per-tenant:3}") int maxJobsPerTenant,
+                            @Value("${app.export.job-retention-minutes:60}") long jobRetentionMinutes,
+                            @Value("${app.export.job-pool-size:2}") int poolSize,
+                            @Value("${app.export.job-queue-capacity:50}") int queueCapacity) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "export-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.directory = Path.of(directory);
+        this.maxJobsPerTenant = maxJobsPerTenant;
+        this.jobRetentionMinutes = jobRetentionMinutes;
+
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(this.directory, FILE_PREFIX + "*")) {
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Starts writing {@code source} to a file in the background, with the current tenant bound
+     * while it runs.
+     *
+     * @throws TooManyRequestsException if the tenant already has {@code max-jobs-per-tenant} unfinished
+     * exports, or the job queue is full
+     */
+    public ExportJob submit(String type, CsvSource source) {
+        String tenantId = TenantContext.getCurrentTenantId();
+        AtomicInteger unfinished = unfinishedPerTenant.computeIfAbsent(tenantId != null ? tenantId : "",
+                key -> new AtomicInteger());
+        if (unfinished.incrementAndGet() > maxJobsPerTenant) {
+            unfinished.decrementAndGet();
+            throw new TooManyRequestsException("Too many exports in progress for this tenant, wait for one to finish", 30);
+        }
+
+        String id = UUID.randomUUID().toString();
+        ExportJob job = new ExportJob(id, type, tenantId, currentUser(),
+                directory.resolve(FILE_PREFIX + type + "-" + id + ".csv.gz"));
+        jobs.put(id, job);
+        try {
+            executor.execute(TASK_DECORATOR.decorate(() -> {
+                try {
+                    run(job, source);
+                } finally {
+                    unfinished.decrementAndGet();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            unfinished.decrementAndGet();
+            jobs.remove(id);
+            throw new TooManyRequestsException("Too many exports queued, please retry later", 60);
+        }
+        return job;
+    }
+
+    /**
+     * @throws ResourceNotFoundException if there is no such job of {@code type} for the current tenant
+     */
+    public ExportJob find(String type, String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getType().equals(type)
+                || !Objects.equals(job.getTenantId(), TenantContext.getCurrentTenantId())) {
+            throw new ResourceNotFoundException("Export not found: " + id);
+        }
+        return job;
+    }
+
+    private void run(ExportJob job, CsvSource source) {
+        job.running();
+        // Written under a temporary name, so a download never sees a partial file
+        Path partial = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            long rows;
+            try (OutputStream out = Files.newOutputStream(partial);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(
+                         new GZIPOutputStream(out, BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                rows = source.write(writer);
+            }
+            Files.move(partial, job.getFile(), StandardCopyOption.ATOMIC_MOVE);
+            job.completed(rows, Files.size(job.getFile()));
+            logger.info("Export {} ({}) completed: {} rows, {} bytes", job.getId(), job.getType(), rows, job.getSizeBytes());
+        } catch (Exception e) {
+            job.failed(e.getMessage());
+            logger.error("Export {} ({}) failed: {}", job.getId(), job.getType(), e.getMessage());
+            delete(partial);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms:300000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.isFinished() && job.getCompletedAt().isBefore(cutoff)) {
+                delete(job.getFile());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,77 @@
+package io.conduktor.saas.core.export;
+
+import io.conduktor.saas.core.exception.TooManyRequestsException;
+import io.conduktor.saas.security.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the streaming CSV exports running at once, both globally and per tenant. Each one holds a
+ * pooled connection and an open transaction for as long as the client keeps reading, so an
+ * unbounded number of them can drain the pool.
+ * <p>
+ * Controllers take a {@link Permit} before returning the response body, while a rejection can
+ * still be answered with a 429, and the body closes it once the export is done.
+ */
+@Component
+public class StreamingExportLimiter {
+
+    private final Semaphore slots;
+    private final int perTenantLimit;
+    private final Map<String, AtomicInteger> runningPerTenant = new ConcurrentHashMap<>();
+
+    public StreamingExportLimiter(@Value("${app.export.max-concurrent:8}") int maxConcurrent,
+                                  @Value("${app.export.max-concurrent-per-tenant:2}") int perTenantLimit) {
+        this.slots = new Semaphore(maxConcurrent);
+        this.perTenantLimit = perTenantLimit;
+    }
+
+    /**
+     * Reserves a slot for the current tenant.
+     *
+     * @throws TooManyRequestsException if all slots, or all of this tenant's, are taken
+     */
+    public Permit acquire() {
+        String tenantId = TenantContext.getCurrentTenantId();
+        String key = tenantId != null ? tenantId : "";
+
+        AtomicInteger running = runningPerTenant.computeIfAbsent(key, k -> new AtomicInteger());
+        if (running.incrementAndGet() > perTenantLimit) {
+            running.decrementAndGet();
+            throw new TooManyRequestsException("Too many exports running for this tenant, please retry later", 30);
+        }
+        if (!slots.tryAcquire()) {
+            running.decrementAndGet();
+            throw new TooManyRequestsException("Too many exports running, please retry later", 30);
+        }
+        return new Permit(running);
+    }
+
+    int available() {
+        return slots.availablePermits();
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final AtomicInteger running;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AtomicInteger running) {
+            this.running = running;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                running.decrementAndGet();
+                slots.release();
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package io.conduktor.saas.core.repository;
 import io.conduktor.saas.core.entity.BaseEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +21,13 @@ public interface BaseRepository<T extends BaseEntity, ID> extends JpaRepository<
     List<T> findByTenantId(String tenantId);
     
     Page<T> findByTenantId(String tenantId, Pageable pageable);
+
+    /** Like {@link #findByTenantId(String, Pageable)} without the count query. */
+    Slice<T> findSliceByTenantId(String tenantId, Pageable pageable);
     
     Optional<T> findByIdAndTenantId(ID id, String tenantId);
+
+    List<T> findByTenantIdAndIdIn(String tenantId, Collection<ID> ids);
     
     List<T> findByTenantIdAndCreatedAtBetween(String tenantId, LocalDateTime startDate, LocalDateTime endDate);
     
@@ -6,6 +6,7 @@ import io.conduktor.saas.core.repository.BaseRepository;
 import io.conduktor.saas.security.TenantContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +34,11 @@ public abstract class BaseService<T extends BaseEntity, ID> {
         return repository.findByTenantId(getCurrentTenantId(), pageable);
     }
 
+    // @Transactional(readOnly = true)
+    public Slice<T> findSlice(Pageable pageable) {
+        return repository.findSliceByTenantId(getCurrentTenantId(), pageable);
+    }
+
     // @Transactional(readOnly = true)
     public Optional<T> findByIdOptional(ID id) {
         return repository.findByIdAndTenantId(id, getCurrentTenantId());
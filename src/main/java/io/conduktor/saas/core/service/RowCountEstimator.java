@@ -0,0 +1,102 @@
+package io.conduktor.saas.core.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Row totals for {@link io.conduktor.saas.common.dto.TotalMode#ESTIMATED} listings.
+ * <p>
+ * Unfiltered listings use the Postgres planner's row estimate for {@code tenant_id = ?} (or the
+ * table's {@code reltuples}), which comes from table statistics and costs no scan. Small estimates,
+ * where statistics are least reliable and counting is cheap, and filtered listings fall back to an
+ * exact count cached for a short while per tenant and filter.
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCountEstimator.class);
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long exactCountThreshold;
+    private final Cache<String, Long> counts;
+
+    private volatile boolean plannerAvailable = true;
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${app.pagination.exact-count-threshold:1000}") long exactCountThreshold,
+                             @Value("${app.pagination.count-cache-seconds:60}") long countCacheSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.exactCountThreshold = exactCountThreshold;
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(countCacheSeconds))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * Estimates the rows of {@code table} belonging to {@code tenantId}, or of the whole table when
+     * {@code tenantId} is null.
+     *
+     * @param exactCount the exact count, used when the planner cannot give a usable estimate
+     */
+    public long estimate(String table, String tenantId, LongSupplier exactCount) {
+        long planned = plannerEstimate(table, tenantId);
+        if (planned >= exactCountThreshold) {
+            return planned;
+        }
+        return cachedCount(table + ":" + tenantId, exactCount);
+    }
+
+    /**
+     * Returns the count cached under {@code key}, computing it with {@code exactCount} at most once
+     * per cache period. Keys should include the tenant and every filter value.
+     */
+    public long cachedCount(String key, LongSupplier exactCount) {
+        return counts.get(key, k -> exactCount.getAsLong());
+    }
+
+    private long plannerEstimate(String table, String tenantId) {
+        if (!plannerAvailable) {
+            return -1;
+        }
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        try {
+            if (tenantId == null) {
+                Number reltuples = jdbcTemplate.queryForObject(
+                        "SELECT reltuples FROM pg_class WHERE oid = ?::regclass", Number.class, table);
+                return reltuples != null ? reltuples.longValue() : -1;
+            }
+            String plan = jdbcTemplate.queryForObject(
+                    "EXPLAIN (FORMAT JSON) SELECT 1 FROM " + table + " WHERE tenant_id = ?", String.class, tenantId);
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : -1;
+        } catch (BadSqlGrammarException e) {
+            // Not Postgres (e.g. H2 in tests): stop asking and rely on cached counts
+            plannerAvailable = false;
+            logger.info("Planner row estimates unavailable, using cached counts: {}", e.getMessage());
+            return -1;
+        } catch (Exception e) {
+            logger.debug("Could not estimate rows of {}: {}", table, e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -2,27 +2,33 @@ package io.conduktor.saas.kafka.audit.controller;
 
 import io.conduktor.saas.common.dto.ApiResponse;
 import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.core.export.StreamingExportLimiter;
 import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogDto;
 import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogFilterDto;
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
 import io.conduktor.saas.kafka.audit.service.KafkaAuditLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/kafka/audit-logs")
@@ -30,16 +36,21 @@ import java.util.Map;
 @Tag(name = "Kafka Audit Logs", description = "Kafka audit log management APIs")
 public class KafkaAuditLogController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final KafkaAuditLogService kafkaAuditLogService;
+    private final StreamingExportLimiter exportLimiter;
 
-    public KafkaAuditLogController(KafkaAuditLogService kafkaAuditLogService) {
+    public KafkaAuditLogController(KafkaAuditLogService kafkaAuditLogService,
+                                   StreamingExportLimiter exportLimiter) {
         this.kafkaAuditLogService = kafkaAuditLogService;
+        this.exportLimiter = exportLimiter;
     }
 
     @GetMapping
     @Operation(summary = "Get paginated audit logs with advanced filtering")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<PageResponse<KafkaAuditLogDto>>> getAuditLogs(
+    public ResponseEntity<ApiResponse<PageResponse<KafkaAuditLogSummaryDto>>> getAuditLogs(
             @Parameter(description = "User email filter") @RequestParam(required = false) String userEmail,
             @Parameter(description = "Action filter") @RequestParam(required = false) String action,
             @Parameter(description = "Multiple actions filter") @RequestParam(required = false) List<String> actions,
@@ -59,7 +70,9 @@ public class KafkaAuditLogController {
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "timestamp") String sort,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String direction) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Continuation token for cursor paging; pass it empty to start, then the previous nextCursor")
+            @RequestParam(required = false) String cursor) {
 
         KafkaAuditLogFilterDto filter = new KafkaAuditLogFilterDto();
         filter.setUserEmail(userEmail);
@@ -80,8 +93,11 @@ public class KafkaAuditLogController {
         filter.setSize(size);
         filter.setSort(sort);
         filter.setDirection(direction);
+        filter.setCursor(cursor);
 
-        PageResponse<KafkaAuditLogDto> auditLogs = kafkaAuditLogService.findAuditLogs(filter);
+        PageResponse<KafkaAuditLogSummaryDto> auditLogs = cursor != null
+            ? kafkaAuditLogService.findAuditLogsAfter(filter)
+            : kafkaAuditLogService.findAuditLogs(filter);
         return ResponseEntity.ok(ApiResponse.success(auditLogs));
     }
 
@@ -96,54 +112,62 @@ public class KafkaAuditLogController {
     }
 
     @GetMapping("/export")
-    @Operation(summary = "Export audit logs to CSV")
+    @Operation(summary = "Export audit logs to CSV", description = "Streams every matching audit log; accepts the same filters as the list endpoint")
     @PreAuthorize("hasRole('USER')")
-    public void exportAuditLogs(
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
             @Parameter(description = "User email filter") @RequestParam(required = false) String userEmail,
             @Parameter(description = "Action filter") @RequestParam(required = false) String action,
+            @Parameter(description = "Multiple actions filter") @RequestParam(required = false) List<String> actions,
             @Parameter(description = "Resource type filter") @RequestParam(required = false) String resourceType,
+            @Parameter(description = "Resource name filter") @RequestParam(required = false) String resourceName,
+            @Parameter(description = "Cluster ID filter") @RequestParam(required = false) Long clusterId,
+            @Parameter(description = "Cluster name filter") @RequestParam(required = false) String clusterName,
+            @Parameter(description = "Topic name filter") @RequestParam(required = false) String topicName,
+            @Parameter(description = "Consumer group filter") @RequestParam(required = false) String consumerGroup,
+            @Parameter(description = "Status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "IP address filter") @RequestParam(required = false) String ipAddress,
             @Parameter(description = "Date from filter") @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateFrom,
             @Parameter(description = "Date to filter") @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateTo,
-            HttpServletResponse response) throws IOException {
+            @Parameter(description = "Search term for full-text search") @RequestParam(required = false) String searchTerm,
+            @Parameter(description = "Sort direction by timestamp") @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Gzip the CSV") @RequestParam(defaultValue = "false") boolean gzip) {
 
         KafkaAuditLogFilterDto filter = new KafkaAuditLogFilterDto();
         filter.setUserEmail(userEmail);
         filter.setAction(action);
+        filter.setActions(actions);
         filter.setResourceType(resourceType);
+        filter.setResourceName(resourceName);
+        filter.setClusterId(clusterId);
+        filter.setClusterName(clusterName);
+        filter.setTopicName(topicName);
+        filter.setConsumerGroup(consumerGroup);
+        filter.setStatus(status);
+        filter.setIpAddress(ipAddress);
         filter.setDateFrom(dateFrom);
         filter.setDateTo(dateTo);
-        filter.setSize(10000); // Large size for export
-
-        PageResponse<KafkaAuditLogDto> auditLogs = kafkaAuditLogService.findAuditLogs(filter);
-
-        response.setContentType("text/csv");
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, 
-            "attachment; filename=kafka-audit-logs-" + 
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + ".csv");
-
-        try (PrintWriter writer = response.getWriter()) {
-            // CSV Header
-            writer.println("Timestamp,User Email,Action,Resource Type,Resource Name,Cluster Name,Topic Name,Consumer Group,Status,IP Address,Duration (ms)");
-
-            // CSV Data
-            for (KafkaAuditLogDto auditLog : auditLogs.getContent()) {
-                writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                    auditLog.getTimestamp() != null ? auditLog.getTimestamp().toString() : "",
-                    auditLog.getUserEmail() != null ? auditLog.getUserEmail() : "",
-                    auditLog.getAction() != null ? auditLog.getAction() : "",
-                    auditLog.getResourceType() != null ? auditLog.getResourceType() : "",
-                    auditLog.getResourceName() != null ? auditLog.getResourceName() : "",
-                    auditLog.getClusterName() != null ? auditLog.getClusterName() : "",
-                    auditLog.getTopicName() != null ? auditLog.getTopicName() : "",
-                    auditLog.getConsumerGroup() != null ? auditLog.getConsumerGroup() : "",
-                    auditLog.getStatus() != null ? auditLog.getStatus() : "",
-                    auditLog.getIpAddress() != null ? auditLog.getIpAddress() : "",
-                    auditLog.getDurationMs() != null ? auditLog.getDurationMs().toString() : ""
-                );
+        filter.setSearchTerm(searchTerm);
+        filter.setDirection(direction);
+
+        String filename = "kafka-audit-logs-" +
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + (gzip ? ".csv.gz" : ".csv");
+
+        StreamingExportLimiter.Permit permit = exportLimiter.acquire();
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+                    kafkaAuditLogService.exportAuditLogs(filter, writer);
+                }
             }
-        }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+            .body(body);
     }
 
     @GetMapping("/stats")
@@ -162,32 +186,40 @@ public class KafkaAuditLogController {
     @GetMapping("/actions")
     @Operation(summary = "Get available actions for filtering")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<List<String>>> getAvailableActions() {
-        List<String> actions = kafkaAuditLogService.getAvailableActions();
+    public ResponseEntity<ApiResponse<List<String>>> getAvailableActions(
+            @Parameter(description = "Only values starting with this prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Maximum number of values, 0 for all") @RequestParam(defaultValue = "0") int limit) {
+        List<String> actions = kafkaAuditLogService.getAvailableActions(prefix, limit);
         return ResponseEntity.ok(ApiResponse.success(actions));
     }
 
     @GetMapping("/users")
     @Operation(summary = "Get available users for filtering")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<List<String>>> getAvailableUsers() {
-        List<String> users = kafkaAuditLogService.getAvailableUsers();
+    public ResponseEntity<ApiResponse<List<String>>> getAvailableUsers(
+            @Parameter(description = "Only values starting with this prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Maximum number of values, 0 for all") @RequestParam(defaultValue = "0") int limit) {
+        List<String> users = kafkaAuditLogService.getAvailableUsers(prefix, limit);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
     @GetMapping("/clusters")
     @Operation(summary = "Get available clusters for filtering")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<List<String>>> getAvailableClusters() {
-        List<String> clusters = kafkaAuditLogService.getAvailableClusters();
+    public ResponseEntity<ApiResponse<List<String>>> getAvailableClusters(
+            @Parameter(description = "Only values starting with this prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Maximum number of values, 0 for all") @RequestParam(defaultValue = "0") int limit) {
+        List<String> clusters = kafkaAuditLogService.getAvailableClusters(prefix, limit);
         return ResponseEntity.ok(ApiResponse.success(clusters));
     }
 
     @GetMapping("/topics")
     @Operation(summary = "Get available topics for filtering")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<List<String>>> getAvailableTopics() {
-        List<String> topics = kafkaAuditLogService.getAvailableTopics();
+    public ResponseEntity<ApiResponse<List<String>>> getAvailableTopics(
+            @Parameter(description = "Only values starting with this prefix") @RequestParam(required = false) String prefix,
+            @Parameter(description = "Maximum number of values, 0 for all") @RequestParam(defaultValue = "0") int limit) {
+        List<String> topics = kafkaAuditLogService.getAvailableTopics(prefix, limit);
         return ResponseEntity.ok(ApiResponse.success(topics));
     }
 }
\ No newline at end of file
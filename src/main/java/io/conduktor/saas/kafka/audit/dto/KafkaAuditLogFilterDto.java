@@ -65,6 +65,10 @@ public class KafkaAuditLogFilterDto {
     @Schema(description = "Sort direction", example = "desc", defaultValue = "desc")
     private String direction = "desc";
 
+    @Schema(description = "Continuation token from the previous page's nextCursor; empty for the first page. "
+            + "When set, results are ordered by timestamp and no total count is returned")
+    private String cursor;
+
     // Constructors
     public KafkaAuditLogFilterDto() {}
 
@@ -212,4 +216,12 @@ public class KafkaAuditLogFilterDto {
     public void setDirection(String direction) {
         this.direction = direction;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
\ No newline at end of file
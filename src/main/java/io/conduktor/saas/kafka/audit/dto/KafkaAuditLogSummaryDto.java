@@ -0,0 +1,54 @@
+package io.conduktor.saas.kafka.audit.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * The audit log columns shown in listings. Selected directly by the list queries, so the
+ * {@code details} and {@code metadata} JSON, the user agent and the request identifiers are
+ * neither fetched nor parsed; {@link KafkaAuditLogDto} has them for a single entry.
+ */
+@Schema(description = "Kafka audit log entry as shown in listings")
+public record KafkaAuditLogSummaryDto(
+        @Schema(description = "Audit log ID", example = "1")
+        Long id,
+
+        @Schema(description = "User email", example = "john.doe@acme-corp.com")
+        String userEmail,
+
+        @Schema(description = "Action performed", example = "CREATE_TOPIC")
+        String action,
+
+        @Schema(description = "Resource type", example = "TOPIC")
+        String resourceType,
+
+        @Schema(description = "Resource name", example = "user-events")
+        String resourceName,
+
+        @Schema(description = "Cluster ID", example = "1")
+        Long clusterId,
+
+        @Schema(description = "Cluster name", example = "production-cluster")
+        String clusterName,
+
+        @Schema(description = "Topic name", example = "user-events")
+        String topicName,
+
+        @Schema(description = "Consumer group", example = "analytics-consumer-group")
+        String consumerGroup,
+
+        @Schema(description = "IP address", example = "192.168.1.100")
+        String ipAddress,
+
+        @Schema(description = "Timestamp", example = "2024-03-15T10:30:00")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime timestamp,
+
+        @Schema(description = "Duration in milliseconds", example = "150")
+        Integer durationMs,
+
+        @Schema(description = "Status", example = "SUCCESS")
+        String status) {
+}
@@ -10,7 +10,7 @@ import java.util.Map;
 
 @Entity
 @Table(name = "kafka_audit_logs", indexes = {
-    @Index(name = "idx_kafka_audit_tenant_timestamp", columnList = "tenantId, timestamp"),
+    @Index(name = "idx_kafka_audit_tenant_timestamp_id", columnList = "tenantId, timestamp, id"),
     @Index(name = "idx_kafka_audit_user_action", columnList = "userId, action"),
     @Index(name = "idx_kafka_audit_cluster_topic", columnList = "clusterId, topicName"),
     @Index(name = "idx_kafka_audit_timestamp", columnList = "timestamp")
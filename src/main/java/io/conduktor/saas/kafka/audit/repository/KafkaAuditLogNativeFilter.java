@@ -0,0 +1,84 @@
+package io.conduktor.saas.kafka.audit.repository;
+
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogFilterDto;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL {@code WHERE} clause over {@code kafka_audit_logs k} with the same filters as the list
+ * endpoint, for callers that read through plain JDBC. Like {@link KafkaAuditLogSpecifications},
+ * only the filters that are set become predicates. A search term matches the same way as
+ * {@link KafkaAuditLogRepository#searchByTenantIdWithFilters}.
+ */
+public final class KafkaAuditLogNativeFilter {
+
+    private final StringBuilder where = new StringBuilder("k.tenant_id = ?");
+    private final List<Object> args = new ArrayList<>();
+
+    private KafkaAuditLogNativeFilter(String tenantId) {
+        args.add(tenantId);
+    }
+
+    public static KafkaAuditLogNativeFilter matching(String tenantId, KafkaAuditLogFilterDto filter) {
+        KafkaAuditLogNativeFilter sql = new KafkaAuditLogNativeFilter(tenantId);
+        if (filter.getActions() != null && !filter.getActions().isEmpty()) {
+            sql.where.append(" AND k.action IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.getActions().size(), "?")))
+                    .append(')');
+            sql.args.addAll(filter.getActions());
+        }
+        sql.equal("k.action", filter.getAction());
+        sql.equal("k.resource_type", filter.getResourceType());
+        sql.equal("k.cluster_id", filter.getClusterId());
+        sql.equal("k.status", filter.getStatus());
+        sql.equal("k.ip_address", filter.getIpAddress());
+        sql.contains("k.user_email", filter.getUserEmail());
+        sql.contains("k.resource_name", filter.getResourceName());
+        sql.contains("k.cluster_name", filter.getClusterName());
+        sql.contains("k.topic_name", filter.getTopicName());
+        sql.contains("k.consumer_group", filter.getConsumerGroup());
+        if (filter.getDateFrom() != null) {
+            sql.where.append(" AND k.timestamp >= ?");
+            sql.args.add(Timestamp.valueOf(filter.getDateFrom()));
+        }
+        if (filter.getDateTo() != null) {
+            sql.where.append(" AND k.timestamp <= ?");
+            sql.args.add(Timestamp.valueOf(filter.getDateTo()));
+        }
+        if (StringUtils.hasText(filter.getSearchTerm())) {
+            String term = filter.getSearchTerm().trim();
+            sql.where.append(" AND (k.search_vector @@ websearch_to_tsquery('simple', ?)")
+                    .append(" OR kafka_audit_search_text(k.user_email, k.action, k.resource_name, k.cluster_name,")
+                    .append(" k.topic_name, k.consumer_group) LIKE ?)");
+            sql.args.add(term);
+            sql.args.add("%" + term + "%");
+        }
+        return sql;
+    }
+
+    public String where() {
+        return where.toString();
+    }
+
+    public Object[] args() {
+        return args.toArray();
+    }
+
+    private void equal(String column, Object value) {
+        if (value != null) {
+            where.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+
+    private void contains(String column, String value) {
+        if (value != null) {
+            where.append(" AND ").append(column).append(" LIKE ?");
+            args.add("%" + value + "%");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.conduktor.saas.kafka.audit.repository;
 
 import io.conduktor.saas.core.repository.BaseRepository;
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
 import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,39 +11,68 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @Repository
-public interface KafkaAuditLogRepository extends BaseRepository<KafkaAuditLog, Long> {
+public interface KafkaAuditLogRepository extends BaseRepository<KafkaAuditLog, Long>, KafkaAuditLogSummaryQueries {
 
     @Query("SELECT k FROM KafkaAuditLog k WHERE k.tenantId = :tenantId")
     Page<KafkaAuditLog> findByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
 
-    @Query("""
-        SELECT k FROM KafkaAuditLog k 
-        WHERE k.tenantId = :tenantId 
-        AND (:userEmail IS NULL OR k.userEmail LIKE %:userEmail%)
-        AND (:action IS NULL OR k.action = :action)
-        AND (:resourceType IS NULL OR k.resourceType = :resourceType)
-        AND (:resourceName IS NULL OR k.resourceName LIKE %:resourceName%)
-        AND (:clusterId IS NULL OR k.clusterId = :clusterId)
-        AND (:clusterName IS NULL OR k.clusterName LIKE %:clusterName%)
-        AND (:topicName IS NULL OR k.topicName LIKE %:topicName%)
-        AND (:consumerGroup IS NULL OR k.consumerGroup LIKE %:consumerGroup%)
-        AND (:status IS NULL OR k.status = :status)
-        AND (:ipAddress IS NULL OR k.ipAddress = :ipAddress)
-        AND (:dateFrom IS NULL OR k.timestamp >= :dateFrom)
-        AND (:dateTo IS NULL OR k.timestamp <= :dateTo)
-        AND (:searchTerm IS NULL OR 
-             k.userEmail LIKE %:searchTerm% OR 
-             k.action LIKE %:searchTerm% OR 
-             k.resourceName LIKE %:searchTerm% OR 
-             k.clusterName LIKE %:searchTerm% OR 
-             k.topicName LIKE %:searchTerm% OR 
-             k.consumerGroup LIKE %:searchTerm%)
-        """)
-    Page<KafkaAuditLog> findByTenantIdWithFilters(
+    /**
+     * Ranked search: {@code searchTerm} is matched as words against the {@code search_vector}
+     * full-text index and as a substring against the trigram index, then combined with the same
+     * structured filters as {@link KafkaAuditLogSpecifications#matching}. Best matches come first,
+     * newest first among equals; the pageable's sort is ignored. Only the listed columns are read,
+     * as for {@link KafkaAuditLogSummaryQueries}.
+     */
+    @Query(value = """
+        SELECT k.id AS "id", k.user_email AS "userEmail", k.action AS "action",
+               k.resource_type AS "resourceType", k.resource_name AS "resourceName",
+               k.cluster_id AS "clusterId", k.cluster_name AS "clusterName", k.topic_name AS "topicName",
+               k.consumer_group AS "consumerGroup", k.ip_address AS "ipAddress", k.timestamp AS "timestamp",
+               k.duration_ms AS "durationMs", k.status AS "status"
+        FROM kafka_audit_logs k, websearch_to_tsquery('simple', :searchTerm) q
+        WHERE k.tenant_id = :tenantId
+        AND (k.search_vector @@ q
+             OR kafka_audit_search_text(k.user_email, k.action, k.resource_name, k.cluster_name,
+                                        k.topic_name, k.consumer_group) LIKE '%' || :searchTerm || '%')
+        AND (CAST(:userEmail AS text) IS NULL OR k.user_email LIKE '%' || CAST(:userEmail AS text) || '%')
+        AND (CAST(:action AS text) IS NULL OR k.action = CAST(:action AS text))
+        AND (CAST(:resourceType AS text) IS NULL OR k.resource_type = CAST(:resourceType AS text))
+        AND (CAST(:resourceName AS text) IS NULL OR k.resource_name LIKE '%' || CAST(:resourceName AS text) || '%')
+        AND (CAST(:clusterId AS bigint) IS NULL OR k.cluster_id = CAST(:clusterId AS bigint))
+        AND (CAST(:clusterName AS text) IS NULL OR k.cluster_name LIKE '%' || CAST(:clusterName AS text) || '%')
+        AND (CAST(:topicName AS text) IS NULL OR k.topic_name LIKE '%' || CAST(:topicName AS text) || '%')
+        AND (CAST(:consumerGroup AS text) IS NULL OR k.consumer_group LIKE '%' || CAST(:consumerGroup AS text) || '%')
+        AND (CAST(:status AS text) IS NULL OR k.status = CAST(:status AS text))
+        AND (CAST(:ipAddress AS text) IS NULL OR k.ip_address = CAST(:ipAddress AS text))
+        AND (CAST(:dateFrom AS timestamp) IS NULL OR k.timestamp >= CAST(:dateFrom AS timestamp))
+        AND (CAST(:dateTo AS timestamp) IS NULL OR k.timestamp <= CAST(:dateTo AS timestamp))
+        ORDER BY ts_rank(k.search_vector, q) DESC, k.timestamp DESC, k.id DESC
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM kafka_audit_logs k, websearch_to_tsquery('simple', :searchTerm) q
+        WHERE k.tenant_id = :tenantId
+        AND (k.search_vector @@ q
+             OR kafka_audit_search_text(k.user_email, k.action, k.resource_name, k.cluster_name,
+                                        k.topic_name, k.consumer_group) LIKE '%' || :searchTerm || '%')
+        AND (CAST(:userEmail AS text) IS NULL OR k.user_email LIKE '%' || CAST(:userEmail AS text) || '%')
+        AND (CAST(:action AS text) IS NULL OR k.action = CAST(:action AS text))
+        AND (CAST(:resourceType AS text) IS NULL OR k.resource_type = CAST(:resourceType AS text))
+        AND (CAST(:resourceName AS text) IS NULL OR k.resource_name LIKE '%' || CAST(:resourceName AS text) || '%')
+        AND (CAST(:clusterId AS bigint) IS NULL OR k.cluster_id = CAST(:clusterId AS bigint))
+        AND (CAST(:clusterName AS text) IS NULL OR k.cluster_name LIKE '%' || CAST(:clusterName AS text) || '%')
+        AND (CAST(:topicName AS text) IS NULL OR k.topic_name LIKE '%' || CAST(:topicName AS text) || '%')
+        AND (CAST(:consumerGroup AS text) IS NULL OR k.consumer_group LIKE '%' || CAST(:consumerGroup AS text) || '%')
+        AND (CAST(:status AS text) IS NULL OR k.status = CAST(:status AS text))
+        AND (CAST(:ipAddress AS text) IS NULL OR k.ip_address = CAST(:ipAddress AS text))
+        AND (CAST(:dateFrom AS timestamp) IS NULL OR k.timestamp >= CAST(:dateFrom AS timestamp))
+        AND (CAST(:dateTo AS timestamp) IS NULL OR k.timestamp <= CAST(:dateTo AS timestamp))
+        """,
+        nativeQuery = true)
+    Page<SummaryView> searchByTenantIdWithFilters(
         @Param("tenantId") String tenantId,
+        @Param("searchTerm") String searchTerm,
         @Param("userEmail") String userEmail,
         @Param("action") String action,
         @Param("resourceType") String resourceType,
@@ -55,16 +85,19 @@ public interface KafkaAuditLogRepository extends BaseRepository<KafkaAuditLog, L
         @Param("ipAddress") String ipAddress,
         @Param("dateFrom") LocalDateTime dateFrom,
         @Param("dateTo") LocalDateTime dateTo,
-        @Param("searchTerm") String searchTerm,
         Pageable pageable
     );
 
-    @Query("""
-        SELECT k FROM KafkaAuditLog k 
-        WHERE k.tenantId = :tenantId 
+    @Query(value = """
+        SELECT new io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto(
+            k.id, k.userEmail, k.action, k.resourceType, k.resourceName, k.clusterId, k.clusterName,
+            k.topicName, k.consumerGroup, k.ipAddress, k.timestamp, k.durationMs, k.status)
+        FROM KafkaAuditLog k
+        WHERE k.tenantId = :tenantId
         AND k.action IN :actions
-        """)
-    Page<KafkaAuditLog> findByTenantIdAndActionIn(
+        """,
+        countQuery = "SELECT COUNT(k) FROM KafkaAuditLog k WHERE k.tenantId = :tenantId AND k.action IN :actions")
+    Page<KafkaAuditLogSummaryDto> findSummariesByTenantIdAndActionIn(
         @Param("tenantId") String tenantId,
         @Param("actions") List<String> actions,
         Pageable pageable
@@ -82,56 +115,20 @@ public interface KafkaAuditLogRepository extends BaseRepository<KafkaAuditLog, L
     @Query("SELECT DISTINCT k.topicName FROM KafkaAuditLog k WHERE k.tenantId = :tenantId AND k.topicName IS NOT NULL ORDER BY k.topicName")
     List<String> findDistinctTopicNamesByTenantId(@Param("tenantId") String tenantId);
 
-    @Query("""
-        SELECT k.action as action, COUNT(k) as count 
-        FROM KafkaAuditLog k 
-        WHERE k.tenantId = :tenantId 
-        AND (:dateFrom IS NULL OR k.timestamp >= :dateFrom)
-        AND (:dateTo IS NULL OR k.timestamp <= :dateTo)
-        GROUP BY k.action 
-        ORDER BY count DESC
-        """)
-    List<Map<String, Object>> getActionStatsByTenantId(
-        @Param("tenantId") String tenantId,
-        @Param("dateFrom") LocalDateTime dateFrom,
-        @Param("dateTo") LocalDateTime dateTo
-    );
-
-    @Query("""
-        SELECT DATE(k.timestamp) as date, COUNT(k) as count 
-        FROM KafkaAuditLog k 
-        WHERE k.tenantId = :tenantId 
-        AND k.timestamp >= :dateFrom
-        AND k.timestamp <= :dateTo
-        GROUP BY DATE(k.timestamp) 
-        ORDER BY date
-        """)
-    List<Map<String, Object>> getDailyActivityByTenantId(
-        @Param("tenantId") String tenantId,
-        @Param("dateFrom") LocalDateTime dateFrom,
-        @Param("dateTo") LocalDateTime dateTo
-    );
-
-    @Query("""
-        SELECT COUNT(k) 
-        FROM KafkaAuditLog k 
-        WHERE k.tenantId = :tenantId 
-        AND k.timestamp >= :dateFrom
-        """)
-    Long countByTenantIdAndTimestampAfter(
-        @Param("tenantId") String tenantId,
-        @Param("dateFrom") LocalDateTime dateFrom
-    );
-
-    @Query("""
-        SELECT AVG(k.durationMs) 
-        FROM KafkaAuditLog k 
-        WHERE k.tenantId = :tenantId 
-        AND k.durationMs IS NOT NULL
-        AND k.timestamp >= :dateFrom
-        """)
-    Double getAverageDurationByTenantId(
-        @Param("tenantId") String tenantId,
-        @Param("dateFrom") LocalDateTime dateFrom
-    );
-}
\ No newline at end of file
+    /** Row of {@link #searchByTenantIdWithFilters}; the same columns as {@link KafkaAuditLogSummaryDto}. */
+    interface SummaryView {
+        Long getId();
+        String getUserEmail();
+        String getAction();
+        String getResourceType();
+        String getResourceName();
+        Long getClusterId();
+        String getClusterName();
+        String getTopicName();
+        String getConsumerGroup();
+        String getIpAddress();
+        LocalDateTime getTimestamp();
+        Integer getDurationMs();
+        String getStatus();
+    }
+}
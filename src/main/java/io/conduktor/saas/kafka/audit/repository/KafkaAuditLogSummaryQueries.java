@@ -0,0 +1,22 @@
+package io.conduktor.saas.kafka.audit.repository;
+
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Audit log listings filtered by a {@link Specification} that select only the columns of
+ * {@link KafkaAuditLogSummaryDto} instead of loading entities.
+ */
+public interface KafkaAuditLogSummaryQueries {
+
+    Page<KafkaAuditLogSummaryDto> findSummaries(Specification<KafkaAuditLog> spec, Pageable pageable);
+
+    /** At most {@code limit} rows in {@code sort} order, without counting. */
+    List<KafkaAuditLogSummaryDto> findSummaries(Specification<KafkaAuditLog> spec, Sort sort, int limit);
+}
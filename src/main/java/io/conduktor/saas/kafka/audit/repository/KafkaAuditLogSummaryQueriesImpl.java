@@ -0,0 +1,64 @@
+package io.conduktor.saas.kafka.audit.repository;
+
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class KafkaAuditLogSummaryQueriesImpl implements KafkaAuditLogSummaryQueries {
+
+    private final EntityManager entityManager;
+
+    KafkaAuditLogSummaryQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<KafkaAuditLogSummaryDto> findSummaries(Specification<KafkaAuditLog> spec, Pageable pageable) {
+        TypedQuery<KafkaAuditLogSummaryDto> query = summaryQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<KafkaAuditLogSummaryDto> findSummaries(Specification<KafkaAuditLog> spec, Sort sort, int limit) {
+        return summaryQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<KafkaAuditLogSummaryDto> summaryQuery(Specification<KafkaAuditLog> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<KafkaAuditLogSummaryDto> query = cb.createQuery(KafkaAuditLogSummaryDto.class);
+        Root<KafkaAuditLog> root = query.from(KafkaAuditLog.class);
+        query.select(cb.construct(KafkaAuditLogSummaryDto.class,
+                root.get("id"), root.get("userEmail"), root.get("action"), root.get("resourceType"),
+                root.get("resourceName"), root.get("clusterId"), root.get("clusterName"), root.get("topicName"),
+                root.get("consumerGroup"), root.get("ipAddress"), root.get("timestamp"), root.get("durationMs"),
+                root.get("status")));
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<KafkaAuditLog> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<KafkaAuditLog> root = query.from(KafkaAuditLog.class);
+        query.select(cb.count(root));
+        query.where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
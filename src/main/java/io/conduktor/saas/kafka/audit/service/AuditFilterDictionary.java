@@ -0,0 +1,135 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import io.conduktor.saas.kafka.audit.repository.KafkaAuditLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Sorted distinct values of the audit log filter fields, per tenant, for the filter dropdowns.
+ * <p>
+ * A tenant's dictionary is loaded with {@code SELECT DISTINCT} on first use and then kept current
+ * by {@link #record} as the audit writer commits events. Reads are served from an immutable
+ * snapshot that is only rebuilt after a new value arrives. Entries expire after
+ * {@code expire-minutes}, which bounds how long values written by other nodes, or values whose
+ * rows were deleted by retention, take to show up or disappear.
+ */
+@Component
+public class AuditFilterDictionary {
+
+    public enum Field {
+        ACTION(KafkaAuditLog::getAction),
+        USER(KafkaAuditLog::getUserEmail),
+        CLUSTER(KafkaAuditLog::getClusterName),
+        TOPIC(KafkaAuditLog::getTopicName);
+
+        private final Function<KafkaAuditLog, String> value;
+
+        Field(Function<KafkaAuditLog, String> value) {
+            this.value = value;
+        }
+    }
+
+    private final KafkaAuditLogRepository kafkaAuditLogRepository;
+    private final LoadingCache<String, Map<Field, Values>> dictionaries;
+
+    public AuditFilterDictionary(KafkaAuditLogRepository kafkaAuditLogRepository,
+                                 @Value("${app.audit.filter-dictionary.expire-minutes:10}") long expireMinutes,
+                                 @Value("${app.audit.filter-dictionary.max-tenants:1000}") long maxTenants) {
+        this.kafkaAuditLogRepository = kafkaAuditLogRepository;
+        this.dictionaries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .maximumSize(maxTenants)
+                .build(this::load);
+    }
+
+    /**
+     * Values of {@code field} for {@code tenantId} in ascending order, optionally only those
+     * starting with {@code prefix} and at most {@code limit} of them.
+     */
+    public List<String> values(String tenantId, Field field, String prefix, int limit) {
+        Values values = dictionaries.get(tenantId).get(field);
+        if ((prefix == null || prefix.isEmpty()) && limit <= 0) {
+            return values.snapshot();
+        }
+        List<String> matches = new ArrayList<>();
+        NavigableSet<String> candidates = prefix == null || prefix.isEmpty()
+                ? values.sorted
+                : values.sorted.tailSet(prefix, true);
+        for (String value : candidates) {
+            if (prefix != null && !value.startsWith(prefix) || limit > 0 && matches.size() >= limit) {
+                break;
+            }
+            matches.add(value);
+        }
+        return matches;
+    }
+
+    /**
+     * Adds the values of committed events to the dictionaries already loaded; tenants not loaded
+     * pick them up when they are.
+     */
+    public void record(List<KafkaAuditLog> auditLogs) {
+        for (KafkaAuditLog auditLog : auditLogs) {
+            Map<Field, Values> dictionary = dictionaries.getIfPresent(auditLog.getTenantId());
+            if (dictionary == null) {
+                continue;
+            }
+            for (Field field : Field.values()) {
+                dictionary.get(field).add(field.value.apply(auditLog));
+            }
+        }
+    }
+
+    private Map<Field, Values> load(String tenantId) {
+        Map<Field, Values> dictionary = new EnumMap<>(Field.class);
+        dictionary.put(Field.ACTION, new Values(kafkaAuditLogRepository.findDistinctActionsByTenantId(tenantId)));
+        dictionary.put(Field.USER, new Values(kafkaAuditLogRepository.findDistinctUserEmailsByTenantId(tenantId)));
+        dictionary.put(Field.CLUSTER, new Values(kafkaAuditLogRepository.findDistinctClusterNamesByTenantId(tenantId)));
+        dictionary.put(Field.TOPIC, new Values(kafkaAuditLogRepository.findDistinctTopicNamesByTenantId(tenantId)));
+        return dictionary;
+    }
+
+    private static final class Values {
+        private final ConcurrentSkipListSet<String> sorted = new ConcurrentSkipListSet<>();
+        private volatile List<String> snapshot;
+
+        private Values(List<String> initial) {
+            initial.stream().filter(Objects::nonNull).forEach(sorted::add);
+        }
+
+        private void add(String value) {
+            if (value != null && sorted.add(value)) {
+                // New values are rare, so invalidating under the lock costs nothing in practice
+                synchronized (this) {
+                    snapshot = null;
+                }
+            }
+        }
+
+        private List<String> snapshot() {
+            List<String> current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = List.copyOf(sorted);
+                }
+                return snapshot;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the {@code (timestamp, id)} ordering of a tenant's audit log, handed to clients as an
+ * opaque continuation token.
+ */
+public record AuditLogCursor(LocalDateTime timestamp, Long id) {
+
+    public static AuditLogCursor after(KafkaAuditLogSummaryDto auditLog) {
+        return new AuditLogCursor(auditLog.timestamp(), auditLog.id());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()}
+     */
+    public static AuditLogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new AuditLogCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
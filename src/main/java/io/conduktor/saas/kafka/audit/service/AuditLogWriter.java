@@ -0,0 +1,465 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind path for audit events: callers hand events to a bounded queue and return at once,
+ * and a single flusher thread writes them as multi-row {@code INSERT}s of up to {@code batch-size}
+ * rows, or whatever arrived within {@code flush-interval-ms}. Each batch updates the
+ * {@link AuditStatsRollup} in the same transaction, and the {@link AuditFilterDictionary} once
+ * committed.
+ * <p>
+ * When the queue is full, {@code overflow} decides: {@code block} waits up to
+ * {@code offer-timeout-ms} for room and then drops, {@code drop} drops at once, and
+ * {@code caller-runs} writes the event on the caller's thread. Dropped events are counted and
+ * logged. On shutdown the flusher drains the queue before the connection pool closes; events
+ * submitted after that are written synchronously.
+ * <p>
+ * A batch that fails because the database is unreachable is retried {@code retry-attempts} times,
+ * {@code retry-backoff-ms} apart. A batch the database rejects is split in halves and each half
+ * written on its own, so one bad event costs only itself; events rejected on their own are counted
+ * as failed and logged.
+ * <p>
+ * With the {@link AuditWriteAheadLog} enabled, every event is appended to it before it is queued
+ * and acknowledged once its batch commits. An event that does not fit in the queue is then not
+ * dropped but left to the log's replay, as is a batch whose insert failed.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String METRIC_PREFIX = "audit.writer";
+
+    private static final String[] COLUMNS = {
+            "tenant_id", "user_id", "user_email", "action", "resource_type", "resource_name",
+            "cluster_id", "cluster_name", "topic_name", "consumer_group", "details", "ip_address",
+            "user_agent", "timestamp", "duration_ms", "status", "metadata", "session_id", "request_id",
+            "created_at", "updated_at", "created_by", "updated_by", "version"
+    };
+    // Postgres binds at most 32767 parameters per statement
+    private static final int MAX_BATCH_SIZE = 32767 / COLUMNS.length;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditStatsRollup statsRollup;
+    private final AuditFilterDictionary filterDictionary;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final AuditWriteAheadLog writeAheadLog;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Overflow overflow;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final int retryAttempts;
+    private final long retryBackoffMs;
+
+    private final BlockingQueue<Queued> queue;
+    private final Thread flusher;
+    private final String batchInsertSql;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running = true;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          AuditStatsRollup statsRollup,
+                          AuditFilterDictionary filterDictionary,
+                          ObjectMapper objectMapper,
+                          AuditorAware<String> auditorAware,
+                          ObjectProvider<AuditWriteAheadLog> writeAheadLog,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.audit.writer.batch-size:500}") int batchSize,
+                          @Value("${app.audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+                          @Value("${app.audit.writer.overflow:block}") String overflow,
+                          @Value("${app.audit.writer.offer-timeout-ms:100}") long offerTimeoutMs,
+                          @Value("${app.audit.writer.shutdown-timeout-ms:30000}") long shutdownTimeoutMs,
+                          @Value("${app.audit.writer.retry-attempts:3}") int retryAttempts,
+                          @Value("${app.audit.writer.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statsRollup = statsRollup;
+        this.filterDictionary = filterDictionary;
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.writeAheadLog = writeAheadLog.getIfAvailable();
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflow = Overflow.valueOf(overflow.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.retryAttempts = retryAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchInsertSql = insertSql(this.batchSize);
+
+        this.written = Counter.builder(METRIC_PREFIX + ".written")
+                .description("Audit events written to the database")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("Audit events dropped because the queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder(METRIC_PREFIX + ".failed")
+                .description("Audit events that could not be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush")
+                .description("Time spent writing one batch of audit events")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+
+        this.flusher = new Thread(this::runFlusher, "audit-log-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        logger.info("Started audit log writer (queue capacity {}, batch size {}, overflow {}, write-ahead log {})",
+                queueCapacity, this.batchSize, this.overflow, this.writeAheadLog != null ? "on" : "off");
+    }
+
+    /**
+     * Queues {@code auditLog} for writing. Its id stays null; the row gets one from the sequence
+     * when the batch is inserted.
+     *
+     * @return false if the event was dropped because the queue was full
+     */
+    public boolean submit(KafkaAuditLog auditLog) {
+        stamp(auditLog);
+        if (!running) {
+            write(List.of(new Queued(auditLog, null)));
+            return true;
+        }
+        Queued queued = new Queued(auditLog, appendToWriteAheadLog(auditLog));
+        if (queue.offer(queued) || overflow(queued)) {
+            return true;
+        }
+        if (queued.position() != null) {
+            // Durable already; replay picks it up once its segment is rotated
+            return true;
+        }
+        dropped.increment();
+        logger.warn("Audit queue full, dropped {} event for tenant {}", auditLog.getAction(), auditLog.getTenantId());
+        return false;
+    }
+
+    private AuditWriteAheadLog.Position appendToWriteAheadLog(KafkaAuditLog auditLog) {
+        if (writeAheadLog == null) {
+            return null;
+        }
+        try {
+            return writeAheadLog.append(auditLog);
+        } catch (RuntimeException e) {
+            // Still queued; only the crash protection is lost for this event
+            logger.warn("Could not append {} event to the audit write-ahead log: {}", auditLog.getAction(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean overflow(Queued queued) {
+        switch (overflow) {
+            case BLOCK:
+                try {
+                    return queue.offer(queued, offerTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case CALLER_RUNS:
+                write(List.of(queued));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Fills in what the JPA auditing listener would have set on save, while the caller's security
+     * context is still available.
+     */
+    private void stamp(KafkaAuditLog auditLog) {
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("system");
+        if (auditLog.getCreatedAt() == null) {
+            auditLog.setCreatedAt(now);
+        }
+        if (auditLog.getCreatedBy() == null) {
+            auditLog.setCreatedBy(auditor);
+        }
+        auditLog.setUpdatedAt(now);
+        auditLog.setUpdatedBy(auditor);
+    }
+
+    private void runFlusher() {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give a burst the rest of the interval to fill the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Queued next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only interrupted when shutdown timed out; whatever is left is written by shutdown()
+                Thread.currentThread().interrupt();
+                write(batch);
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Queued> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<KafkaAuditLog> auditLogs = batch.stream().map(Queued::auditLog).toList();
+        RuntimeException failure = tryInsert(auditLogs);
+        for (int attempt = 1; failure != null && isTransient(failure) && attempt <= retryAttempts; attempt++) {
+            logger.warn("Failed to write {} audit events, retrying ({}/{}): {}",
+                    batch.size(), attempt, retryAttempts, failure.getMessage());
+            if (!sleep(retryBackoffMs * attempt)) {
+                break;
+            }
+            failure = tryInsert(auditLogs);
+        }
+
+        if (failure == null) {
+            acknowledge(batch);
+        } else if (!isTransient(failure) && batch.size() > 1) {
+            int half = batch.size() / 2;
+            write(batch.subList(0, half));
+            write(batch.subList(half, batch.size()));
+        } else {
+            failed.increment(batch.size());
+            if (batch.size() == 1) {
+                KafkaAuditLog auditLog = auditLogs.get(0);
+                logger.error("Failed to write {} audit event for tenant {}: {}",
+                        auditLog.getAction(), auditLog.getTenantId(), failure.getMessage());
+            } else {
+                logger.error("Failed to write {} audit events: {}", batch.size(), failure.getMessage());
+            }
+        }
+    }
+
+    private void acknowledge(List<Queued> batch) {
+        if (writeAheadLog == null) {
+            return;
+        }
+        for (Queued queued : batch) {
+            if (queued.position() != null) {
+                writeAheadLog.acknowledge(queued.position());
+            }
+        }
+    }
+
+    private AuditWriteAheadLog.Outcome replayInsert(List<KafkaAuditLog> batch) {
+        RuntimeException failure = tryInsert(batch);
+        if (failure == null) {
+            return AuditWriteAheadLog.Outcome.WRITTEN;
+        }
+        logger.warn("Failed to replay {} audit events: {}", batch.size(), failure.getMessage());
+        return isTransient(failure) ? AuditWriteAheadLog.Outcome.UNAVAILABLE : AuditWriteAheadLog.Outcome.REJECTED;
+    }
+
+    /**
+     * Inserts {@code batch} and its stats in one transaction.
+     *
+     * @return null once committed, otherwise why it failed
+     */
+    private RuntimeException tryInsert(List<KafkaAuditLog> batch) {
+        if (batch.isEmpty()) {
+            return null;
+        }
+        String sql = batch.size() == batchSize ? batchInsertSql : insertSql(batch.size());
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(sql, ps -> {
+                    int index = 1;
+                    for (KafkaAuditLog auditLog : batch) {
+                        index = bind(ps, index, auditLog);
+                    }
+                });
+                statsRollup.record(batch);
+            }));
+            written.increment(batch.size());
+            filterDictionary.record(batch);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Whether {@code failure} says the database could not be reached or asked for a retry, rather
+     * than that it rejected the data; only the latter is worth splitting the batch for.
+     */
+    private static boolean isTransient(RuntimeException failure) {
+        return failure instanceof TransientDataAccessException
+                || failure instanceof RecoverableDataAccessException
+                || failure instanceof DataAccessResourceFailureException
+                || failure instanceof TransactionException;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes what the write-ahead log holds beyond the queue: segments left by a previous run and
+     * events whose batch failed or that did not fit in the queue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.audit.wal.replay-interval-ms:30000}",
+            initialDelayString = "${app.audit.wal.replay-interval-ms:30000}")
+    public void replayWriteAheadLog() {
+        if (writeAheadLog != null && running) {
+            writeAheadLog.replay(batchSize, this::replayInsert);
+        }
+    }
+
+    private int bind(PreparedStatement ps, int index, KafkaAuditLog auditLog) throws SQLException {
+        ps.setString(index++, auditLog.getTenantId());
+        ps.setObject(index++, auditLog.getUserId(), Types.BIGINT);
+        ps.setString(index++, auditLog.getUserEmail());
+        ps.setString(index++, auditLog.getAction());
+        ps.setString(index++, auditLog.getResourceType());
+        ps.setString(index++, auditLog.getResourceName());
+        ps.setObject(index++, auditLog.getClusterId(), Types.BIGINT);
+        ps.setString(index++, auditLog.getClusterName());
+        ps.setString(index++, auditLog.getTopicName());
+        ps.setString(index++, auditLog.getConsumerGroup());
+        ps.setString(index++, toJson(auditLog.getDetails()));
+        ps.setString(index++, auditLog.getIpAddress());
+        ps.setString(index++, auditLog.getUserAgent());
+        ps.setTimestamp(index++, Timestamp.valueOf(auditLog.getTimestamp()));
+        ps.setObject(index++, auditLog.getDurationMs(), Types.INTEGER);
+        ps.setString(index++, auditLog.getStatus());
+        ps.setString(index++, toJson(auditLog.getMetadata()));
+        ps.setString(index++, auditLog.getSessionId());
+        ps.setString(index++, auditLog.getRequestId());
+        ps.setTimestamp(index++, Timestamp.valueOf(auditLog.getCreatedAt()));
+        ps.setTimestamp(index++, Timestamp.valueOf(auditLog.getUpdatedAt()));
+        ps.setString(index++, auditLog.getCreatedBy());
+        ps.setString(index++, auditLog.getUpdatedBy());
+        ps.setLong(index++, 0L);
+        return index;
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit event payload is not serializable", e);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            String column = COLUMNS[i];
+            row.append(i > 0 ? ", " : "")
+                    .append(column.equals("details") || column.equals("metadata") ? "CAST(? AS jsonb)" : "?");
+        }
+        row.append(')');
+
+        StringBuilder sql = new StringBuilder("INSERT INTO kafka_audit_logs (")
+                .append(String.join(", ", COLUMNS))
+                .append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i > 0 ? ", " : "").append(row);
+        }
+        return sql.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+        }
+        // Anything the flusher did not get to, or that raced with the flag
+        List<Queued> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+        logger.info("Audit log writer stopped");
+    }
+
+    private record Queued(KafkaAuditLog auditLog, AuditWriteAheadLog.Position position) {
+    }
+
+    private enum Overflow {
+        BLOCK, DROP, CALLER_RUNS
+    }
+}
@@ -0,0 +1,299 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the time partitions of {@code kafka_audit_logs} (see V3_6_0).
+ * <p>
+ * Each run creates partitions ahead of the newest one so inserts never fall through to the default
+ * partition, detaches (and with {@code drop-expired} drops) partitions that end before the longest
+ * retention of any tenant, and deletes rows of tenants with a shorter retention from the partitions
+ * that are kept. Tenants without {@code audit_retention_days} fall back to
+ * {@code default-retention-days}; when that is not set either they keep their history indefinitely
+ * and no partition expires. The daily rollups ({@link AuditStatsRollup}) of expired or deleted
+ * events are removed along with them; tenant retention therefore cuts at the start of a day, so
+ * no rollup ever covers half-deleted events. Every step runs in its own transaction holding a transaction-scoped Postgres advisory lock,
+ * so nodes never run the same step concurrently and no lock outlives a pooled connection.
+ */
+@Service
+public class AuditPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    private static final String TABLE = "kafka_audit_logs";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final long ADVISORY_LOCK_KEY = 0x6b61666b61L; // "kafka"
+
+    private static final String PARTITIONS_QUERY =
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'kafka_audit_logs'::regclass";
+    private static final Pattern RANGE_BOUND =
+            Pattern.compile("FROM \\((?:'([^']+)'|MINVALUE)\\) TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditStatsRollup statsRollup;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Interval interval;
+    private final int premake;
+    private final Integer defaultRetentionDays;
+    private final boolean dropExpired;
+    private final int deleteBatchSize;
+    private final Lock lock = new ReentrantLock();
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 AuditStatsRollup statsRollup,
+                                 @Value("${app.audit.partitioning.enabled:true}") boolean enabled,
+                                 @Value("${app.audit.partitioning.interval:monthly}") String interval,
+                                 @Value("${app.audit.partitioning.premake:3}") int premake,
+                                 @Value("${app.audit.partitioning.default-retention-days:#{null}}") Integer defaultRetentionDays,
+                                 @Value("${app.audit.partitioning.drop-expired:false}") boolean dropExpired,
+                                 @Value("${app.audit.partitioning.delete-batch-size:10000}") int deleteBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statsRollup = statsRollup;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.interval = Interval.valueOf(interval.trim().toUpperCase(Locale.ROOT));
+        this.premake = premake;
+        this.defaultRetentionDays = defaultRetentionDays;
+        this.dropExpired = dropExpired;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.audit.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            createUpcomingPartitions(now);
+            expirePartitions(now);
+            enforceTenantRetention(now);
+        } catch (Exception e) {
+            logger.warn("Audit partition maintenance failed: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void createUpcomingPartitions(LocalDateTime now) {
+        LocalDateTime start = partitions().stream()
+                .map(Partition::to)
+                .max(LocalDateTime::compareTo)
+                .orElse(interval.floor(now));
+        LocalDateTime horizon = interval.next(interval.floor(now), premake);
+
+        while (start.isBefore(horizon)) {
+            LocalDateTime end = interval.next(start, 1);
+            if (!createPartition(TABLE + "_p" + interval.suffix(start), start, end)) {
+                return;
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Creates the partition detached, moves any rows for its range out of the default partition,
+     * then attaches it, in one transaction; a plain {@code PARTITION OF} would fail if the default
+     * partition already held rows for the range.
+     */
+    private boolean createPartition(String name, LocalDateTime from, LocalDateTime to) {
+        String fromBound = from.format(BOUND_FORMAT);
+        String toBound = to.format(BOUND_FORMAT);
+        return locked(() -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                    " WHERE timestamp >= ? AND timestamp < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved",
+                    from, to);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name +
+                    " FOR VALUES FROM ('" + fromBound + "') TO ('" + toBound + "')");
+            logger.info("Created audit log partition {} [{}, {}){}", name, fromBound, toBound,
+                    moved > 0 ? ", moved " + moved + " rows from the default partition" : "");
+        });
+    }
+
+    private void expirePartitions(LocalDateTime now) {
+        Integer longest = longestRetentionDays();
+        if (longest == null) {
+            return;
+        }
+        LocalDateTime cutoff = now.minusDays(longest);
+        for (Partition partition : partitions()) {
+            if (partition.to().isAfter(cutoff)) {
+                continue;
+            }
+            boolean expired = locked(() -> {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition.name());
+                // Partitions end at midnight and expire oldest first, so this is exactly their days
+                statsRollup.deleteBefore(partition.to().toLocalDate());
+                if (dropExpired) {
+                    jdbcTemplate.execute("DROP TABLE " + partition.name());
+                }
+            });
+            if (!expired) {
+                return;
+            }
+            logger.info("{} expired audit log partition {} (ended {})",
+                    dropExpired ? "Dropped" : "Detached", partition.name(), partition.to());
+        }
+    }
+
+    /**
+     * Deletes rows of tenants whose retention is shorter than the longest one, in batches so no
+     * single statement holds locks on a large range. The timestamp bound prunes the scan to the
+     * partitions that can hold expired rows.
+     */
+    private void enforceTenantRetention(LocalDateTime now) {
+        Integer longest = longestRetentionDays();
+        List<Map<String, Object>> tenants = jdbcTemplate.queryForList(
+                "SELECT tenant_id, COALESCE(audit_retention_days, ?) AS retention_days FROM tenants", defaultRetentionDays);
+        for (Map<String, Object> tenant : tenants) {
+            Number retention = (Number) tenant.get("retention_days");
+            if (retention == null || (longest != null && retention.intValue() >= longest)) {
+                continue;
+            }
+            int retentionDays = retention.intValue();
+            String tenantId = (String) tenant.get("tenant_id");
+            // Whole days, so the rollups can be trimmed to exactly what is left
+            LocalDateTime cutoff = now.minusDays(retentionDays).toLocalDate().atStartOfDay();
+            long deleted = 0;
+            int[] batch = {0};
+            do {
+                if (!locked(() -> batch[0] = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE (id, timestamp) IN (" +
+                        "SELECT id, timestamp FROM " + TABLE + " WHERE tenant_id = ? AND timestamp < ? LIMIT ?)",
+                        tenantId, cutoff, deleteBatchSize))) {
+                    return;
+                }
+                deleted += batch[0];
+            } while (batch[0] == deleteBatchSize);
+            if (!locked(() -> statsRollup.deleteBefore(tenantId, cutoff.toLocalDate()))) {
+                return;
+            }
+            if (deleted > 0) {
+                logger.info("Deleted {} audit log rows of tenant {} older than {} days", deleted, tenantId, retentionDays);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} in a transaction holding the maintenance advisory lock; returns false without
+     * running it if another node holds the lock.
+     */
+    private boolean locked(Runnable work) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Boolean acquired = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(acquired)) {
+                logger.debug("Audit partition maintenance is running on another node");
+                return false;
+            }
+            work.run();
+            return true;
+        }));
+    }
+
+    /**
+     * The longest retention of any tenant in days, or null when some tenant keeps its history
+     * indefinitely.
+     */
+    private Integer longestRetentionDays() {
+        Map<String, Object> retention = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) FILTER (WHERE audit_retention_days IS NULL) AS unlimited, " +
+                "MAX(audit_retention_days) AS longest FROM tenants");
+        boolean anyDefault = ((Number) retention.get("unlimited")).longValue() > 0;
+        Number longest = (Number) retention.get("longest");
+        if (defaultRetentionDays == null) {
+            return anyDefault || longest == null ? null : longest.intValue();
+        }
+        return Math.max(defaultRetentionDays, longest != null ? longest.intValue() : 0);
+    }
+
+    /**
+     * Range partitions with their bounds; the default partition has none and is never returned.
+     */
+    private List<Partition> partitions() {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query(PARTITIONS_QUERY, rs -> {
+            Matcher bound = RANGE_BOUND.matcher(rs.getString(2));
+            if (bound.find()) {
+                partitions.add(new Partition(rs.getString(1), LocalDateTime.parse(bound.group(2), BOUND_FORMAT)));
+            }
+        });
+        return partitions;
+    }
+
+    private record Partition(String name, LocalDateTime to) {
+    }
+
+    private enum Interval {
+        MONTHLY {
+            @Override
+            LocalDateTime floor(LocalDateTime time) {
+                return time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            }
+
+            @Override
+            LocalDateTime next(LocalDateTime start, int count) {
+                return start.plusMonths(count);
+            }
+
+            @Override
+            String suffix(LocalDateTime start) {
+                return start.format(DateTimeFormatter.ofPattern("yyyyMM"));
+            }
+        },
+        DAILY {
+            @Override
+            LocalDateTime floor(LocalDateTime time) {
+                return time.toLocalDate().atStartOfDay();
+            }
+
+            @Override
+            LocalDateTime next(LocalDateTime start, int count) {
+                return start.plusDays(count);
+            }
+
+            @Override
+            String suffix(LocalDateTime start) {
+                return start.format(DateTimeFormatter.BASIC_ISO_DATE);
+            }
+        };
+
+        abstract LocalDateTime floor(LocalDateTime time);
+
+        abstract LocalDateTime next(LocalDateTime start, int count);
+
+        abstract String suffix(LocalDateTime start);
+    }
+}
@@ -0,0 +1,184 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Daily per-action rollups of the Kafka audit log ({@code kafka_audit_daily_stats}, V3_7_0), so
+ * audit statistics cost a read of at most one row per day and action instead of a scan of the
+ * raw events.
+ */
+@Component
+public class AuditStatsRollup {
+
+    /** Inclusive upper bounds of the duration histogram buckets; the last bucket is open-ended. */
+    private static final long[] DURATION_BUCKETS_MS = {10, 50, 100, 500, 1000, 5000};
+
+    private static final String UPSERT = """
+            INSERT INTO kafka_audit_daily_stats
+                (tenant_id, day, action, event_count, duration_count, duration_sum, duration_histogram)
+            VALUES (?, ?, ?, ?, ?, ?, CAST(? AS bigint[]))
+            ON CONFLICT (tenant_id, day, action) DO UPDATE SET
+                event_count = kafka_audit_daily_stats.event_count + EXCLUDED.event_count,
+                duration_count = kafka_audit_daily_stats.duration_count + EXCLUDED.duration_count,
+                duration_sum = kafka_audit_daily_stats.duration_sum + EXCLUDED.duration_sum,
+                duration_histogram = kafka_audit_histogram_add(kafka_audit_daily_stats.duration_histogram,
+                                                               EXCLUDED.duration_histogram)
+            """;
+
+    private static final String SELECT_RANGE = """
+            SELECT day, action, event_count, duration_count, duration_sum, duration_histogram
+            FROM kafka_audit_daily_stats
+            WHERE tenant_id = ? AND day >= ? AND day <= ?
+            """;
+
+    private static final String DELETE_TENANT_BEFORE = "DELETE FROM kafka_audit_daily_stats WHERE tenant_id = ? AND day < ?";
+
+    private static final String DELETE_BEFORE = "DELETE FROM kafka_audit_daily_stats WHERE day < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditStatsRollup(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds {@code auditLogs} to the rollups. Meant to run in the transaction that inserts them, so
+     * the rollups never count an event that was rolled back.
+     */
+    public void record(List<KafkaAuditLog> auditLogs) {
+        Map<Key, Totals> totals = new TreeMap<>();
+        for (KafkaAuditLog auditLog : auditLogs) {
+            Key key = new Key(auditLog.getTenantId(), auditLog.getTimestamp().toLocalDate(), auditLog.getAction());
+            totals.computeIfAbsent(key, k -> new Totals()).add(auditLog.getDurationMs());
+        }
+        // Sorted keys, so concurrent writers lock rows in the same order
+        List<Map.Entry<Key, Totals>> rows = new ArrayList<>(totals.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            Key key = row.getKey();
+            Totals value = row.getValue();
+            ps.setString(1, key.tenantId());
+            ps.setDate(2, Date.valueOf(key.day()));
+            ps.setString(3, key.action());
+            ps.setLong(4, value.events);
+            ps.setLong(5, value.durations);
+            ps.setLong(6, value.durationSum);
+            ps.setString(7, value.histogramLiteral());
+        });
+    }
+
+    /**
+     * Removes the rollups of {@code tenantId} for the days before {@code before}, once retention
+     * has deleted their events.
+     */
+    public int deleteBefore(String tenantId, LocalDate before) {
+        return jdbcTemplate.update(DELETE_TENANT_BEFORE, tenantId, Date.valueOf(before));
+    }
+
+    /**
+     * Removes the rollups of every tenant for the days before {@code before}, once the partitions
+     * holding their events have expired.
+     */
+    public int deleteBefore(LocalDate before) {
+        return jdbcTemplate.update(DELETE_BEFORE, Date.valueOf(before));
+    }
+
+    /**
+     * Statistics for {@code tenantId} over the whole days from {@code from} to {@code to}:
+     * {@code actionStats} (most frequent first), {@code dailyActivity}, {@code totalCount},
+     * {@code averageDuration} and {@code durationHistogram}.
+     */
+    public Map<String, Object> statistics(String tenantId, LocalDate from, LocalDate to) {
+        Map<String, Long> byAction = new LinkedHashMap<>();
+        Map<LocalDate, Long> byDay = new TreeMap<>();
+        long[] histogram = new long[DURATION_BUCKETS_MS.length + 1];
+        long[] sums = new long[3];
+
+        jdbcTemplate.query(SELECT_RANGE, rs -> {
+            long events = rs.getLong("event_count");
+            byAction.merge(rs.getString("action"), events, Long::sum);
+            byDay.merge(rs.getDate("day").toLocalDate(), events, Long::sum);
+            sums[0] += events;
+            sums[1] += rs.getLong("duration_count");
+            sums[2] += rs.getLong("duration_sum");
+            Long[] buckets = (Long[]) rs.getArray("duration_histogram").getArray();
+            for (int i = 0; i < buckets.length && i < histogram.length; i++) {
+                histogram[i] += buckets[i];
+            }
+        }, tenantId, Date.valueOf(from), Date.valueOf(to));
+
+        List<Map<String, Object>> actionStats = byAction.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .map(e -> Map.<String, Object>of("action", e.getKey(), "count", e.getValue()))
+                .collect(Collectors.toList());
+        List<Map<String, Object>> dailyActivity = byDay.entrySet().stream()
+                .map(e -> Map.<String, Object>of("date", e.getKey(), "count", e.getValue()))
+                .collect(Collectors.toList());
+        List<Map<String, Object>> durationHistogram = new ArrayList<>();
+        for (int i = 0; i < histogram.length; i++) {
+            durationHistogram.add(Map.of(
+                    "le", i < DURATION_BUCKETS_MS.length ? String.valueOf(DURATION_BUCKETS_MS[i]) : "+Inf",
+                    "count", histogram[i]));
+        }
+
+        return Map.of(
+                "actionStats", actionStats,
+                "dailyActivity", dailyActivity,
+                "totalCount", sums[0],
+                "averageDuration", sums[1] > 0 ? (double) sums[2] / sums[1] : 0.0,
+                "durationHistogram", durationHistogram
+        );
+    }
+
+    private record Key(String tenantId, LocalDate day, String action) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::tenantId)
+                .thenComparing(Key::day)
+                .thenComparing(Key::action);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Totals {
+        private long events;
+        private long durations;
+        private long durationSum;
+        private final long[] histogram = new long[DURATION_BUCKETS_MS.length + 1];
+
+        private void add(Integer durationMs) {
+            events++;
+            if (durationMs == null) {
+                return;
+            }
+            durations++;
+            durationSum += durationMs;
+            int bucket = 0;
+            while (bucket < DURATION_BUCKETS_MS.length && durationMs > DURATION_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            histogram[bucket]++;
+        }
+
+        private String histogramLiteral() {
+            StringBuilder literal = new StringBuilder("{");
+            for (int i = 0; i < histogram.length; i++) {
+                literal.append(i > 0 ? "," : "").append(histogram[i]);
+            }
+            return literal.append('}').toString();
+        }
+    }
+}
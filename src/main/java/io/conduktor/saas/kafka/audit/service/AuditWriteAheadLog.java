@@ -0,0 +1,443 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of audit events on local disk, written before an event is queued for the
+ * database so a JVM crash cannot lose what {@link AuditLogWriter} still holds in memory.
+ * <p>
+ * The log is a sequence of memory-mapped segment files of {@code segment-size-bytes}. Each record
+ * is a 12-byte header (payload length, CRC32 of the payload, acknowledged flag) followed by the
+ * event as JSON; the length is stored last, so a zero length marks the end of a segment and a torn
+ * record fails its CRC. Records are acknowledged once their batch is committed, by setting the
+ * flag in the segment itself, so a restart replays only what was never written. A segment is
+ * deleted when it has been rotated out and every record in it is acknowledged. Segments left over
+ * from a previous run, and unacknowledged records of rotated segments (failed or dropped batches),
+ * are replayed by {@link #replay}. Delivery is at least once: a crash between a commit and the
+ * acknowledgement replays that batch.
+ * <p>
+ * A replayed batch the database rejects is split until the offending records are isolated. A
+ * record rejected on its own {@code dead-letter-after} times is appended to
+ * {@code dead-letter.jsonl} in the log directory and acknowledged, so it cannot hold back the
+ * rest of the log.
+ * <p>
+ * Off unless {@code app.audit.wal.enabled} is set, and then {@code app.audit.wal.directory} is
+ * required. The directory is locked for the lifetime of the log, so two instances sharing a
+ * volume fail at startup instead of replaying each other's events.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.audit.wal", name = "enabled", havingValue = "true")
+public class AuditWriteAheadLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriteAheadLog.class);
+
+    private static final int HEADER_BYTES = 12;
+    private static final int CRC_OFFSET = 4;
+    private static final int ACK_OFFSET = 8;
+    private static final String SUFFIX = ".wal";
+    private static final String LOCK_FILE = ".lock";
+    private static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int segmentSize;
+    private final long replayDelayMs;
+    private final long segmentRollMs;
+    private final int deadLetterAfter;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private final Map<Long, Segment> segments = new TreeMap<>();
+    private final Map<Position, Integer> rejections = new ConcurrentHashMap<>();
+    private Segment current;
+
+    public AuditWriteAheadLog(ObjectMapper objectMapper,
+                              @Value("${app.audit.wal.directory:}") String directory,
+                              @Value("${app.audit.wal.segment-size-bytes:67108864}") int segmentSize,
+                              @Value("${app.audit.wal.replay-delay-ms:60000}") long replayDelayMs,
+                              @Value("${app.audit.wal.segment-roll-ms:3600000}") long segmentRollMs,
+                              @Value("${app.audit.wal.dead-letter-after:3}") int deadLetterAfter) throws IOException {
+        if (!StringUtils.hasText(directory)) {
+            throw new IllegalStateException("app.audit.wal.directory must be set when the audit write-ahead log is enabled");
+        }
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.replayDelayMs = replayDelayMs;
+        this.segmentRollMs = segmentRollMs;
+        this.deadLetterAfter = Math.max(1, deadLetterAfter);
+
+        Files.createDirectories(this.directory);
+        this.lockChannel = FileChannel.open(this.directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Audit WAL directory " + directory + " is in use by another process");
+        }
+        long lastId = recover();
+        this.current = open(lastId + 1);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by this JVM
+            return null;
+        }
+    }
+
+    /**
+     * Appends {@code auditLog} and returns its position, to pass to {@link #acknowledge} once the
+     * event is in the database.
+     *
+     * @throws IllegalArgumentException if the event does not fit in a segment
+     */
+    public synchronized Position append(KafkaAuditLog auditLog) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(auditLog);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Audit event is not serializable", e);
+        }
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Audit event of " + payload.length + " bytes exceeds the WAL segment size");
+        }
+        if (current.position + size > segmentSize) {
+            rotate();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        MappedByteBuffer buffer = current.buffer;
+        int offset = current.position;
+        buffer.putInt(offset + CRC_OFFSET, (int) crc.getValue());
+        buffer.putInt(offset + ACK_OFFSET, 0);
+        buffer.put(offset + HEADER_BYTES, payload);
+        // Written last: until it is set the record does not exist
+        buffer.putInt(offset, payload.length);
+        current.position += size;
+        return new Position(current.id, current.records++, offset);
+    }
+
+    public synchronized void acknowledge(Position position) {
+        Segment segment = segments.get(position.segment());
+        if (segment != null && !segment.acknowledged.get(position.index())) {
+            segment.buffer.putInt(position.offset() + ACK_OFFSET, 1);
+            segment.acknowledged.set(position.index());
+            deleteIfDone(segment);
+        }
+    }
+
+    /**
+     * Writes the unacknowledged records of rotated segments with {@code sink}, in batches of up to
+     * {@code batchSize}, and deletes segments that are then fully acknowledged. Segments rotated
+     * within {@code replay-delay-ms} are skipped, since their records may still be queued in memory.
+     * Also rotates the current segment once it is older than {@code segment-roll-ms}, so records
+     * of a quiet period are not held back indefinitely. Stops at the first batch the sink reports
+     * as {@link Outcome#UNAVAILABLE}; the next call starts over.
+     */
+    public void replay(int batchSize, Sink sink) {
+        List<Segment> due = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (current.records > 0 && now - current.createdAt >= segmentRollMs) {
+                rotate();
+                now = System.currentTimeMillis();
+            }
+            for (Segment segment : segments.values()) {
+                if (segment.sealedAt > 0 && now - segment.sealedAt >= replayDelayMs) {
+                    due.add(segment);
+                }
+            }
+        }
+        for (Segment segment : due) {
+            if (!replay(segment, batchSize, sink)) {
+                return;
+            }
+        }
+    }
+
+    private boolean replay(Segment segment, int batchSize, Sink sink) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        BitSet acknowledged;
+        synchronized (this) {
+            acknowledged = (BitSet) segment.acknowledged.clone();
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        int replayed = 0;
+        for (int index = 0; index < segment.records; index++) {
+            int length = buffer.getInt(offset);
+            if (!acknowledged.get(index)) {
+                Position position = new Position(segment.id, index, offset);
+                byte[] payload = new byte[length];
+                buffer.get(offset + HEADER_BYTES, payload);
+                try {
+                    batch.add(new Pending(position, objectMapper.readValue(payload, KafkaAuditLog.class)));
+                } catch (IOException e) {
+                    logger.error("Unreadable audit record {} of WAL segment {}: {}", index, segment.id, e.getMessage());
+                    deadLetter(position);
+                }
+            }
+            offset += HEADER_BYTES + length;
+            if (batch.size() >= batchSize || (index == segment.records - 1 && !batch.isEmpty())) {
+                int written = write(batch, sink);
+                if (written < 0) {
+                    logger.warn("Replay of WAL segment {} failed, will retry", segment.id);
+                    return false;
+                }
+                replayed += written;
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Replayed {} audit events from WAL segment {}", replayed, segment.id);
+        }
+        synchronized (this) {
+            deleteIfDone(segment);
+        }
+        return true;
+    }
+
+    /**
+     * Writes {@code batch}, splitting it while the database rejects it.
+     *
+     * @return the number of records written, or -1 if the database is unavailable
+     */
+    private int write(List<Pending> batch, Sink sink) {
+        Outcome outcome = sink.write(batch.stream().map(Pending::auditLog).toList());
+        if (outcome == Outcome.WRITTEN) {
+            for (Pending pending : batch) {
+                rejections.remove(pending.position());
+                acknowledge(pending.position());
+            }
+            return batch.size();
+        }
+        if (outcome == Outcome.UNAVAILABLE) {
+            return -1;
+        }
+        if (batch.size() > 1) {
+            int half = batch.size() / 2;
+            int first = write(batch.subList(0, half), sink);
+            if (first < 0) {
+                return -1;
+            }
+            int second = write(batch.subList(half, batch.size()), sink);
+            return second < 0 ? -1 : first + second;
+        }
+
+        Position position = batch.get(0).position();
+        int attempts = rejections.merge(position, 1, Integer::sum);
+        if (attempts >= deadLetterAfter) {
+            logger.error("Audit record {} of WAL segment {} was rejected {} times, moving it to {}",
+                    position.index(), position.segment(), attempts, DEAD_LETTER_FILE);
+            deadLetter(position);
+        } else {
+            logger.warn("Audit record {} of WAL segment {} was rejected, will retry",
+                    position.index(), position.segment());
+        }
+        return 0;
+    }
+
+    /**
+     * Appends the record's payload as it was logged to the dead-letter file and acknowledges it.
+     * If the file cannot be written the record stays in the log.
+     */
+    private synchronized void deadLetter(Position position) {
+        Segment segment = segments.get(position.segment());
+        if (segment == null) {
+            return;
+        }
+        int length = segment.buffer.getInt(position.offset());
+        byte[] line = new byte[length + 1];
+        segment.buffer.get(position.offset() + HEADER_BYTES, line, 0, length);
+        line[length] = '\n';
+        try {
+            Files.write(directory.resolve(DEAD_LETTER_FILE), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Could not write audit record to {}: {}", DEAD_LETTER_FILE, e.getMessage());
+            return;
+        }
+        rejections.remove(position);
+        acknowledge(position);
+    }
+
+    private long recover() throws IOException {
+        long lastId = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long id;
+                try {
+                    id = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                Segment segment = map(id, file);
+                scan(segment);
+                segment.sealedAt = 1;
+                segments.put(id, segment);
+                lastId = Math.max(lastId, id);
+                int pending = segment.records - segment.acknowledged.cardinality();
+                if (pending == 0) {
+                    deleteIfDone(segment);
+                } else {
+                    logger.info("Recovered {} unacknowledged audit events from WAL segment {}", pending, id);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    /**
+     * Counts the intact records of a segment from a previous run and restores their
+     * acknowledgements, stopping at the end marker or at the first record that was torn by the
+     * crash.
+     */
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + CRC_OFFSET)) {
+                logger.warn("WAL segment {} has a torn record at offset {}, ignoring the rest", segment.id, offset);
+                break;
+            }
+            if (buffer.getInt(offset + ACK_OFFSET) != 0) {
+                segment.acknowledged.set(segment.records);
+            }
+            segment.records++;
+            offset += HEADER_BYTES + length;
+        }
+        segment.position = offset;
+    }
+
+    private void rotate() {
+        current.buffer.force();
+        current.sealedAt = System.currentTimeMillis();
+        Segment sealed = current;
+        current = open(current.id + 1);
+        deleteIfDone(sealed);
+    }
+
+    private Segment open(long id) {
+        Segment segment = map(id, directory.resolve(String.format("%020d%s", id, SUFFIX)));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment map(long id, Path file) {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map WAL segment " + file, e);
+        }
+    }
+
+    private void deleteIfDone(Segment segment) {
+        if (segment.sealedAt == 0 || segment.acknowledged.cardinality() < segment.records) {
+            return;
+        }
+        segments.remove(segment.id);
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            logger.warn("Could not delete WAL segment {}: {}", segment.file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        if (current.acknowledged.cardinality() == current.records) {
+            current.sealedAt = System.currentTimeMillis();
+            deleteIfDone(current);
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            logger.warn("Could not release the audit WAL directory lock: {}", e.getMessage());
+        }
+    }
+
+    public record Position(long segment, int index, int offset) {
+    }
+
+    /**
+     * Where {@link #replay} sends batches.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        Outcome write(List<KafkaAuditLog> batch);
+    }
+
+    public enum Outcome {
+        WRITTEN,
+        /** The database refused the data; the batch is split to find the records at fault. */
+        REJECTED,
+        /** The database could not be reached; replay stops and tries again later. */
+        UNAVAILABLE
+    }
+
+    private record Pending(Position position, KafkaAuditLog auditLog) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private final BitSet acknowledged = new BitSet();
+        private final long createdAt = System.currentTimeMillis();
+        private int position;
+        private int records;
+        // 0 while the segment is still appended to
+        private long sealedAt;
+
+        private Segment(long id, Path file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -1,36 +1,69 @@
 package io.conduktor.saas.kafka.audit.service;
 
 import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.core.export.CsvQueryExporter;
 import io.conduktor.saas.core.service.BaseService;
 import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogDto;
 import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogFilterDto;
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
 import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import io.conduktor.saas.kafka.audit.repository.KafkaAuditLogNativeFilter;
 import io.conduktor.saas.kafka.audit.repository.KafkaAuditLogRepository;
+import io.conduktor.saas.kafka.audit.repository.KafkaAuditLogSpecifications;
 import io.conduktor.saas.security.TenantContext;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 // @Transactional
 public class KafkaAuditLogService {
 
+    private static final String[] EXPORT_HEADER = {
+        "Timestamp", "User Email", "Action", "Resource Type", "Resource Name", "Cluster Name",
+        "Topic Name", "Consumer Group", "Status", "IP Address", "Duration (ms)"
+    };
+
     private final KafkaAuditLogRepository kafkaAuditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditStatsRollup auditStatsRollup;
+    private final AuditFilterDictionary auditFilterDictionary;
+    private final CsvQueryExporter csvQueryExporter;
+    private final int maxPageSize;
 
-    public KafkaAuditLogService(KafkaAuditLogRepository kafkaAuditLogRepository) {
+    public KafkaAuditLogService(KafkaAuditLogRepository kafkaAuditLogRepository,
+                                AuditLogWriter auditLogWriter,
+                                AuditStatsRollup auditStatsRollup,
+                                AuditFilterDictionary auditFilterDictionary,
+                                CsvQueryExporter csvQueryExporter,
+                                @Value("${app.pagination.max-page-size:100}") int maxPageSize) {
         this.kafkaAuditLogRepository = kafkaAuditLogRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.auditStatsRollup = auditStatsRollup;
+        this.auditFilterDictionary = auditFilterDictionary;
+        this.csvQueryExporter = csvQueryExporter;
+        this.maxPageSize = maxPageSize;
     }
 
-    public PageResponse<KafkaAuditLogDto> findAuditLogs(KafkaAuditLogFilterDto filter) {
+    /**
+     * One page of audit logs matching {@code filter}. Every variant selects only the columns of
+     * {@link KafkaAuditLogSummaryDto}; {@link #findById} returns the full entry.
+     */
+    public PageResponse<KafkaAuditLogSummaryDto> findAuditLogs(KafkaAuditLogFilterDto filter) {
         String tenantId = TenantContext.getCurrentTenant();
         
         Sort sort = Sort.by(
@@ -39,17 +72,20 @@ public class KafkaAuditLogService {
             filter.getSort()
         );
         
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
+        int size = Math.min(filter.getSize(), maxPageSize);
+        Pageable pageable = PageRequest.of(filter.getPage(), size, sort);
         
-        Page<KafkaAuditLog> auditLogs;
+        Page<KafkaAuditLogSummaryDto> auditLogs;
         
         if (filter.getActions() != null && !filter.getActions().isEmpty()) {
-            auditLogs = kafkaAuditLogRepository.findByTenantIdAndActionIn(
+            auditLogs = kafkaAuditLogRepository.findSummariesByTenantIdAndActionIn(
                 tenantId, filter.getActions(), pageable
             );
-        } else {
-            auditLogs = kafkaAuditLogRepository.findByTenantIdWithFilters(
+        } else if (StringUtils.hasText(filter.getSearchTerm())) {
+            // Ranked by relevance, so the requested sort does not apply
+            auditLogs = kafkaAuditLogRepository.searchByTenantIdWithFilters(
                 tenantId,
+                filter.getSearchTerm().trim(),
                 filter.getUserEmail(),
                 filter.getAction(),
                 filter.getResourceType(),
@@ -62,17 +98,16 @@ public class KafkaAuditLogService {
                 filter.getIpAddress(),
                 filter.getDateFrom(),
                 filter.getDateTo(),
-                filter.getSearchTerm(),
-                pageable
+                PageRequest.of(filter.getPage(), size)
+            ).map(this::convertToSummary);
+        } else {
+            auditLogs = kafkaAuditLogRepository.findSummaries(
+                KafkaAuditLogSpecifications.matching(tenantId, filter), pageable
             );
         }
         
-        List<KafkaAuditLogDto> dtos = auditLogs.getContent().stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
-        
         return new PageResponse<>(
-            dtos,
+            auditLogs.getContent(),
             auditLogs.getNumber(),
             auditLogs.getSize(),
             auditLogs.getTotalElements(),
@@ -82,6 +117,38 @@ public class KafkaAuditLogService {
         );
     }
 
+    /**
+     * Keyset-paginated variant of {@link #findAuditLogs}: pages are ordered by {@code (timestamp, id)}
+     * and continue from {@link KafkaAuditLogFilterDto#getCursor()}, so each page is an index range
+     * scan on {@code (tenant_id, timestamp, id)} regardless of depth. No total is counted.
+     */
+    public PageResponse<KafkaAuditLogSummaryDto> findAuditLogsAfter(KafkaAuditLogFilterDto filter) {
+        String tenantId = TenantContext.getCurrentTenant();
+        boolean descending = !"asc".equalsIgnoreCase(filter.getDirection());
+        int size = Math.min(filter.getSize(), maxPageSize);
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+
+        Specification<KafkaAuditLog> spec = KafkaAuditLogSpecifications.matching(tenantId, filter);
+        boolean first = !StringUtils.hasText(filter.getCursor());
+        if (!first) {
+            AuditLogCursor cursor = AuditLogCursor.decode(filter.getCursor());
+            spec = spec.and(KafkaAuditLogSpecifications.after(cursor.timestamp(), cursor.id(), descending));
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // One extra row tells whether there is a next page without counting
+        List<KafkaAuditLogSummaryDto> rows = kafkaAuditLogRepository.findSummaries(spec,
+            Sort.by(direction, "timestamp").and(Sort.by(direction, "id")), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<KafkaAuditLogSummaryDto> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? AuditLogCursor.after(page.get(page.size() - 1)).encode() : null;
+
+        return PageResponse.ofCursor(page, size, first, nextCursor);
+    }
+
     public KafkaAuditLogDto findById(Long id) {
         String tenantId = TenantContext.getCurrentTenant();
         KafkaAuditLog auditLog = kafkaAuditLogRepository.findById(id)
@@ -91,26 +158,49 @@ public class KafkaAuditLogService {
         return convertToDto(auditLog);
     }
 
-    public List<String> getAvailableActions() {
-        String tenantId = TenantContext.getCurrentTenant();
-        return kafkaAuditLogRepository.findDistinctActionsByTenantId(tenantId);
+    /**
+     * Writes every audit log matching {@code filter} to {@code writer} as CSV, newest first unless
+     * the filter asks for ascending order. Rows are streamed through {@link CsvQueryExporter}, so
+     * memory use does not depend on how many rows match; paging fields of the filter are ignored.
+     */
+    public void exportAuditLogs(KafkaAuditLogFilterDto filter, Writer writer) throws IOException {
+        KafkaAuditLogNativeFilter where = KafkaAuditLogNativeFilter.matching(TenantContext.getCurrentTenant(), filter);
+        String direction = "asc".equalsIgnoreCase(filter.getDirection()) ? "ASC" : "DESC";
+        String sql = "SELECT k.timestamp, k.user_email, k.action, k.resource_type, k.resource_name, k.cluster_name, " +
+                "k.topic_name, k.consumer_group, k.status, k.ip_address, k.duration_ms FROM kafka_audit_logs k " +
+                "WHERE " + where.where() + " ORDER BY k.timestamp " + direction + ", k.id " + direction;
+
+        csvQueryExporter.export(writer, EXPORT_HEADER, sql, rs -> {
+            Timestamp timestamp = rs.getTimestamp(1);
+            return new Object[] {
+                timestamp != null ? timestamp.toLocalDateTime() : null,
+                rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6),
+                rs.getString(7), rs.getString(8), rs.getString(9), rs.getString(10),
+                rs.getObject(11)
+            };
+        }, where.args());
     }
 
-    public List<String> getAvailableUsers() {
-        String tenantId = TenantContext.getCurrentTenant();
-        return kafkaAuditLogRepository.findDistinctUserEmailsByTenantId(tenantId);
+    public List<String> getAvailableActions(String prefix, int limit) {
+        return auditFilterDictionary.values(TenantContext.getCurrentTenant(), AuditFilterDictionary.Field.ACTION, prefix, limit);
     }
 
-    public List<String> getAvailableClusters() {
-        String tenantId = TenantContext.getCurrentTenant();
-        return kafkaAuditLogRepository.findDistinctClusterNamesByTenantId(tenantId);
+    public List<String> getAvailableUsers(String prefix, int limit) {
+        return auditFilterDictionary.values(TenantContext.getCurrentTenant(), AuditFilterDictionary.Field.USER, prefix, limit);
     }
 
-    public List<String> getAvailableTopics() {
-        String tenantId = TenantContext.getCurrentTenant();
-        return kafkaAuditLogRepository.findDistinctTopicNamesByTenantId(tenantId);
+    public List<String> getAvailableClusters(String prefix, int limit) {
+        return auditFilterDictionary.values(TenantContext.getCurrentTenant(), AuditFilterDictionary.Field.CLUSTER, prefix, limit);
     }
 
+    public List<String> getAvailableTopics(String prefix, int limit) {
+        return auditFilterDictionary.values(TenantContext.getCurrentTenant(), AuditFilterDictionary.Field.TOPIC, prefix, limit);
+    }
+
+    /**
+     * Reads the daily rollups only, so the cost does not grow with audit volume. The period is
+     * widened to whole days.
+     */
     public Map<String, Object> getAuditStatistics(LocalDateTime dateFrom, LocalDateTime dateTo) {
         String tenantId = TenantContext.getCurrentTenant();
         
@@ -121,31 +211,17 @@ public class KafkaAuditLogService {
             dateTo = LocalDateTime.now();
         }
         
-        List<Map<String, Object>> actionStats = kafkaAuditLogRepository.getActionStatsByTenantId(
-            tenantId, dateFrom, dateTo
-        );
-        
-        List<Map<String, Object>> dailyActivity = kafkaAuditLogRepository.getDailyActivityByTenantId(
-            tenantId, dateFrom, dateTo
-        );
-        
-        Long totalCount = kafkaAuditLogRepository.countByTenantIdAndTimestampAfter(
-            tenantId, dateFrom
-        );
-        
-        Double averageDuration = kafkaAuditLogRepository.getAverageDurationByTenantId(
-            tenantId, dateFrom
-        );
-        
-        return Map.of(
-            "actionStats", actionStats,
-            "dailyActivity", dailyActivity,
-            "totalCount", totalCount != null ? totalCount : 0L,
-            "averageDuration", averageDuration != null ? averageDuration : 0.0,
-            "period", Map.of("from", dateFrom, "to", dateTo)
+        Map<String, Object> stats = new LinkedHashMap<>(
+            auditStatsRollup.statistics(tenantId, dateFrom.toLocalDate(), dateTo.toLocalDate())
         );
+        stats.put("period", Map.of("from", dateFrom, "to", dateTo));
+        return stats;
     }
 
+    /**
+     * Records an audit event through the write-behind {@link AuditLogWriter}; the returned log has
+     * no id yet and may become visible to queries a moment later.
+     */
     public KafkaAuditLog logAuditEvent(String action, String resourceType, String resourceName, 
                                       Map<String, Object> details) {
         String tenantId = TenantContext.getCurrentTenant();
@@ -161,19 +237,38 @@ public class KafkaAuditLogService {
         // TODO: Get current user from security context
         auditLog.setUserEmail("system@example.com");
         
-        return kafkaAuditLogRepository.save(auditLog);
+        auditLogWriter.submit(auditLog);
+        return auditLog;
     }
 
     private KafkaAuditLogDto convertToDto(KafkaAuditLog auditLog) {
         KafkaAuditLogDto dto = new KafkaAuditLogDto();
-        BeanUtils.copyProperties(auditLog, dto);
+        dto.setId(auditLog.getId());
+        dto.setTenantId(auditLog.getTenantId());
+        dto.setUserId(auditLog.getUserId());
+        dto.setUserEmail(auditLog.getUserEmail());
+        dto.setAction(auditLog.getAction());
+        dto.setResourceType(auditLog.getResourceType());
+        dto.setResourceName(auditLog.getResourceName());
+        dto.setClusterId(auditLog.getClusterId());
+        dto.setClusterName(auditLog.getClusterName());
+        dto.setTopicName(auditLog.getTopicName());
+        dto.setConsumerGroup(auditLog.getConsumerGroup());
+        dto.setDetails(auditLog.getDetails());
+        dto.setIpAddress(auditLog.getIpAddress());
+        dto.setUserAgent(auditLog.getUserAgent());
+        dto.setTimestamp(auditLog.getTimestamp());
+        dto.setDurationMs(auditLog.getDurationMs());
+        dto.setStatus(auditLog.getStatus());
+        dto.setMetadata(auditLog.getMetadata());
+        dto.setSessionId(auditLog.getSessionId());
+        dto.setRequestId(auditLog.getRequestId());
         return dto;
     }
 
-    private KafkaAuditLog convertToEntity(KafkaAuditLogDto dto) {
-        KafkaAuditLog entity = new KafkaAuditLog();
-        BeanUtils.copyProperties(dto, entity);
-        entity.setTenantId(TenantContext.getCurrentTenant());
-        return entity;
+    private KafkaAuditLogSummaryDto convertToSummary(KafkaAuditLogRepository.SummaryView row) {
+        return new KafkaAuditLogSummaryDto(row.getId(), row.getUserEmail(), row.getAction(), row.getResourceType(),
+            row.getResourceName(), row.getClusterId(), row.getClusterName(), row.getTopicName(),
+            row.getConsumerGroup(), row.getIpAddress(), row.getTimestamp(), row.getDurationMs(), row.getStatus());
     }
-}
\ No newline at end of file
+}
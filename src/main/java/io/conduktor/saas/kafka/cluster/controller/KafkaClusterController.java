@@ -2,8 +2,11 @@ package io.conduktor.saas.kafka.cluster.controller;
 
 import io.conduktor.saas.common.dto.ApiResponse;
 import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.common.dto.TotalMode;
+import io.conduktor.saas.core.bulk.BulkResult;
 import io.conduktor.saas.kafka.cluster.dto.CreateKafkaClusterRequest;
 import io.conduktor.saas.kafka.cluster.dto.KafkaClusterDto;
+import io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto;
 import io.conduktor.saas.kafka.cluster.dto.UpdateKafkaClusterRequest;
 import io.conduktor.saas.kafka.cluster.service.KafkaClusterService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,11 +17,13 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -40,17 +45,18 @@ public class KafkaClusterController {
     @GetMapping
     @Operation(summary = "Get all clusters with health status and pagination")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<PageResponse<KafkaClusterDto>>> getClusters(
+    public ResponseEntity<ApiResponse<PageResponse<KafkaClusterSummaryDto>>> getClusters(
             @Parameter(description = "Status filter") @RequestParam(required = false) String status,
             @Parameter(description = "Health status filter") @RequestParam(required = false) String healthStatus,
             @Parameter(description = "Search term") @RequestParam(required = false) String searchTerm,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sort,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Total: exact, estimated or none") @RequestParam(required = false) String total) {
 
-        PageResponse<KafkaClusterDto> clusters = kafkaClusterService.findClusters(
-            status, healthStatus, searchTerm, page, size, sort, direction
+        PageResponse<KafkaClusterSummaryDto> clusters = kafkaClusterService.findClusters(
+            status, healthStatus, searchTerm, page, size, sort, direction, TotalMode.from(total)
         );
         return ResponseEntity.ok(ApiResponse.success(clusters));
     }
@@ -58,8 +64,8 @@ public class KafkaClusterController {
     @GetMapping("/all")
     @Operation(summary = "Get all clusters without pagination")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<List<KafkaClusterDto>>> getAllClusters() {
-        List<KafkaClusterDto> clusters = kafkaClusterService.findAllClusters();
+    public ResponseEntity<ApiResponse<List<KafkaClusterSummaryDto>>> getAllClusters() {
+        List<KafkaClusterSummaryDto> clusters = kafkaClusterService.findAllClusters();
         return ResponseEntity.ok(ApiResponse.success(clusters));
     }
 
@@ -83,6 +89,24 @@ public class KafkaClusterController {
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(cluster));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk create cluster connections",
+               description = "Create clusters from a JSON array or newline-delimited JSON, reporting the outcome of each item")
+    @PreAuthorize("hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkResult>> createClusters(InputStream body) throws IOException {
+        BulkResult result = kafkaClusterService.createClusters(body);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk update cluster configurations",
+               description = "Update clusters, each item naming its cluster by id, from a JSON array or newline-delimited JSON")
+    @PreAuthorize("hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkResult>> updateClusters(InputStream body) throws IOException {
+        BulkResult result = kafkaClusterService.updateClusters(body);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update cluster configuration")
     @PreAuthorize("hasRole('TENANT_ADMIN')")
@@ -140,7 +164,7 @@ public class KafkaClusterController {
             @Parameter(description = "Health status filter") @RequestParam(required = false) String healthStatus,
             HttpServletResponse response) throws IOException {
 
-        PageResponse<KafkaClusterDto> clusters = kafkaClusterService.findClusters(
+        PageResponse<KafkaClusterSummaryDto> clusters = kafkaClusterService.findClusters(
             status, healthStatus, null, 0, 10000, "name", "asc"
         );
 
@@ -154,22 +178,22 @@ public class KafkaClusterController {
             writer.println("ID,Name,Description,Bootstrap Servers,Connection Type,Status,Health Status,Version,Broker Count,Topic Count,Partition Count,Consumer Group Count,Last Health Check,Created At");
 
             // CSV Data
-            for (KafkaClusterDto cluster : clusters.getContent()) {
+            for (KafkaClusterSummaryDto cluster : clusters.getContent()) {
                 writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                    cluster.getId() != null ? cluster.getId().toString() : "",
-                    cluster.getName() != null ? cluster.getName() : "",
-                    cluster.getDescription() != null ? cluster.getDescription().replace(",", ";") : "",
-                    cluster.getBootstrapServers() != null ? cluster.getBootstrapServers().replace(",", ";") : "",
-                    cluster.getConnectionType() != null ? cluster.getConnectionType() : "",
-                    cluster.getStatus() != null ? cluster.getStatus() : "",
-                    cluster.getHealthStatus() != null ? cluster.getHealthStatus() : "",
-                    cluster.getKafkaVersion() != null ? cluster.getKafkaVersion() : "",
-                    cluster.getBrokerCount() != null ? cluster.getBrokerCount().toString() : "",
-                    cluster.getTopicCount() != null ? cluster.getTopicCount().toString() : "",
-                    cluster.getPartitionCount() != null ? cluster.getPartitionCount().toString() : "",
-                    cluster.getConsumerGroupCount() != null ? cluster.getConsumerGroupCount().toString() : "",
-                    cluster.getLastHealthCheck() != null ? cluster.getLastHealthCheck().toString() : "",
-                    cluster.getCreatedAt() != null ? cluster.getCreatedAt().toString() : ""
+                    cluster.id() != null ? cluster.id().toString() : "",
+                    cluster.name() != null ? cluster.name() : "",
+                    cluster.description() != null ? cluster.description().replace(",", ";") : "",
+                    cluster.bootstrapServers() != null ? cluster.bootstrapServers().replace(",", ";") : "",
+                    cluster.connectionType() != null ? cluster.connectionType() : "",
+                    cluster.status() != null ? cluster.status() : "",
+                    cluster.healthStatus() != null ? cluster.healthStatus() : "",
+                    cluster.kafkaVersion() != null ? cluster.kafkaVersion() : "",
+                    cluster.brokerCount() != null ? cluster.brokerCount().toString() : "",
+                    cluster.topicCount() != null ? cluster.topicCount().toString() : "",
+                    cluster.partitionCount() != null ? cluster.partitionCount().toString() : "",
+                    cluster.consumerGroupCount() != null ? cluster.consumerGroupCount().toString() : "",
+                    cluster.lastHealthCheck() != null ? cluster.lastHealthCheck().toString() : "",
+                    cluster.createdAt() != null ? cluster.createdAt().toString() : ""
                 );
             }
         }
@@ -0,0 +1,24 @@
+package io.conduktor.saas.kafka.cluster.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "One item of a bulk cluster update: the cluster to update and the fields to change")
+public class BulkUpdateKafkaClusterRequest extends UpdateKafkaClusterRequest {
+
+    @NotNull(message = "Cluster ID is required")
+    @Schema(description = "Cluster ID", example = "1", required = true)
+    private Long id;
+
+    // Constructors
+    public BulkUpdateKafkaClusterRequest() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,62 @@
+package io.conduktor.saas.kafka.cluster.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * The cluster columns shown in listings. Selected directly by the list queries, so the security,
+ * connection and monitoring configuration and the metrics JSON are neither fetched nor parsed;
+ * {@link KafkaClusterDto} has them for a single cluster.
+ */
+@Schema(description = "Kafka cluster as shown in listings")
+public record KafkaClusterSummaryDto(
+        @Schema(description = "Cluster ID", example = "1")
+        Long id,
+
+        @Schema(description = "Cluster name", example = "production-cluster")
+        String name,
+
+        @Schema(description = "Cluster description", example = "Production Kafka cluster for event streaming")
+        String description,
+
+        @Schema(description = "Bootstrap servers", example = "kafka1:9092,kafka2:9092,kafka3:9092")
+        String bootstrapServers,
+
+        @Schema(description = "Connection type", example = "SASL_SSL")
+        String connectionType,
+
+        @Schema(description = "Cluster status", example = "ACTIVE")
+        String status,
+
+        @Schema(description = "Health status", example = "HEALTHY")
+        String healthStatus,
+
+        @Schema(description = "Kafka version", example = "3.5.0")
+        String kafkaVersion,
+
+        @Schema(description = "Last health check timestamp", example = "2024-03-15T10:30:00")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime lastHealthCheck,
+
+        @Schema(description = "Number of brokers", example = "3")
+        Integer brokerCount,
+
+        @Schema(description = "Number of topics", example = "25")
+        Integer topicCount,
+
+        @Schema(description = "Total number of partitions", example = "150")
+        Integer partitionCount,
+
+        @Schema(description = "Number of consumer groups", example = "8")
+        Integer consumerGroupCount,
+
+        @Schema(description = "Created timestamp", example = "2024-03-01T09:00:00")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime createdAt,
+
+        @Schema(description = "Updated timestamp", example = "2024-03-15T10:30:00")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime updatedAt) {
+}
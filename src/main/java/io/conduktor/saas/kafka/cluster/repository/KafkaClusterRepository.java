@@ -1,14 +1,17 @@
 package io.conduktor.saas.kafka.cluster.repository;
 
 import io.conduktor.saas.core.repository.BaseRepository;
+import io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto;
 import io.conduktor.saas.kafka.cluster.entity.KafkaCluster;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,23 +24,75 @@ public interface KafkaClusterRepository extends BaseRepository<KafkaCluster, Lon
     @Query("SELECT k FROM KafkaCluster k WHERE k.tenantId = :tenantId")
     List<KafkaCluster> findByTenantId(@Param("tenantId") String tenantId);
 
+    @Query("""
+        SELECT new io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto(
+            k.id, k.name, k.description, k.bootstrapServers, k.connectionType, k.status, k.healthStatus,
+            k.kafkaVersion, k.lastHealthCheck, k.brokerCount, k.topicCount, k.partitionCount,
+            k.consumerGroupCount, k.createdAt, k.updatedAt)
+        FROM KafkaCluster k
+        WHERE k.tenantId = :tenantId
+        """)
+    List<KafkaClusterSummaryDto> findSummariesByTenantId(@Param("tenantId") String tenantId);
+
     @Query("SELECT k FROM KafkaCluster k WHERE k.tenantId = :tenantId AND k.id = :id")
     Optional<KafkaCluster> findByTenantIdAndId(@Param("tenantId") String tenantId, @Param("id") Long id);
 
     @Query("SELECT k FROM KafkaCluster k WHERE k.tenantId = :tenantId AND k.name = :name")
     Optional<KafkaCluster> findByTenantIdAndName(@Param("tenantId") String tenantId, @Param("name") String name);
 
+    @Query("SELECT k.id AS id, k.name AS name FROM KafkaCluster k WHERE k.tenantId = :tenantId AND k.name IN :names")
+    List<NameView> findNamesByTenantIdAndNameIn(@Param("tenantId") String tenantId, @Param("names") Collection<String> names);
+
+    @Query("SELECT k.id FROM KafkaCluster k WHERE k.tenantId = :tenantId AND k.id IN :ids")
+    List<Long> findIdsByTenantIdAndIdIn(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+        SELECT new io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto(
+            k.id, k.name, k.description, k.bootstrapServers, k.connectionType, k.status, k.healthStatus,
+            k.kafkaVersion, k.lastHealthCheck, k.brokerCount, k.topicCount, k.partitionCount,
+            k.consumerGroupCount, k.createdAt, k.updatedAt)
+        FROM KafkaCluster k
+        WHERE k.tenantId = :tenantId
+        AND (:status IS NULL OR k.status = :status)
+        AND (:healthStatus IS NULL OR k.healthStatus = :healthStatus)
+        AND (:searchTerm IS NULL OR
+             k.name LIKE %:searchTerm% OR
+             k.description LIKE %:searchTerm% OR
+             k.bootstrapServers LIKE %:searchTerm%)
+        """,
+        countQuery = """
+        SELECT COUNT(k) FROM KafkaCluster k
+        WHERE k.tenantId = :tenantId
+        AND (:status IS NULL OR k.status = :status)
+        AND (:healthStatus IS NULL OR k.healthStatus = :healthStatus)
+        AND (:searchTerm IS NULL OR
+             k.name LIKE %:searchTerm% OR
+             k.description LIKE %:searchTerm% OR
+             k.bootstrapServers LIKE %:searchTerm%)
+        """)
+    Page<KafkaClusterSummaryDto> findSummariesByTenantIdWithFilters(
+        @Param("tenantId") String tenantId,
+        @Param("status") String status,
+        @Param("healthStatus") String healthStatus,
+        @Param("searchTerm") String searchTerm,
+        Pageable pageable
+    );
+
     @Query("""
-        SELECT k FROM KafkaCluster k 
-        WHERE k.tenantId = :tenantId 
+        SELECT new io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto(
+            k.id, k.name, k.description, k.bootstrapServers, k.connectionType, k.status, k.healthStatus,
+            k.kafkaVersion, k.lastHealthCheck, k.brokerCount, k.topicCount, k.partitionCount,
+            k.consumerGroupCount, k.createdAt, k.updatedAt)
+        FROM KafkaCluster k
+        WHERE k.tenantId = :tenantId
         AND (:status IS NULL OR k.status = :status)
         AND (:healthStatus IS NULL OR k.healthStatus = :healthStatus)
-        AND (:searchTerm IS NULL OR 
-             k.name LIKE %:searchTerm% OR 
-             k.description LIKE %:searchTerm% OR 
+        AND (:searchTerm IS NULL OR
+             k.name LIKE %:searchTerm% OR
+             k.description LIKE %:searchTerm% OR
              k.bootstrapServers LIKE %:searchTerm%)
         """)
-    Page<KafkaCluster> findByTenantIdWithFilters(
+    Slice<KafkaClusterSummaryDto> findSummarySliceByTenantIdWithFilters(
         @Param("tenantId") String tenantId,
         @Param("status") String status,
         @Param("healthStatus") String healthStatus,
@@ -45,6 +100,23 @@ public interface KafkaClusterRepository extends BaseRepository<KafkaCluster, Lon
         Pageable pageable
     );
 
+    @Query("""
+        SELECT COUNT(k) FROM KafkaCluster k
+        WHERE k.tenantId = :tenantId
+        AND (:status IS NULL OR k.status = :status)
+        AND (:healthStatus IS NULL OR k.healthStatus = :healthStatus)
+        AND (:searchTerm IS NULL OR
+             k.name LIKE %:searchTerm% OR
+             k.description LIKE %:searchTerm% OR
+             k.bootstrapServers LIKE %:searchTerm%)
+        """)
+    long countByTenantIdWithFilters(
+        @Param("tenantId") String tenantId,
+        @Param("status") String status,
+        @Param("healthStatus") String healthStatus,
+        @Param("searchTerm") String searchTerm
+    );
+
     @Query("SELECT k FROM KafkaCluster k WHERE k.autoHealthCheck = true AND k.status = 'ACTIVE'")
     List<KafkaCluster> findActiveWithAutoHealthCheck();
 
@@ -102,4 +174,9 @@ public interface KafkaClusterRepository extends BaseRepository<KafkaCluster, Lon
         AND k.consumerGroupCount IS NOT NULL
         """)
     Long getTotalConsumerGroupCountByTenantId(@Param("tenantId") String tenantId);
-}
\ No newline at end of file
+
+    interface NameView {
+        Long getId();
+        String getName();
+    }
+}
@@ -1,25 +1,41 @@
 package io.conduktor.saas.kafka.cluster.service;
 
 import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.common.dto.TotalMode;
+import io.conduktor.saas.core.bulk.BulkHandler;
+import io.conduktor.saas.core.bulk.BulkItem;
+import io.conduktor.saas.core.bulk.BulkProcessor;
+import io.conduktor.saas.core.bulk.BulkResult;
 import io.conduktor.saas.core.service.BaseService;
+import io.conduktor.saas.core.service.RowCountEstimator;
+import io.conduktor.saas.kafka.cluster.dto.BulkUpdateKafkaClusterRequest;
 import io.conduktor.saas.kafka.cluster.dto.CreateKafkaClusterRequest;
 import io.conduktor.saas.kafka.cluster.dto.KafkaClusterDto;
+import io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto;
 import io.conduktor.saas.kafka.cluster.dto.UpdateKafkaClusterRequest;
 import io.conduktor.saas.kafka.cluster.entity.KafkaCluster;
 import io.conduktor.saas.kafka.cluster.repository.KafkaClusterRepository;
 import io.conduktor.saas.security.TenantContext;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,13 +43,31 @@ import java.util.stream.Collectors;
 public class KafkaClusterService {
 
     private final KafkaClusterRepository kafkaClusterRepository;
+    private final RowCountEstimator rowCountEstimator;
+    private final BulkProcessor bulkProcessor;
+    private final int maxPageSize;
 
-    public KafkaClusterService(KafkaClusterRepository kafkaClusterRepository) {
+    public KafkaClusterService(KafkaClusterRepository kafkaClusterRepository, RowCountEstimator rowCountEstimator,
+                               BulkProcessor bulkProcessor,
+                               @Value("${app.pagination.max-page-size:100}") int maxPageSize) {
         this.kafkaClusterRepository = kafkaClusterRepository;
+        this.rowCountEstimator = rowCountEstimator;
+        this.bulkProcessor = bulkProcessor;
+        this.maxPageSize = maxPageSize;
     }
 
-    public PageResponse<KafkaClusterDto> findClusters(String status, String healthStatus, String searchTerm,
-                                                     int page, int size, String sort, String direction) {
+    public PageResponse<KafkaClusterSummaryDto> findClusters(String status, String healthStatus, String searchTerm,
+                                                            int page, int size, String sort, String direction) {
+        return findClusters(status, healthStatus, searchTerm, page, size, sort, direction, TotalMode.EXACT);
+    }
+
+    /**
+     * One page of the current tenant's clusters, reading only the columns of
+     * {@link KafkaClusterSummaryDto}; {@link #findById} returns the full configuration.
+     */
+    public PageResponse<KafkaClusterSummaryDto> findClusters(String status, String healthStatus, String searchTerm,
+                                                            int page, int size, String sort, String direction,
+                                                            TotalMode totalMode) {
         String tenantId = TenantContext.getCurrentTenant();
         
         Sort sortObj = Sort.by(
@@ -42,18 +76,30 @@ public class KafkaClusterService {
             sort
         );
         
-        Pageable pageable = PageRequest.of(page, size, sortObj);
+        Pageable pageable = PageRequest.of(page, Math.min(size, maxPageSize), sortObj);
+
+        if (totalMode != TotalMode.EXACT) {
+            Slice<KafkaClusterSummaryDto> slice = kafkaClusterRepository.findSummarySliceByTenantIdWithFilters(
+                tenantId, status, healthStatus, searchTerm, pageable
+            );
+            if (totalMode == TotalMode.NONE) {
+                return PageResponse.ofSlice(slice);
+            }
+            long estimatedTotal = status == null && healthStatus == null && searchTerm == null
+                ? rowCountEstimator.estimate("kafka_clusters", tenantId,
+                    () -> kafkaClusterRepository.countByTenantId(tenantId))
+                : rowCountEstimator.cachedCount(
+                    String.join(":", "kafka_clusters", tenantId, status, healthStatus, searchTerm),
+                    () -> kafkaClusterRepository.countByTenantIdWithFilters(tenantId, status, healthStatus, searchTerm));
+            return PageResponse.ofEstimate(slice, estimatedTotal);
+        }
         
-        Page<KafkaCluster> clusters = kafkaClusterRepository.findByTenantIdWithFilters(
+        Page<KafkaClusterSummaryDto> clusters = kafkaClusterRepository.findSummariesByTenantIdWithFilters(
             tenantId, status, healthStatus, searchTerm, pageable
         );
         
-        List<KafkaClusterDto> dtos = clusters.getContent().stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
-        
         return new PageResponse<>(
-            dtos,
+            clusters.getContent(),
             clusters.getNumber(),
             clusters.getSize(),
             clusters.getTotalElements(),
@@ -63,12 +109,9 @@ public class KafkaClusterService {
         );
     }
 
-    public List<KafkaClusterDto> findAllClusters() {
+    public List<KafkaClusterSummaryDto> findAllClusters() {
         String tenantId = TenantContext.getCurrentTenant();
-        List<KafkaCluster> clusters = kafkaClusterRepository.findByTenantId(tenantId);
-        return clusters.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+        return kafkaClusterRepository.findSummariesByTenantId(tenantId);
     }
 
     public KafkaClusterDto findById(Long id) {
@@ -88,21 +131,7 @@ public class KafkaClusterService {
                 throw new RuntimeException("Cluster with name '" + request.getName() + "' already exists");
             });
         
-        KafkaCluster cluster = new KafkaCluster();
-        cluster.setTenantId(tenantId);
-        cluster.setName(request.getName());
-        cluster.setDescription(request.getDescription());
-        cluster.setBootstrapServers(request.getBootstrapServers());
-        cluster.setConnectionType(request.getConnectionType());
-        cluster.setSecurityConfig(request.getSecurityConfig());
-        cluster.setConnectionConfig(request.getConnectionConfig());
-        cluster.setMonitoringConfig(request.getMonitoringConfig());
-        cluster.setAutoHealthCheck(request.getAutoHealthCheck());
-        cluster.setHealthCheckIntervalMinutes(request.getHealthCheckIntervalMinutes());
-        cluster.setStatus("ACTIVE");
-        cluster.setHealthStatus("UNKNOWN");
-        
-        cluster = kafkaClusterRepository.save(cluster);
+        KafkaCluster cluster = kafkaClusterRepository.save(newCluster(tenantId, request));
         
         // Perform initial health check
         performHealthCheck(cluster);
@@ -124,23 +153,92 @@ public class KafkaClusterService {
                 });
         }
         
-        // Update fields if provided
-        if (request.getName() != null) cluster.setName(request.getName());
-        if (request.getDescription() != null) cluster.setDescription(request.getDescription());
-        if (request.getBootstrapServers() != null) cluster.setBootstrapServers(request.getBootstrapServers());
-        if (request.getConnectionType() != null) cluster.setConnectionType(request.getConnectionType());
-        if (request.getStatus() != null) cluster.setStatus(request.getStatus());
-        if (request.getSecurityConfig() != null) cluster.setSecurityConfig(request.getSecurityConfig());
-        if (request.getConnectionConfig() != null) cluster.setConnectionConfig(request.getConnectionConfig());
-        if (request.getMonitoringConfig() != null) cluster.setMonitoringConfig(request.getMonitoringConfig());
-        if (request.getAutoHealthCheck() != null) cluster.setAutoHealthCheck(request.getAutoHealthCheck());
-        if (request.getHealthCheckIntervalMinutes() != null) cluster.setHealthCheckIntervalMinutes(request.getHealthCheckIntervalMinutes());
-        
+        applyUpdate(cluster, request);
         cluster = kafkaClusterRepository.save(cluster);
         
         return convertToDto(cluster);
     }
 
+    /**
+     * Creates the clusters in {@code body} for the current tenant; see {@link BulkProcessor}. Names
+     * already in use, or repeated within the request, fail their item. Unlike {@link #createCluster},
+     * no initial health check is run: the clusters start {@code UNKNOWN} and are picked up by the
+     * scheduled checks.
+     */
+    public BulkResult createClusters(InputStream body) throws IOException {
+        String tenantId = TenantContext.getCurrentTenant();
+        Set<String> requestedNames = new HashSet<>();
+        return bulkProcessor.process(body, CreateKafkaClusterRequest.class, new BulkHandler<>() {
+            @Override
+            public void prepare(List<BulkItem<CreateKafkaClusterRequest>> items) {
+                List<BulkItem<CreateKafkaClusterRequest>> unique = new ArrayList<>();
+                for (BulkItem<CreateKafkaClusterRequest> item : items) {
+                    if (!requestedNames.add(item.value().getName())) {
+                        item.fail("Cluster name appears more than once in the request");
+                    } else {
+                        unique.add(item);
+                    }
+                }
+                failTakenNames(tenantId, unique, item -> null, item -> item.value().getName());
+            }
+
+            @Override
+            public void write(List<BulkItem<CreateKafkaClusterRequest>> items) {
+                for (BulkItem<CreateKafkaClusterRequest> item : items) {
+                    item.created(kafkaClusterRepository.save(newCluster(tenantId, item.value())).getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies the updates in {@code body} to the current tenant's clusters; see {@link BulkProcessor}.
+     * Unknown ids, and names taken by another cluster or requested twice, fail their item.
+     */
+    public BulkResult updateClusters(InputStream body) throws IOException {
+        String tenantId = TenantContext.getCurrentTenant();
+        Set<Long> requestedIds = new HashSet<>();
+        Set<String> requestedNames = new HashSet<>();
+        return bulkProcessor.process(body, BulkUpdateKafkaClusterRequest.class, new BulkHandler<>() {
+            @Override
+            public void prepare(List<BulkItem<BulkUpdateKafkaClusterRequest>> items) {
+                List<BulkItem<BulkUpdateKafkaClusterRequest>> unique = new ArrayList<>();
+                for (BulkItem<BulkUpdateKafkaClusterRequest> item : items) {
+                    String name = item.value().getName();
+                    if (requestedIds.contains(item.value().getId())) {
+                        item.fail("Cluster appears more than once in the request");
+                    } else if (name != null && requestedNames.contains(name)) {
+                        item.fail("Cluster name appears more than once in the request");
+                    } else {
+                        requestedIds.add(item.value().getId());
+                        if (name != null) {
+                            requestedNames.add(name);
+                        }
+                        unique.add(item);
+                    }
+                }
+                failTakenNames(tenantId, unique, item -> item.value().getId(), item -> item.value().getName());
+            }
+
+            @Override
+            public void write(List<BulkItem<BulkUpdateKafkaClusterRequest>> items) {
+                Map<Long, KafkaCluster> clusters = kafkaClusterRepository.findByTenantIdAndIdIn(tenantId,
+                                items.stream().map(item -> item.value().getId()).toList())
+                        .stream()
+                        .collect(Collectors.toMap(KafkaCluster::getId, Function.identity()));
+                for (BulkItem<BulkUpdateKafkaClusterRequest> item : items) {
+                    KafkaCluster cluster = clusters.get(item.value().getId());
+                    if (cluster == null) {
+                        item.fail("Cluster not found");
+                        continue;
+                    }
+                    applyUpdate(cluster, item.value());
+                    item.updated(kafkaClusterRepository.save(cluster).getId());
+                }
+            }
+        });
+    }
+
     public void deleteCluster(Long id) {
         String tenantId = TenantContext.getCurrentTenant();
         
@@ -261,9 +359,79 @@ public class KafkaClusterService {
         return Math.random() > 0.1; // 90% chance of being healthy
     }
 
+    private KafkaCluster newCluster(String tenantId, CreateKafkaClusterRequest request) {
+        KafkaCluster cluster = new KafkaCluster();
+        cluster.setTenantId(tenantId);
+        cluster.setName(request.getName());
+        cluster.setDescription(request.getDescription());
+        cluster.setBootstrapServers(request.getBootstrapServers());
+        cluster.setConnectionType(request.getConnectionType());
+        cluster.setSecurityConfig(request.getSecurityConfig());
+        cluster.setConnectionConfig(request.getConnectionConfig());
+        cluster.setMonitoringConfig(request.getMonitoringConfig());
+        cluster.setAutoHealthCheck(request.getAutoHealthCheck());
+        cluster.setHealthCheckIntervalMinutes(request.getHealthCheckIntervalMinutes());
+        cluster.setStatus("ACTIVE");
+        cluster.setHealthStatus("UNKNOWN");
+        return cluster;
+    }
+
+    private void applyUpdate(KafkaCluster cluster, UpdateKafkaClusterRequest request) {
+        // Update fields if provided
+        if (request.getName() != null) cluster.setName(request.getName());
+        if (request.getDescription() != null) cluster.setDescription(request.getDescription());
+        if (request.getBootstrapServers() != null) cluster.setBootstrapServers(request.getBootstrapServers());
+        if (request.getConnectionType() != null) cluster.setConnectionType(request.getConnectionType());
+        if (request.getStatus() != null) cluster.setStatus(request.getStatus());
+        if (request.getSecurityConfig() != null) cluster.setSecurityConfig(request.getSecurityConfig());
+        if (request.getConnectionConfig() != null) cluster.setConnectionConfig(request.getConnectionConfig());
+        if (request.getMonitoringConfig() != null) cluster.setMonitoringConfig(request.getMonitoringConfig());
+        if (request.getAutoHealthCheck() != null) cluster.setAutoHealthCheck(request.getAutoHealthCheck());
+        if (request.getHealthCheckIntervalMinutes() != null) cluster.setHealthCheckIntervalMinutes(request.getHealthCheckIntervalMinutes());
+    }
+
+    /** Fails the items whose name belongs to a cluster of the tenant other than the item's own. */
+    private <T> void failTakenNames(String tenantId, List<BulkItem<T>> items,
+                                    Function<BulkItem<T>, Long> clusterId, Function<BulkItem<T>, String> name) {
+        Set<String> names = items.stream().map(name).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return;
+        }
+        Map<String, Long> owners = kafkaClusterRepository.findNamesByTenantIdAndNameIn(tenantId, names).stream()
+                .collect(Collectors.toMap(KafkaClusterRepository.NameView::getName, KafkaClusterRepository.NameView::getId));
+        for (BulkItem<T> item : items) {
+            Long owner = owners.get(name.apply(item));
+            if (owner != null && !owner.equals(clusterId.apply(item))) {
+                item.fail("Cluster with name '" + name.apply(item) + "' already exists");
+            }
+        }
+    }
+
     private KafkaClusterDto convertToDto(KafkaCluster cluster) {
         KafkaClusterDto dto = new KafkaClusterDto();
-        BeanUtils.copyProperties(cluster, dto);
+        dto.setId(cluster.getId());
+        dto.setTenantId(cluster.getTenantId());
+        dto.setName(cluster.getName());
+        dto.setDescription(cluster.getDescription());
+        dto.setBootstrapServers(cluster.getBootstrapServers());
+        dto.setConnectionType(cluster.getConnectionType());
+        dto.setStatus(cluster.getStatus());
+        dto.setHealthStatus(cluster.getHealthStatus());
+        dto.setKafkaVersion(cluster.getKafkaVersion());
+        dto.setSecurityConfig(cluster.getSecurityConfig());
+        dto.setConnectionConfig(cluster.getConnectionConfig());
+        dto.setLastHealthCheck(cluster.getLastHealthCheck());
+        dto.setHealthCheckError(cluster.getHealthCheckError());
+        dto.setBrokerCount(cluster.getBrokerCount());
+        dto.setTopicCount(cluster.getTopicCount());
+        dto.setPartitionCount(cluster.getPartitionCount());
+        dto.setConsumerGroupCount(cluster.getConsumerGroupCount());
+        dto.setMetrics(cluster.getMetrics());
+        dto.setMonitoringConfig(cluster.getMonitoringConfig());
+        dto.setAutoHealthCheck(cluster.getAutoHealthCheck());
+        dto.setHealthCheckIntervalMinutes(cluster.getHealthCheckIntervalMinutes());
+        dto.setCreatedAt(cluster.getCreatedAt());
+        dto.setUpdatedAt(cluster.getUpdatedAt());
         return dto;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package io.conduktor.saas.kafka.consumergroup.controller;
 
 import io.conduktor.saas.common.dto.ApiResponse;
+import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.core.bulk.BulkResult;
 import io.conduktor.saas.kafka.consumergroup.dto.ConsumerGroupFilterDto;
 import io.conduktor.saas.kafka.consumergroup.dto.ConsumerGroupLagMonitoringDto;
 import io.conduktor.saas.kafka.consumergroup.dto.KafkaConsumerGroupDto;
@@ -9,10 +11,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -27,10 +32,10 @@ public class KafkaConsumerGroupController {
 
     @GetMapping
     @Operation(summary = "Get consumer groups", description = "Retrieve consumer groups with filtering and pagination")
-    public ResponseEntity<ApiResponse<Page<KafkaConsumerGroupDto>>> getConsumerGroups(
+    public ResponseEntity<ApiResponse<PageResponse<KafkaConsumerGroupDto>>> getConsumerGroups(
             @ModelAttribute ConsumerGroupFilterDto filter) {
         
-        Page<KafkaConsumerGroupDto> consumerGroups = consumerGroupService.getConsumerGroups(filter);
+        PageResponse<KafkaConsumerGroupDto> consumerGroups = consumerGroupService.getConsumerGroups(filter);
         return ResponseEntity.ok(ApiResponse.success(consumerGroups));
     }
 
@@ -100,4 +105,13 @@ public class KafkaConsumerGroupController {
         KafkaConsumerGroupDto consumerGroup = consumerGroupService.refreshConsumerGroupLag(clusterId, groupId);
         return ResponseEntity.ok(ApiResponse.success(consumerGroup));
     }
-}
\ No newline at end of file
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk sync consumer groups",
+               description = "Create or update consumer groups, matched by cluster and group ID, from a JSON array or newline-delimited JSON")
+    @PreAuthorize("hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkResult>> syncConsumerGroups(InputStream body) throws IOException {
+        BulkResult result = consumerGroupService.syncConsumerGroups(body);
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+}
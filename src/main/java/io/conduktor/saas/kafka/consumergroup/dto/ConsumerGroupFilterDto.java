@@ -57,6 +57,10 @@ public class ConsumerGroupFilterDto {
     @Schema(description = "Page size", example = "20")
     private Integer size = 20;
 
+    @Schema(description = "How to report the total: exact, estimated or none", example = "estimated",
+            allowableValues = {"exact", "estimated", "none"})
+    private String total;
+
     public ConsumerGroupFilterDto() {}
 
     // Getters and Setters
@@ -187,4 +191,12 @@ public class ConsumerGroupFilterDto {
     public void setSize(Integer size) {
         this.size = size;
     }
+
+    public String getTotal() {
+        return total;
+    }
+
+    public void setTotal(String total) {
+        this.total = total;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package io.conduktor.saas.kafka.consumergroup.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.util.Map;
+
+@Schema(description = "Observed state of a consumer group, created if the cluster has no group with this ID yet; fields left out keep their current value")
+public class SyncConsumerGroupRequest {
+
+    @NotNull(message = "Cluster ID is required")
+    @Schema(description = "Kafka cluster ID", example = "1", required = true)
+    private Long clusterId;
+
+    @NotBlank(message = "Group ID is required")
+    @Size(max = 200, message = "Group ID must not exceed 200 characters")
+    @Schema(description = "Consumer group name", example = "my-consumer-group", required = true)
+    private String groupId;
+
+    @Size(max = 20, message = "State must not exceed 20 characters")
+    @Schema(description = "Consumer group state", example = "STABLE", allowableValues = {"PREPARING_REBALANCE", "COMPLETING_REBALANCE", "STABLE", "DEAD", "EMPTY"})
+    private String state;
+
+    @Size(max = 50, message = "Protocol must not exceed 50 characters")
+    @Schema(description = "Consumer group protocol", example = "range")
+    private String protocol;
+
+    @Size(max = 50, message = "Protocol type must not exceed 50 characters")
+    @Schema(description = "Protocol type", example = "consumer")
+    private String protocolType;
+
+    @PositiveOrZero(message = "Member count must not be negative")
+    @Schema(description = "Number of active members", example = "3")
+    private Integer memberCount;
+
+    @PositiveOrZero(message = "Lag must not be negative")
+    @Schema(description = "Total lag across all partitions", example = "1500")
+    private Long lagTotal;
+
+    @Size(max = 100, message = "Assignment strategy must not exceed 100 characters")
+    @Schema(description = "Assignment strategy", example = "org.apache.kafka.clients.consumer.RangeAssignor")
+    private String assignmentStrategy;
+
+    @Schema(description = "Coordinator broker ID", example = "1")
+    private Integer coordinatorId;
+
+    @Schema(description = "Consumer group description")
+    private String description;
+
+    @Schema(description = "Additional metadata")
+    private Map<String, Object> metadata;
+
+    // Constructors
+    public SyncConsumerGroupRequest() {}
+
+    // Getters and Setters
+    public Long getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Long clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    public String getProtocolType() {
+        return protocolType;
+    }
+
+    public void setProtocolType(String protocolType) {
+        this.protocolType = protocolType;
+    }
+
+    public Integer getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(Integer memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public Long getLagTotal() {
+        return lagTotal;
+    }
+
+    public void setLagTotal(Long lagTotal) {
+        this.lagTotal = lagTotal;
+    }
+
+    public String getAssignmentStrategy() {
+        return assignmentStrategy;
+    }
+
+    public void setAssignmentStrategy(String assignmentStrategy) {
+        this.assignmentStrategy = assignmentStrategy;
+    }
+
+    public Integer getCoordinatorId() {
+        return coordinatorId;
+    }
+
+    public void setCoordinatorId(Integer coordinatorId) {
+        this.coordinatorId = coordinatorId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata;
+    }
+}
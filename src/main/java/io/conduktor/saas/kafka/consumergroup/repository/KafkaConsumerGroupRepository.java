@@ -3,11 +3,13 @@ package io.conduktor.saas.kafka.consumergroup.repository;
 import io.conduktor.saas.kafka.consumergroup.entity.KafkaConsumerGroup;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,13 @@ public interface KafkaConsumerGroupRepository extends JpaRepository<KafkaConsume
 
     List<KafkaConsumerGroup> findByTenantIdAndClusterId(String tenantId, Long clusterId);
 
+    List<KafkaConsumerGroup> findByTenantIdAndClusterIdAndGroupIdIn(
+        String tenantId, Long clusterId, Collection<String> groupIds);
+
+    Slice<KafkaConsumerGroup> findSliceByTenantIdAndClusterId(String tenantId, Long clusterId, Pageable pageable);
+
+    long countByTenantIdAndClusterId(String tenantId, Long clusterId);
+
     @Query("SELECT cg FROM KafkaConsumerGroup cg WHERE cg.tenantId = :tenantId AND cg.clusterId = :clusterId AND cg.state = :state")
     List<KafkaConsumerGroup> findByTenantIdAndClusterIdAndState(
         @Param("tenantId") String tenantId, 
@@ -46,7 +55,24 @@ public interface KafkaConsumerGroupRepository extends JpaRepository<KafkaConsume
         @Param("groupIdPattern") String groupIdPattern, 
         Pageable pageable);
 
+    @Query("SELECT cg FROM KafkaConsumerGroup cg WHERE cg.tenantId = :tenantId AND cg.groupId LIKE %:groupIdPattern%")
+    Slice<KafkaConsumerGroup> findSliceByTenantIdAndGroupIdContaining(
+        @Param("tenantId") String tenantId,
+        @Param("groupIdPattern") String groupIdPattern,
+        Pageable pageable);
+
+    @Query("SELECT COUNT(cg) FROM KafkaConsumerGroup cg WHERE cg.tenantId = :tenantId AND cg.groupId LIKE %:groupIdPattern%")
+    long countByTenantIdAndGroupIdContaining(
+        @Param("tenantId") String tenantId,
+        @Param("groupIdPattern") String groupIdPattern);
+
     List<KafkaConsumerGroup> findByTenantId(String tenantId);
 
+    Page<KafkaConsumerGroup> findByTenantId(String tenantId, Pageable pageable);
+
+    Slice<KafkaConsumerGroup> findSliceByTenantId(String tenantId, Pageable pageable);
+
+    long countByTenantId(String tenantId);
+
     void deleteByTenantIdAndClusterId(String tenantId, Long clusterId);
 }
\ No newline at end of file
@@ -1,26 +1,41 @@
 package io.conduktor.saas.kafka.consumergroup.service;
 
+import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.common.dto.TotalMode;
+import io.conduktor.saas.core.bulk.BulkHandler;
+import io.conduktor.saas.core.bulk.BulkItem;
+import io.conduktor.saas.core.bulk.BulkProcessor;
+import io.conduktor.saas.core.bulk.BulkResult;
 import io.conduktor.saas.core.exception.ResourceNotFoundException;
+import io.conduktor.saas.core.service.RowCountEstimator;
 import io.conduktor.saas.security.TenantContext;
 import io.conduktor.saas.kafka.consumergroup.dto.ConsumerGroupFilterDto;
 import io.conduktor.saas.kafka.consumergroup.dto.ConsumerGroupLagMonitoringDto;
+import io.conduktor.saas.kafka.cluster.repository.KafkaClusterRepository;
 import io.conduktor.saas.kafka.consumergroup.dto.KafkaConsumerGroupDto;
+import io.conduktor.saas.kafka.consumergroup.dto.SyncConsumerGroupRequest;
 import io.conduktor.saas.kafka.consumergroup.entity.KafkaConsumerGroup;
 import io.conduktor.saas.kafka.consumergroup.repository.KafkaConsumerGroupRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +47,18 @@ public class KafkaConsumerGroupService {
     @Autowired
     private KafkaConsumerGroupRepository consumerGroupRepository;
 
+    @Autowired
+    private RowCountEstimator rowCountEstimator;
+
+    @Autowired
+    private KafkaClusterRepository kafkaClusterRepository;
+
+    @Autowired
+    private BulkProcessor bulkProcessor;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
     private String getCurrentTenantId() {
         String tenantId = TenantContext.getCurrentTenantId();
         if (tenantId == null) {
@@ -40,29 +67,61 @@ public class KafkaConsumerGroupService {
         return tenantId;
     }
 
-    public Page<KafkaConsumerGroupDto> getConsumerGroups(ConsumerGroupFilterDto filter) {
+    public PageResponse<KafkaConsumerGroupDto> getConsumerGroups(ConsumerGroupFilterDto filter) {
         String tenantId = getCurrentTenantId();
+        TotalMode totalMode = TotalMode.from(filter.getTotal());
         
         Sort sort = Sort.by(
             "DESC".equalsIgnoreCase(filter.getSortDirection()) ? Sort.Direction.DESC : Sort.Direction.ASC,
             filter.getSortBy()
         );
         
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
-        
-        Page<KafkaConsumerGroup> consumerGroups;
-        
+        Pageable pageable = PageRequest.of(filter.getPage(), Math.min(filter.getSize(), maxPageSize), sort);
+        
+        if (totalMode == TotalMode.EXACT) {
+            Page<KafkaConsumerGroup> consumerGroups;
+            if (filter.getClusterId() != null) {
+                consumerGroups = consumerGroupRepository.findByTenantIdAndClusterId(
+                    tenantId, filter.getClusterId(), pageable);
+            } else if (filter.getGroupIdPattern() != null) {
+                consumerGroups = consumerGroupRepository.findByTenantIdAndGroupIdContaining(
+                    tenantId, filter.getGroupIdPattern(), pageable);
+            } else {
+                consumerGroups = consumerGroupRepository.findByTenantId(tenantId, pageable);
+            }
+            return PageResponse.of(consumerGroups.map(this::convertToDto));
+        }
+
+        Slice<KafkaConsumerGroup> consumerGroups;
+        long estimatedTotal = -1;
         if (filter.getClusterId() != null) {
-            consumerGroups = consumerGroupRepository.findByTenantIdAndClusterId(
+            consumerGroups = consumerGroupRepository.findSliceByTenantIdAndClusterId(
                 tenantId, filter.getClusterId(), pageable);
+            if (totalMode == TotalMode.ESTIMATED) {
+                estimatedTotal = rowCountEstimator.cachedCount(
+                    "kafka_consumer_groups:" + tenantId + ":cluster:" + filter.getClusterId(),
+                    () -> consumerGroupRepository.countByTenantIdAndClusterId(tenantId, filter.getClusterId()));
+            }
         } else if (filter.getGroupIdPattern() != null) {
-            consumerGroups = consumerGroupRepository.findByTenantIdAndGroupIdContaining(
+            consumerGroups = consumerGroupRepository.findSliceByTenantIdAndGroupIdContaining(
                 tenantId, filter.getGroupIdPattern(), pageable);
+            if (totalMode == TotalMode.ESTIMATED) {
+                estimatedTotal = rowCountEstimator.cachedCount(
+                    "kafka_consumer_groups:" + tenantId + ":group:" + filter.getGroupIdPattern(),
+                    () -> consumerGroupRepository.countByTenantIdAndGroupIdContaining(tenantId, filter.getGroupIdPattern()));
+            }
         } else {
-            consumerGroups = consumerGroupRepository.findAll(pageable);
+            consumerGroups = consumerGroupRepository.findSliceByTenantId(tenantId, pageable);
+            if (totalMode == TotalMode.ESTIMATED) {
+                estimatedTotal = rowCountEstimator.estimate("kafka_consumer_groups", tenantId,
+                    () -> consumerGroupRepository.countByTenantId(tenantId));
+            }
         }
-        
-        return consumerGroups.map(this::convertToDto);
+
+        Slice<KafkaConsumerGroupDto> dtos = consumerGroups.map(this::convertToDto);
+        return totalMode == TotalMode.ESTIMATED
+            ? PageResponse.ofEstimate(dtos, estimatedTotal)
+            : PageResponse.ofSlice(dtos);
     }
 
     public KafkaConsumerGroupDto getConsumerGroupById(Long id) {
@@ -178,6 +237,83 @@ public class KafkaConsumerGroupService {
         return convertToDto(updated);
     }
 
+    /**
+     * Creates or updates the current tenant's consumer groups from the observed states in
+     * {@code body}, matching them by cluster and group ID; see {@link BulkProcessor}. Items for a
+     * cluster the tenant does not own, or repeating a group, fail.
+     */
+    public BulkResult syncConsumerGroups(InputStream body) throws IOException {
+        String tenantId = getCurrentTenantId();
+        Map<Long, Boolean> ownedClusters = new HashMap<>();
+        Set<GroupKey> requestedGroups = new HashSet<>();
+        return bulkProcessor.process(body, SyncConsumerGroupRequest.class, new BulkHandler<>() {
+            @Override
+            public void prepare(List<BulkItem<SyncConsumerGroupRequest>> items) {
+                Set<Long> unchecked = items.stream()
+                    .map(item -> item.value().getClusterId())
+                    .filter(clusterId -> !ownedClusters.containsKey(clusterId))
+                    .collect(Collectors.toSet());
+                if (!unchecked.isEmpty()) {
+                    Set<Long> owned = new HashSet<>(kafkaClusterRepository.findIdsByTenantIdAndIdIn(tenantId, unchecked));
+                    unchecked.forEach(clusterId -> ownedClusters.put(clusterId, owned.contains(clusterId)));
+                }
+                for (BulkItem<SyncConsumerGroupRequest> item : items) {
+                    SyncConsumerGroupRequest request = item.value();
+                    if (!ownedClusters.get(request.getClusterId())) {
+                        item.fail("Cluster not found: " + request.getClusterId());
+                    } else if (!requestedGroups.add(new GroupKey(request.getClusterId(), request.getGroupId()))) {
+                        item.fail("Consumer group appears more than once in the request");
+                    }
+                }
+            }
+
+            @Override
+            public void write(List<BulkItem<SyncConsumerGroupRequest>> items) {
+                Map<GroupKey, KafkaConsumerGroup> existing = new HashMap<>();
+                items.stream()
+                    .collect(Collectors.groupingBy(item -> item.value().getClusterId(),
+                        Collectors.mapping(item -> item.value().getGroupId(), Collectors.toList())))
+                    .forEach((clusterId, groupIds) -> consumerGroupRepository
+                        .findByTenantIdAndClusterIdAndGroupIdIn(tenantId, clusterId, groupIds)
+                        .forEach(group -> existing.put(new GroupKey(clusterId, group.getGroupId()), group)));
+
+                for (BulkItem<SyncConsumerGroupRequest> item : items) {
+                    SyncConsumerGroupRequest request = item.value();
+                    KafkaConsumerGroup consumerGroup = existing.get(new GroupKey(request.getClusterId(), request.getGroupId()));
+                    boolean created = consumerGroup == null;
+                    if (created) {
+                        consumerGroup = new KafkaConsumerGroup();
+                        consumerGroup.setTenantId(tenantId);
+                        consumerGroup.setClusterId(request.getClusterId());
+                        consumerGroup.setGroupId(request.getGroupId());
+                    }
+                    applySync(consumerGroup, request);
+                    Long id = consumerGroupRepository.save(consumerGroup).getId();
+                    if (created) {
+                        item.created(id);
+                    } else {
+                        item.updated(id);
+                    }
+                }
+            }
+        });
+    }
+
+    private void applySync(KafkaConsumerGroup consumerGroup, SyncConsumerGroupRequest request) {
+        if (request.getState() != null) consumerGroup.setState(request.getState());
+        if (request.getProtocol() != null) consumerGroup.setProtocol(request.getProtocol());
+        if (request.getProtocolType() != null) consumerGroup.setProtocolType(request.getProtocolType());
+        if (request.getMemberCount() != null) consumerGroup.setMemberCount(request.getMemberCount());
+        if (request.getLagTotal() != null) consumerGroup.setLagTotal(request.getLagTotal());
+        if (request.getAssignmentStrategy() != null) consumerGroup.setAssignmentStrategy(request.getAssignmentStrategy());
+        if (request.getCoordinatorId() != null) consumerGroup.setCoordinatorId(request.getCoordinatorId());
+        if (request.getDescription() != null) consumerGroup.setDescription(request.getDescription());
+        if (request.getMetadata() != null) consumerGroup.setMetadata(request.getMetadata());
+    }
+
+    private record GroupKey(Long clusterId, String groupId) {
+    }
+
     private void simulateKafkaLagUpdate(KafkaConsumerGroup consumerGroup) {
         // In a real implementation, this would use Kafka AdminClient to fetch real data
         // For demonstration, we'll simulate some realistic lag data
@@ -0,0 +1,73 @@
+package io.conduktor.saas.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings that supports concurrent {@link #put} and
+ * {@link #mightContain} without locks: bits live in an {@link AtomicLongArray} and are set with
+ * an atomic OR, reads are plain volatile loads.
+ * <p>
+ * Entries cannot be removed; owners rebuild a fresh filter when the underlying set shrinks.
+ */
+final class ConcurrentBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    ConcurrentBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int words = (int) Math.max(1, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * LN2));
+    }
+
+    void put(String value) {
+        long h1 = hash64(value);
+        long h2 = mix64(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.accumulateAndGet(word, mask, ConcurrentBloomFilter::or);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash64(value);
+        long h2 = mix64(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long or(long current, long mask) {
+        return current | mask;
+    }
+
+    /** 64-bit FNV-1a over the UTF-16 code units, finalised with a murmur3 mix. */
+    private static long hash64(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix64(hash);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
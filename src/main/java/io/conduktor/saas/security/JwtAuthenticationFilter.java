@@ -1,5 +1,10 @@
 package io.conduktor.saas.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.common.dto.ApiResponse;
+import io.conduktor.saas.core.exception.ServiceUnavailableException;
+import io.conduktor.saas.tenant.service.TenantDirectory;
+import io.conduktor.saas.user.service.SecurityStampService;
 import io.conduktor.saas.user.service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,6 +13,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -29,17 +37,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SecurityStampService securityStampService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.security.claims-principal.enabled:false}")
+    private boolean claimsPrincipalEnabled;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
-                String tenantId = tokenProvider.getTenantIdFromJWT(jwt);
+            JwtClaims claims = StringUtils.hasText(jwt) ? tokenProvider.parseIfValid(jwt) : null;
+            if (claims != null && tokenRevocationService.isRevoked(claims)) {
+                logger.debug("Rejecting revoked token for user {}", claims.userId());
+                claims = null;
+            }
+
+            UserDetails userDetails = claims != null ? resolveUserDetails(claims) : null;
+
+            if (userDetails != null) {
+                String tenantId = claims.tenantId();
+                if (StringUtils.hasText(tenantId) && !checkTenant(tenantId, response)) {
+                    return;
+                }
 
-                UserDetails userDetails = userService.loadUserById(userId);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -57,6 +89,58 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Applies the checks {@link TenantFilter} makes for an explicit tenant to the token's tenant,
+     * which is the only one a request without a tenant header or host carries, and rejects tokens
+     * used against another tenant than their own.
+     *
+     * @return false if the request was rejected and must not continue
+     */
+    private boolean checkTenant(String tenantId, HttpServletResponse response) throws IOException {
+        TenantDirectory.Entry tenant;
+        try {
+            tenant = tenantDirectory.resolve(tenantId).orElse(null);
+        } catch (ServiceUnavailableException e) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Tenant lookup failed", e.getMessage());
+            return false;
+        }
+        if (tenant == null || !tenant.isAccessible()) {
+            reject(response, HttpStatus.FORBIDDEN, "Tenant not active",
+                    "Tenant " + tenantId + " is " + (tenant != null ? tenant.status() : "unknown"));
+            return false;
+        }
+        // TenantFilter has set the tenant named by the request header, parameter or host, if any
+        String requestTenantId = TenantContext.getCurrentTenantId();
+        if (requestTenantId != null && !requestTenantId.equals(tenant.tenantId())) {
+            logger.debug("Rejecting token of tenant {} used for tenant {}", tenantId, requestTenantId);
+            reject(response, HttpStatus.FORBIDDEN, "Tenant mismatch",
+                    "The token does not belong to tenant " + requestTenantId);
+            return false;
+        }
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message, String error) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message, error));
+    }
+
+    private UserDetails resolveUserDetails(JwtClaims claims) {
+        if (!claimsPrincipalEnabled || claims.securityStamp() == null || !securityStampService.isLoaded()) {
+            return userService.loadUserById(claims.userId());
+        }
+        if (claims.isRefreshToken()) {
+            logger.debug("Refresh token presented as access token for user {}", claims.userId());
+            return null;
+        }
+        if (!securityStampService.isCurrent(claims.userId(), claims.securityStamp())) {
+            logger.debug("Rejecting token with stale security stamp for user {}", claims.userId());
+            return null;
+        }
+        return UserPrincipal.fromClaims(claims);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
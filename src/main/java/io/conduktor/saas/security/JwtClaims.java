@@ -0,0 +1,60 @@
+package io.conduktor.saas.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of the claims of a token whose signature has already been verified.
+ * Built once per token by {@link JwtTokenProvider#parseVerified(String)} so callers never
+ * have to re-parse the compact JWT to read individual claims.
+ */
+public record JwtClaims(
+        String tokenId,
+        Long userId,
+        String username,
+        String email,
+        String tenantId,
+        List<String> roles,
+        String type,
+        Instant issuedAt,
+        Instant expiration,
+        Integer securityStamp,
+        String sessionId) {
+
+    public static final String TYPE_REFRESH = "refresh";
+
+    public JwtClaims {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    static JwtClaims from(Claims claims) {
+        List<?> rawRoles = claims.get("roles", List.class);
+        List<String> roles = rawRoles == null ? List.of() : rawRoles.stream()
+                .map(String::valueOf)
+                .toList();
+
+        return new JwtClaims(
+                claims.getId(),
+                Long.parseLong(claims.getSubject()),
+                claims.get("username", String.class),
+                claims.get("email", String.class),
+                claims.get("tenantId", String.class),
+                roles,
+                claims.get("type", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims.get("stamp", Integer.class),
+                claims.get("sid", String.class)
+        );
+    }
+
+    public boolean isRefreshToken() {
+        return TYPE_REFRESH.equals(type);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiration != null && !expiration.isAfter(now);
+    }
+}
@@ -1,5 +1,8 @@
 package io.conduktor.saas.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.conduktor.saas.user.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
@@ -8,13 +11,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -25,13 +34,26 @@ public class JwtTokenProvider {
     private final SecretKey jwtSecret;
     private final int jwtExpirationInMs;
     private final int refreshExpirationInMs;
+    private final JwtParser jwtParser;
+    private final Cache<TokenDigest, JwtClaims> verifiedClaimsCache;
 
     public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
                            @Value("${app.jwt.expiration}") int jwtExpirationInMs,
-                           @Value("${app.jwt.refresh-expiration}") int refreshExpirationInMs) {
+                           @Value("${app.jwt.refresh-expiration}") int refreshExpirationInMs,
+                           @Value("${app.cache.token-cache-size:5000}") int tokenCacheSize) {
         this.jwtSecret = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         this.jwtExpirationInMs = jwtExpirationInMs;
         this.refreshExpirationInMs = refreshExpirationInMs;
+        // JwtParser instances are immutable and thread-safe, so one is built up front and shared
+        this.jwtParser = Jwts.parser()
+                .verifyWith(this.jwtSecret)
+                .build();
+        this.verifiedClaimsCache = tokenCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(tokenCacheSize)
+                        .expireAfter(new ExpireAtTokenExpiry())
+                        .build()
+                : null;
     }
 
     public String generateToken(Authentication authentication) {
@@ -45,6 +67,7 @@ public class JwtTokenProvider {
                 .toList();
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(Long.toString(userPrincipal.getId()))
                 .claim("username", userPrincipal.getUsername())
                 .claim("email", userPrincipal.getEmail())
@@ -63,6 +86,7 @@ public class JwtTokenProvider {
         Instant expiryDate = now.plus(refreshExpirationInMs, ChronoUnit.MILLIS);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(Long.toString(userPrincipal.getId()))
                 .claim("type", "refresh")
                 .claim("tenantId", userPrincipal.getTenantId())
@@ -72,59 +96,41 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return Long.parseLong(claims.getSubject());
-    }
-
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("username", String.class);
-    }
-
-    public String getEmailFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("email", String.class);
-    }
+    /**
+     * Verifies the token signature and expiry once and returns all claims as an immutable record.
+     * Tokens that were already verified are served from a bounded cache keyed by a SHA-256 digest
+     * of the compact token; each entry is evicted as soon as the token itself expires.
+     *
+     * @throws JwtException if the token is malformed, expired or carries an invalid signature
+     */
+    public JwtClaims parseVerified(String token) {
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        if (verifiedClaimsCache == null) {
+            return parseAndVerify(token);
+        }
 
-    public String getTenantIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("tenantId", String.class);
-    }
+        TokenDigest digest = TokenDigest.of(token);
+        JwtClaims cached = verifiedClaimsCache.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) {
+                return cached;
+            }
+            verifiedClaimsCache.invalidate(digest);
+        }
 
-    @SuppressWarnings("unchecked")
-    public List<String> getRolesFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("roles", List.class);
+        JwtClaims claims = parseAndVerify(token);
+        verifiedClaimsCache.put(digest, claims);
+        return claims;
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Same as {@link #parseVerified(String)} but logs and returns {@code null} for invalid tokens.
+     */
+    public JwtClaims parseIfValid(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(jwtSecret)
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return parseVerified(token);
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -135,34 +141,63 @@ public class JwtTokenProvider {
             logger.error("Unsupported JWT token: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            logger.error("Invalid JWT: {}", ex.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private JwtClaims parseAndVerify(String token) {
+        return JwtClaims.from(jwtParser.parseSignedClaims(token).getPayload());
+    }
+
+    public Long getUserIdFromJWT(String token) {
+        return parseVerified(token).userId();
+    }
+
+    public String getUsernameFromJWT(String token) {
+        return parseVerified(token).username();
+    }
+
+    public String getEmailFromJWT(String token) {
+        return parseVerified(token).email();
+    }
+
+    public String getTenantIdFromJWT(String token) {
+        return parseVerified(token).tenantId();
+    }
+
+    public List<String> getRolesFromJWT(String token) {
+        return parseVerified(token).roles();
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseIfValid(authToken) != null;
     }
 
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(jwtSecret)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return "refresh".equals(claims.get("type", String.class));
+            return parseVerified(token).isRefreshToken();
         } catch (Exception e) {
             return false;
         }
     }
 
     public Date getExpirationDateFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getExpiration();
+        Instant expiration = parseVerified(token).expiration();
+        return expiration != null ? Date.from(expiration) : null;
     }
 
     // Additional methods needed by AuthService
     public String createToken(User user) {
+        return createToken(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Access token belonging to the login session {@code sessionId}, which its refresh tokens
+     * share so that logging out can revoke the whole session.
+     */
+    public String createToken(User user, String sessionId) {
         Instant now = Instant.now();
         Instant expiryDate = now.plus(jwtExpirationInMs, ChronoUnit.MILLIS);
 
@@ -171,11 +206,14 @@ public class JwtTokenProvider {
                 .collect(Collectors.toList());
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(Long.toString(user.getId()))
                 .claim("username", user.getUsername())
                 .claim("email", user.getEmail())
                 .claim("tenantId", user.getTenantId())
                 .claim("roles", roles)
+                .claim("stamp", user.getSecurityStamp())
+                .claim("sid", sessionId)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryDate))
                 .signWith(jwtSecret, Jwts.SIG.HS512)
@@ -183,14 +221,21 @@ public class JwtTokenProvider {
     }
 
     public String createRefreshToken(User user) {
+        return createRefreshToken(user, UUID.randomUUID().toString());
+    }
+
+    public String createRefreshToken(User user, String sessionId) {
         Instant now = Instant.now();
         Instant expiryDate = now.plus(refreshExpirationInMs, ChronoUnit.MILLIS);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(Long.toString(user.getId()))
                 .claim("type", "refresh")
                 .claim("username", user.getUsername())
                 .claim("tenantId", user.getTenantId())
+                .claim("stamp", user.getSecurityStamp())
+                .claim("sid", sessionId)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryDate))
                 .signWith(jwtSecret, Jwts.SIG.HS512)
@@ -212,4 +257,48 @@ public class JwtTokenProvider {
     public Long getRefreshTokenValidityInSeconds() {
         return (long) refreshExpirationInMs / 1000;
     }
+
+    /**
+     * Cache key for verified tokens: the 256-bit SHA-256 digest of the compact token, so the
+     * cache never retains the bearer credential itself.
+     */
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+
+        private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        });
+
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+
+    /**
+     * Evicts each cached entry at the {@code exp} claim of the token it was derived from.
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<TokenDigest, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, JwtClaims claims, long currentTime) {
+            if (claims.expiration() == null) {
+                return 0L;
+            }
+            return Math.max(0L, Duration.between(Instant.now(), claims.expiration()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
\ No newline at end of file
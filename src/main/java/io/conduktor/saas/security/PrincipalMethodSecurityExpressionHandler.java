@@ -0,0 +1,38 @@
+package io.conduktor.saas.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Installs {@link PrincipalMethodSecurityExpressionRoot} as the root object of method security
+ * expressions. Role checks only take the fast path when no role hierarchy is configured, since the
+ * bitmask does not know about inherited roles.
+ */
+public class PrincipalMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    public PrincipalMethodSecurityExpressionHandler() {
+        // Expressions are evaluated on every secured call; let SpEL compile them to bytecode once warm
+        setExpressionParser(new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader())));
+    }
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        EvaluationContext context = super.createEvaluationContext(authentication, mi);
+        if (getRoleHierarchy() == null && context instanceof StandardEvaluationContext standardContext) {
+            MethodSecurityExpressionOperations root =
+                    (MethodSecurityExpressionOperations) standardContext.getRootObject().getValue();
+            standardContext.setRootObject(new PrincipalMethodSecurityExpressionRoot(root));
+        }
+        return context;
+    }
+}
@@ -0,0 +1,123 @@
+package io.conduktor.saas.security;
+
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Expression root for {@code @PreAuthorize}/{@code @PostAuthorize} that answers {@code hasRole} and
+ * {@code hasAnyRole} straight from the {@link UserPrincipal} role bitmask, instead of building an
+ * authority set and a {@code "ROLE_" + role} string per check. Everything else, and principals of
+ * other types, go to the standard root.
+ */
+public class PrincipalMethodSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private final MethodSecurityExpressionOperations delegate;
+
+    public PrincipalMethodSecurityExpressionRoot(MethodSecurityExpressionOperations delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        UserPrincipal principal = userPrincipal();
+        return principal != null ? principal.hasRole(role) : delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        UserPrincipal principal = userPrincipal();
+        return principal != null ? principal.hasAnyRole(roles) : delegate.hasAnyRole(roles);
+    }
+
+    private UserPrincipal userPrincipal() {
+        Authentication authentication = delegate.getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserPrincipal principal ? principal : null;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    /** Exposes {@code principal} to expressions, as the standard root does. */
+    public Object getPrincipal() {
+        Authentication authentication = delegate.getAuthentication();
+        return authentication != null ? authentication.getPrincipal() : null;
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return delegate.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        return delegate.hasAnyAuthority(authorities);
+    }
+
+    @Override
+    public boolean permitAll() {
+        return delegate.permitAll();
+    }
+
+    @Override
+    public boolean denyAll() {
+        return delegate.denyAll();
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        delegate.setFilterObject(filterObject);
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return delegate.getFilterObject();
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        delegate.setReturnObject(returnObject);
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return delegate.getReturnObject();
+    }
+
+    @Override
+    public Object getThis() {
+        return delegate.getThis();
+    }
+}
@@ -0,0 +1,77 @@
+package io.conduktor.saas.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.common.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link TenantRateLimiter} to every API request and reports the outcome with the
+ * {@code RateLimit-Limit}, {@code RateLimit-Remaining}, {@code RateLimit-Reset} and
+ * {@code RateLimit-Policy} headers. Runs after the security filter chain so the tenant is taken
+ * from the authenticated principal rather than from a client-supplied header.
+ * <p>
+ * Anonymous requests are limited per {@link HttpServletRequest#getRemoteAddr() client address}.
+ * Behind a load balancer that is the balancer's address unless {@code server.forward-headers-strategy}
+ * is set so the container resolves the client from {@code X-Forwarded-For}; the shipped
+ * configuration uses {@code native}, which only trusts the header from internal proxies.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TenantRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(TenantRateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || request.getRequestURI().contains("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenantId = authenticatedTenantId();
+        TenantRateLimiter.Decision decision = tenantId != null
+                ? rateLimiter.tryAcquireForTenant(tenantId)
+                : rateLimiter.tryAcquireAnonymous(request.getRemoteAddr());
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        response.setHeader("RateLimit-Policy", decision.limit() + ";w=" + decision.windowSeconds());
+
+        if (!decision.allowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Rate limit exceeded", "API rate limit of " + decision.limit()
+                            + " requests per " + decision.windowSeconds() + " seconds exceeded"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String authenticatedTenantId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getTenantId();
+        }
+        return null;
+    }
+}
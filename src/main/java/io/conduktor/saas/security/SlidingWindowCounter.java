@@ -0,0 +1,65 @@
+package io.conduktor.saas.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate sliding-window counter: the count of the previous fixed window is weighted by how
+ * much of it still overlaps the sliding window. Both windows are packed into one {@link AtomicLong}
+ * (window index in the high 40 bits, count in the low 24), so updates are a single CAS.
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int limit;
+    private final long windowNanos;
+    private final long origin = System.nanoTime();
+    private final AtomicLong current = new AtomicLong();
+    private volatile long previousCount;
+
+    SlidingWindowCounter(int limit, long window, TimeUnit unit) {
+        this.limit = limit;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    long getWindowSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(windowNanos);
+    }
+
+    /**
+     * @return remaining requests after this one, or {@code -1} if the request is over the limit
+     */
+    long tryAcquire(long nowNanos) {
+        long elapsed = nowNanos - origin;
+        long window = elapsed / windowNanos;
+        double previousWeight = 1.0 - (double) (elapsed % windowNanos) / windowNanos;
+
+        while (true) {
+            long state = current.get();
+            long stateWindow = state >>> COUNT_BITS;
+            long count = state & COUNT_MASK;
+            long previous = previousCount;
+            if (stateWindow != window) {
+                previous = stateWindow == window - 1 ? count : 0;
+                count = 0;
+            }
+
+            double estimated = previous * previousWeight + count + 1;
+            if (estimated > limit) {
+                return -1;
+            }
+            if (current.compareAndSet(state, (window << COUNT_BITS) | (count + 1))) {
+                if (stateWindow != window) {
+                    previousCount = previous;
+                }
+                return (long) (limit - estimated);
+            }
+        }
+    }
+}
@@ -2,12 +2,23 @@ package io.conduktor.saas.security;
 
 import org.slf4j.MDC;
 
+/**
+ * Tenant of the work running on the current thread, mirrored into the logging MDC.
+ * <p>
+ * The tenant is bound per thread, so work handed to an executor does not see it unless the
+ * executor is decorated with {@link TenantContextTaskDecorator} (as the {@code @Async} executor is)
+ * or the task is wrapped with {@link #wrap(Runnable)}.
+ */
 public class TenantContext {
     
     private static final String TENANT_ID_KEY = "tenantId";
     private static final ThreadLocal<String> currentTenant = new ThreadLocal<>();
     
     public static void setCurrentTenantId(String tenantId) {
+        if (tenantId == null) {
+            clear();
+            return;
+        }
         currentTenant.set(tenantId);
         MDC.put(TENANT_ID_KEY, tenantId);
     }
@@ -28,4 +39,25 @@ public class TenantContext {
     public static boolean hasTenantContext() {
         return getCurrentTenantId() != null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs {@code task} with {@code tenantId} bound, then restores whatever tenant was bound before.
+     */
+    public static void runWithTenant(String tenantId, Runnable task) {
+        String previous = getCurrentTenantId();
+        setCurrentTenantId(tenantId);
+        try {
+            task.run();
+        } finally {
+            setCurrentTenantId(previous);
+        }
+    }
+
+    /**
+     * Captures the current tenant so {@code task} runs with it on whichever thread executes it.
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = getCurrentTenantId();
+        return () -> runWithTenant(tenantId, task);
+    }
+}
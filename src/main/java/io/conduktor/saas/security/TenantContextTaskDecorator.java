@@ -0,0 +1,41 @@
+package io.conduktor.saas.security;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Carries the submitting thread's {@link TenantContext} and MDC over to the thread that runs the
+ * task, and restores the worker's own state afterwards so pooled threads never leak a tenant into
+ * the next task. Works the same for platform thread pools and virtual-thread-per-task executors.
+ */
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String tenantId = TenantContext.getCurrentTenantId();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        return () -> {
+            String previousTenantId = TenantContext.getCurrentTenantId();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            try {
+                setMdc(mdc);
+                TenantContext.setCurrentTenantId(tenantId);
+                runnable.run();
+            } finally {
+                setMdc(previousMdc);
+                TenantContext.setCurrentTenantId(previousTenantId);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
+        }
+    }
+}
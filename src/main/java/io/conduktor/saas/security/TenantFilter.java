@@ -1,10 +1,14 @@
 package io.conduktor.saas.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.common.dto.ApiResponse;
+import io.conduktor.saas.core.exception.ServiceUnavailableException;
+import io.conduktor.saas.tenant.service.TenantDirectory;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
@@ -14,31 +18,70 @@ public class TenantFilter implements Filter {
     private static final String TENANT_HEADER = "X-Tenant-ID";
     private static final String TENANT_PARAM = "tenantId";
 
+    private final TenantDirectory tenantDirectory;
+    private final ObjectMapper objectMapper;
+
+    public TenantFilter(TenantDirectory tenantDirectory, ObjectMapper objectMapper) {
+        this.tenantDirectory = tenantDirectory;
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        
+
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
         try {
+            // An explicit header or parameter wins over the Host header
             String tenantId = extractTenantId(httpRequest);
-            
+            TenantDirectory.Entry tenant = null;
+
             if (StringUtils.hasText(tenantId)) {
-                TenantContext.setCurrentTenantId(tenantId);
+                try {
+                    tenant = tenantDirectory.resolve(tenantId).orElse(null);
+                } catch (ServiceUnavailableException e) {
+                    reject(httpResponse, HttpStatus.SERVICE_UNAVAILABLE, "Tenant lookup failed", e.getMessage());
+                    return;
+                }
+                if (tenant == null) {
+                    reject(httpResponse, HttpStatus.NOT_FOUND, "Tenant not found", "Unknown tenant: " + tenantId);
+                    return;
+                }
             } else {
-                tenantId = extractTenantIdFromAuthentication();
-                if (StringUtils.hasText(tenantId)) {
-                    TenantContext.setCurrentTenantId(tenantId);
+                String host = httpRequest.getServerName();
+                tenant = tenantDirectory.resolveHost(host);
+                if (tenant == null && tenantDirectory.isTenantHost(host)) {
+                    reject(httpResponse, HttpStatus.NOT_FOUND, "Tenant not found", "Unknown tenant host: " + host);
+                    return;
                 }
             }
 
+            // Requests without a header or tenant host get their tenant from the token, which
+            // JwtAuthenticationFilter checks the same way once authentication has run
+            if (tenant != null) {
+                // Reject suspended tenants before anything else runs for them
+                if (!tenant.isAccessible()) {
+                    reject(httpResponse, HttpStatus.FORBIDDEN, "Tenant not active",
+                            "Tenant " + tenant.tenantId() + " is " + tenant.status());
+                    return;
+                }
+                TenantContext.setCurrentTenantId(tenant.tenantId());
+            }
+
             chain.doFilter(request, response);
         } finally {
             TenantContext.clear();
         }
     }
 
+    private void reject(HttpServletResponse response, HttpStatus status, String message, String error) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message, error));
+    }
+
     private String extractTenantId(HttpServletRequest request) {
         String tenantId = request.getHeader(TENANT_HEADER);
         if (!StringUtils.hasText(tenantId)) {
@@ -46,13 +89,4 @@ public class TenantFilter implements Filter {
         }
         return tenantId;
     }
-
-    private String extractTenantIdFromAuthentication() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            return userPrincipal.getTenantId();
-        }
-        return null;
-    }
-}
\ No newline at end of file
+}
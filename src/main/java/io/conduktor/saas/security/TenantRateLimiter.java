@@ -0,0 +1,167 @@
+package io.conduktor.saas.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.conduktor.saas.tenant.entity.Tenant;
+import io.conduktor.saas.tenant.event.TenantChangedEvent;
+import io.conduktor.saas.tenant.repository.TenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces {@link Tenant#getApiRateLimit()} as requests per window with one {@link TokenBucket} per
+ * tenant. Requests that cannot be attributed to a tenant (anonymous endpoints such as login) fall
+ * back to a {@link SlidingWindowCounter} per client address.
+ * <p>
+ * Buckets are created from the tenant row on first use and replaced on {@link TenantChangedEvent}
+ * when the limit changes, so new limits apply immediately.
+ */
+@Service
+public class TenantRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRateLimiter.class);
+
+    private final TenantRepository tenantRepository;
+    private final boolean enabled;
+    private final long windowSeconds;
+    private final int defaultLimit;
+    private final int anonymousLimit;
+
+    private final Map<String, TokenBucket> tenantBuckets = new ConcurrentHashMap<>();
+    private final Cache<String, SlidingWindowCounter> anonymousCounters;
+
+    public TenantRateLimiter(TenantRepository tenantRepository,
+                             @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${app.rate-limit.window-seconds:60}") long windowSeconds,
+                             @Value("${app.rate-limit.default-limit:1000}") int defaultLimit,
+                             @Value("${app.rate-limit.anonymous-limit:100}") int anonymousLimit) {
+        this.tenantRepository = tenantRepository;
+        this.enabled = enabled;
+        this.windowSeconds = windowSeconds;
+        this.defaultLimit = defaultLimit;
+        this.anonymousLimit = anonymousLimit;
+        this.anonymousCounters = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(windowSeconds * 2))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLimits() {
+        try {
+            for (Tenant tenant : tenantRepository.findAll()) {
+                tenantBuckets.put(tenant.getTenantId(), newBucket(tenant.getApiRateLimit()));
+            }
+            logger.info("Loaded API rate limits for {} tenants", tenantBuckets.size());
+        } catch (Exception e) {
+            logger.warn("Could not preload tenant rate limits: {}", e.getMessage());
+        }
+    }
+
+    public Decision tryAcquireForTenant(String tenantId) {
+        TokenBucket bucket = tenantBuckets.get(tenantId);
+        if (bucket == null) {
+            // Loaded outside the map so the query never runs under a bin lock; a bucket put
+            // meanwhile by updateLimit or another request wins
+            TokenBucket loaded = loadBucket(tenantId);
+            TokenBucket existing = tenantBuckets.putIfAbsent(tenantId, loaded);
+            bucket = existing != null ? existing : loaded;
+        }
+
+        long now = System.nanoTime();
+        long result = bucket.tryAcquire(now);
+        int limit = bucket.getCapacity();
+        long window = bucket.getWindowSeconds();
+        if (result >= 0) {
+            return new Decision(true, limit, window, result, ceilSeconds(bucket.nanosUntilFull(now)), 0);
+        }
+        long retryAfter = Math.max(1, ceilSeconds(-result - 1));
+        return new Decision(false, limit, window, 0, ceilSeconds(bucket.nanosUntilFull(now)), retryAfter);
+    }
+
+    public Decision tryAcquireAnonymous(String clientAddress) {
+        SlidingWindowCounter counter = anonymousCounters.get(clientAddress,
+                key -> new SlidingWindowCounter(anonymousLimit, windowSeconds, TimeUnit.SECONDS));
+
+        long remaining = counter.tryAcquire(System.nanoTime());
+        if (remaining >= 0) {
+            return new Decision(true, counter.getLimit(), counter.getWindowSeconds(), remaining, windowSeconds, 0);
+        }
+        return new Decision(false, counter.getLimit(), counter.getWindowSeconds(), 0, windowSeconds, windowSeconds);
+    }
+
+    @EventListener
+    public void onTenantChanged(TenantChangedEvent event) {
+        if (event.deleted()) {
+            removeTenant(event.tenant().getTenantId());
+        } else {
+            updateLimit(event.tenant().getTenantId(), event.tenant().getApiRateLimit());
+        }
+    }
+
+    /**
+     * Replaces the bucket of {@code tenantId} so a changed limit takes effect on the next request.
+     */
+    public void updateLimit(String tenantId, Integer apiRateLimit) {
+        if (tenantId == null) {
+            return;
+        }
+        TokenBucket current = tenantBuckets.get(tenantId);
+        int limit = effectiveLimit(apiRateLimit);
+        if (current == null || current.getCapacity() != limit) {
+            tenantBuckets.put(tenantId, newBucket(limit));
+            logger.info("API rate limit for tenant {} set to {} per {}s", tenantId, limit, windowSeconds);
+        }
+    }
+
+    public void removeTenant(String tenantId) {
+        if (tenantId != null) {
+            tenantBuckets.remove(tenantId);
+        }
+    }
+
+    private TokenBucket loadBucket(String tenantId) {
+        Integer limit = null;
+        try {
+            limit = tenantRepository.findByTenantId(tenantId).stream()
+                    .findFirst()
+                    .map(Tenant::getApiRateLimit)
+                    .orElse(null);
+        } catch (Exception e) {
+            logger.warn("Could not load API rate limit for tenant {}: {}", tenantId, e.getMessage());
+        }
+        return newBucket(limit);
+    }
+
+    private TokenBucket newBucket(Integer apiRateLimit) {
+        return new TokenBucket(effectiveLimit(apiRateLimit), windowSeconds, TimeUnit.SECONDS);
+    }
+
+    private int effectiveLimit(Integer apiRateLimit) {
+        return apiRateLimit != null && apiRateLimit > 0 ? apiRateLimit : defaultLimit;
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
+    /**
+     * Outcome of a rate-limit check, carrying what the {@code RateLimit-*} response headers report.
+     */
+    public record Decision(boolean allowed, int limit, long windowSeconds, long remaining,
+                           long resetSeconds, long retryAfterSeconds) {
+    }
+}
@@ -0,0 +1,64 @@
+package io.conduktor.saas.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding {@code capacity} tokens that refill evenly over {@code window}.
+ * <p>
+ * The whole bucket state is a single "theoretical arrival time" (GCRA): the instant at which the
+ * bucket would be full again. Taking a token pushes it forward by one emission interval with a
+ * single CAS, and the request is refused when that would put it more than one window ahead of now.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final long windowNanos;
+    private final long emissionIntervalNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long window, TimeUnit unit) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.windowNanos = unit.toNanos(window);
+        this.emissionIntervalNanos = Math.max(1, windowNanos / capacity);
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getWindowSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(windowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return a non-negative number of tokens left after this one was taken, or the negated number
+     * of nanoseconds until a token becomes available, minus one, when the bucket is empty
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > windowNanos) {
+                return -(ahead - windowNanos) - 1;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return (windowNanos - ahead) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    /**
+     * @return nanoseconds until the bucket is completely refilled
+     */
+    public long nanosUntilFull(long nowNanos) {
+        return Math.max(0, fullAt.get() - nowNanos);
+    }
+}
@@ -0,0 +1,220 @@
+package io.conduktor.saas.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revocation store for access and refresh tokens, keyed by their {@code jti} claim, and for
+ * login sessions, keyed by the {@code sid} claim that a session's access and refresh tokens share.
+ * <p>
+ * The per-request check first consults a lock-free Bloom filter, so the common case of a token
+ * that was never revoked costs a handful of atomic loads. Bloom hits are confirmed against a
+ * concurrent map of revoked ids to their expiry. Entries are purged once the token itself has
+ * expired (the parser rejects it anyway), and the Bloom filter is rebuilt from what is left.
+ * <p>
+ * New revocations are snapshotted periodically to the {@code revoked_tokens} table; on startup and
+ * on every snapshot the store reloads rows written by other nodes. {@code revoked_at} is the
+ * database's time of the write, not the revoking node's time of the logout, so a row flushed late
+ * (e.g. after the database was down for a while) is still newer than every other node's watermark.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    /** Prefix of session ids in the store, which shares the {@code jti} key space with tokens. */
+    private static final String SESSION_PREFIX = "sid:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final long clockSkewToleranceSeconds;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Queue<RevokedToken> pendingSnapshot = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<ConcurrentBloomFilter> bloomFilter;
+    private final Lock snapshotLock = new ReentrantLock();
+
+    private volatile Instant reloadWatermark = Instant.EPOCH;
+
+    public TokenRevocationService(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.security.revocation.expected-revocations:100000}") int expectedRevocations,
+                                  @Value("${app.security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${app.security.revocation.clock-skew-tolerance-seconds:30}") long clockSkewToleranceSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clockSkewToleranceSeconds = clockSkewToleranceSeconds;
+        this.bloomFilter = new AtomicReference<>(new ConcurrentBloomFilter(expectedRevocations, falsePositiveRate));
+    }
+
+    /**
+     * @return true if the token itself or the login session it belongs to was revoked
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        return isRevoked(claims.tokenId())
+                || claims.sessionId() != null && isRevoked(SESSION_PREFIX + claims.sessionId());
+    }
+
+    private boolean isRevoked(String id) {
+        if (id == null) {
+            return false;
+        }
+        return bloomFilter.get().mightContain(id) && revoked.containsKey(id);
+    }
+
+    public void revoke(JwtClaims claims) {
+        if (claims.tokenId() == null || claims.expiration() == null) {
+            logger.debug("Token for user {} has no jti or exp and cannot be revoked", claims.userId());
+            return;
+        }
+        revoke(claims.tokenId(), claims, claims.expiration());
+    }
+
+    /**
+     * Revokes every token of the login session {@code claims} belongs to, including refresh tokens
+     * issued later by rotation, until {@code expiresAt}, which must be past the expiry of any
+     * token the session can still hold.
+     */
+    public void revokeSession(JwtClaims claims, Instant expiresAt) {
+        if (claims.sessionId() == null) {
+            logger.debug("Token for user {} has no sid; its session cannot be revoked", claims.userId());
+            return;
+        }
+        revoke(SESSION_PREFIX + claims.sessionId(), claims, expiresAt);
+    }
+
+    private void revoke(String id, JwtClaims claims, Instant expiresAt) {
+        if (revoked.putIfAbsent(id, expiresAt) == null) {
+            addToBloomFilter(id);
+            pendingSnapshot.add(new RevokedToken(id, claims.userId(), claims.tenantId(), expiresAt));
+        }
+    }
+
+    private void addToBloomFilter(String tokenId) {
+        // Re-add if a rebuild swapped the filter meanwhile, so the id is never lost from the fast path
+        ConcurrentBloomFilter filter;
+        do {
+            filter = bloomFilter.get();
+            filter.put(tokenId);
+        } while (filter != bloomFilter.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        reloadFromDatabase();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.snapshot-interval-ms:10000}")
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            flushPending();
+            jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at < ?", Timestamp.from(Instant.now()));
+            reloadFromDatabase();
+        } catch (Exception e) {
+            logger.warn("Could not snapshot revoked tokens: {}", e.getMessage());
+        } finally {
+            snapshotLock.unlock();
+        }
+        purgeExpired();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flushPending();
+        } catch (Exception e) {
+            logger.warn("Could not flush revoked tokens on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void flushPending() {
+        List<RevokedToken> batch = new ArrayList<>();
+        RevokedToken token;
+        while ((token = pendingSnapshot.poll()) != null) {
+            batch.add(token);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO revoked_tokens (jti, user_id, tenant_id, expires_at, revoked_at) " +
+                    "VALUES (?, ?, ?, ?, now()) ON CONFLICT (jti) DO NOTHING",
+                    batch,
+                    batch.size(),
+                    (ps, revokedToken) -> {
+                        ps.setString(1, revokedToken.tokenId());
+                        ps.setObject(2, revokedToken.userId());
+                        ps.setString(3, revokedToken.tenantId());
+                        ps.setTimestamp(4, Timestamp.from(revokedToken.expiresAt()));
+                    });
+            logger.debug("Snapshotted {} revoked tokens", batch.size());
+        } catch (RuntimeException e) {
+            // Keep them for the next attempt
+            pendingSnapshot.addAll(batch);
+            throw e;
+        }
+    }
+
+    private void reloadFromDatabase() {
+        try {
+            Instant since = reloadWatermark.minusSeconds(clockSkewToleranceSeconds);
+            Instant[] newWatermark = {reloadWatermark};
+            jdbcTemplate.query(
+                    "SELECT jti, expires_at, revoked_at FROM revoked_tokens WHERE revoked_at > ? AND expires_at > ?",
+                    rs -> {
+                        String tokenId = rs.getString("jti");
+                        Instant revokedAt = rs.getTimestamp("revoked_at").toInstant();
+                        if (revoked.putIfAbsent(tokenId, rs.getTimestamp("expires_at").toInstant()) == null) {
+                            addToBloomFilter(tokenId);
+                        }
+                        if (revokedAt.isAfter(newWatermark[0])) {
+                            newWatermark[0] = revokedAt;
+                        }
+                    },
+                    Timestamp.from(since.isBefore(Instant.EPOCH) ? Instant.EPOCH : since),
+                    Timestamp.from(Instant.now()));
+            reloadWatermark = newWatermark[0];
+        } catch (Exception e) {
+            logger.warn("Could not reload revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    private void purgeExpired() {
+        Instant now = Instant.now();
+        if (!revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+            return;
+        }
+
+        ConcurrentBloomFilter rebuilt = new ConcurrentBloomFilter(
+                Math.max(expectedRevocations, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        bloomFilter.set(rebuilt);
+        // Second pass catches ids revoked while the first pass was running but before the swap
+        revoked.keySet().forEach(rebuilt::put);
+    }
+
+    private record RevokedToken(String tokenId, Long userId, String tenantId, Instant expiresAt) {
+    }
+}
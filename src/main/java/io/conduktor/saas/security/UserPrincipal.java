@@ -1,42 +1,107 @@
 package io.conduktor.saas.security;
 
+import io.conduktor.saas.user.entity.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Authenticated user. Roles are held as a bitmask over {@link User.Role} ordinals, so role checks
+ * are a map lookup and a bit test, and the granted-authority list for every possible role
+ * combination is built once per JVM and shared.
+ */
 public class UserPrincipal implements UserDetails {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final User.Role[] ROLES = User.Role.values();
+
+    /** Role names, with and without the {@code ROLE_} prefix, to role. */
+    private static final Map<String, User.Role> ROLES_BY_NAME = new HashMap<>();
+
+    /** Immutable authority list for each role bitmask. */
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = new ArrayList<>();
+
+    static {
+        for (User.Role role : ROLES) {
+            ROLES_BY_NAME.put(role.name(), role);
+            ROLES_BY_NAME.put(ROLE_PREFIX + role.name(), role);
+        }
+        for (int mask = 0; mask < 1 << ROLES.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (User.Role role : ROLES) {
+                if ((mask & bit(role)) != 0) {
+                    authorities.add(new SimpleGrantedAuthority(ROLE_PREFIX + role.name()));
+                }
+            }
+            AUTHORITIES_BY_MASK.add(Collections.unmodifiableList(authorities));
+        }
+    }
+
     private final Long id;
     private final String username;
     private final String email;
     private final String password;
     private final String tenantId;
-    private final Collection<? extends GrantedAuthority> authorities;
+    private final int roleMask;
     private final boolean enabled;
     private final boolean accountNonExpired;
     private final boolean credentialsNonExpired;
     private final boolean accountNonLocked;
 
+    public UserPrincipal(Long id, String username, String email, String password, String tenantId,
+                        Set<User.Role> roles, boolean enabled) {
+        this(id, username, email, password, tenantId, maskOf(roles), enabled);
+    }
+
+    /**
+     * Role names that do not match a {@link User.Role} (e.g. from a token issued by an older
+     * version) are ignored.
+     */
     public UserPrincipal(Long id, String username, String email, String password, String tenantId,
                         List<String> roles, boolean enabled) {
+        this(id, username, email, password, tenantId, maskOfNames(roles), enabled);
+    }
+
+    private UserPrincipal(Long id, String username, String email, String password, String tenantId,
+                          int roleMask, boolean enabled) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.tenantId = tenantId;
-        this.authorities = roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
+        this.roleMask = roleMask;
         this.enabled = enabled;
         this.accountNonExpired = true;
         this.credentialsNonExpired = true;
         this.accountNonLocked = true;
     }
 
+    /**
+     * Builds a principal from verified token claims alone. The password is not available and
+     * the account is considered enabled: disabling or locking a user increments its security
+     * stamp, which invalidates the token before it gets here.
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        return new UserPrincipal(
+                claims.userId(),
+                claims.username(),
+                claims.email(),
+                null,
+                claims.tenantId(),
+                claims.roles(),
+                true
+        );
+    }
+
     public Long getId() {
         return id;
     }
@@ -61,7 +126,17 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return authorities;
+        return AUTHORITIES_BY_MASK.get(roleMask);
+    }
+
+    public Set<User.Role> getRoles() {
+        EnumSet<User.Role> roles = EnumSet.noneOf(User.Role.class);
+        for (User.Role role : ROLES) {
+            if (hasRole(role)) {
+                roles.add(role);
+            }
+        }
+        return roles;
     }
 
     @Override
@@ -84,20 +159,59 @@ public class UserPrincipal implements UserDetails {
         return enabled;
     }
 
+    public boolean hasRole(User.Role role) {
+        return (roleMask & bit(role)) != 0;
+    }
+
+    /**
+     * @param role a role name, with or without the {@code ROLE_} prefix
+     */
     public boolean hasRole(String role) {
-        return authorities.stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+        User.Role resolved = ROLES_BY_NAME.get(role);
+        return resolved != null && hasRole(resolved);
+    }
+
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean isAdmin() {
-        return hasRole("ADMIN");
+        return hasRole(User.Role.ADMIN);
     }
 
     public boolean isTenantAdmin() {
-        return hasRole("TENANT_ADMIN");
+        return hasRole(User.Role.TENANT_ADMIN);
     }
 
     public boolean isUser() {
-        return hasRole("USER");
+        return hasRole(User.Role.USER);
+    }
+
+    private static int bit(User.Role role) {
+        return 1 << role.ordinal();
+    }
+
+    private static int maskOf(Set<User.Role> roles) {
+        int mask = 0;
+        for (User.Role role : roles) {
+            mask |= bit(role);
+        }
+        return mask;
+    }
+
+    private static int maskOfNames(List<String> roles) {
+        int mask = 0;
+        for (String name : roles) {
+            User.Role role = ROLES_BY_NAME.get(name);
+            if (role != null) {
+                mask |= bit(role);
+            }
+        }
+        return mask;
     }
 }
\ No newline at end of file
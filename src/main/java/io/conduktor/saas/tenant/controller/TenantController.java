@@ -2,6 +2,9 @@ package io.conduktor.saas.tenant.controller;
 
 import io.conduktor.saas.common.dto.ApiResponse;
 import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.core.export.ExportJob;
+import io.conduktor.saas.core.export.ExportJobService;
+import io.conduktor.saas.core.export.StreamingExportLimiter;
 import io.conduktor.saas.common.dto.SearchRequest;
 import io.conduktor.saas.tenant.dto.*;
 import io.conduktor.saas.tenant.entity.Tenant;
@@ -10,8 +13,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -20,10 +23,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.StringWriter;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/tenants")
@@ -31,10 +40,17 @@ import java.util.stream.Collectors;
 @Tag(name = "Tenants", description = "Tenant management API")
 public class TenantController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final TenantService tenantService;
+    private final ExportJobService exportJobService;
+    private final StreamingExportLimiter exportLimiter;
 
-    public TenantController(TenantService tenantService) {
+    public TenantController(TenantService tenantService, ExportJobService exportJobService,
+                            StreamingExportLimiter exportLimiter) {
         this.tenantService = tenantService;
+        this.exportJobService = exportJobService;
+        this.exportLimiter = exportLimiter;
     }
 
     @GetMapping
@@ -52,7 +68,7 @@ public class TenantController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search tenants", description = "Search tenants by query string")
+    @Operation(summary = "Search tenants", description = "Search tenants by query string, most similar first")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<TenantDTO>>> searchTenants(
             @Valid @ModelAttribute SearchRequest searchRequest) {
@@ -61,21 +77,8 @@ public class TenantController {
             return getAllTenants(searchRequest.toPageable());
         }
 
-        List<Tenant> tenants = tenantService.searchTenants(searchRequest.getQuery());
-        List<TenantDTO> tenantDTOs = tenants.stream()
-            .map(TenantDTO::new)
-            .collect(Collectors.toList());
-        
-        // Create a mock page response for search results
-        PageResponse<TenantDTO> response = new PageResponse<>();
-        response.setContent(tenantDTOs);
-        response.setTotalElements(tenantDTOs.size());
-        response.setPageSize(searchRequest.getSize());
-        response.setPageNumber(searchRequest.getPage());
-        response.setTotalPages((int) Math.ceil((double) tenantDTOs.size() / searchRequest.getSize()));
-        response.setFirst(searchRequest.getPage() == 0);
-        response.setLast(searchRequest.getPage() >= response.getTotalPages() - 1);
-        response.setEmpty(tenantDTOs.isEmpty());
+        Page<Tenant> tenants = tenantService.searchTenants(searchRequest.getQuery(), searchRequest.toPageable());
+        PageResponse<TenantDTO> response = new PageResponse<>(tenants.map(TenantDTO::new));
 
         return ResponseEntity.ok(ApiResponse.success("Tenants found", response));
     }
@@ -119,6 +122,11 @@ public class TenantController {
                 .body(ApiResponse.error("Tenant name already exists"));
         }
 
+        if (request.getCustomDomain() != null && tenantService.existsByCustomDomain(request.getCustomDomain())) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Custom domain already in use"));
+        }
+
         Tenant tenant = tenantService.create(request.toEntity());
         TenantDTO tenantDTO = new TenantDTO(tenant);
         
@@ -142,6 +150,15 @@ public class TenantController {
                 .body(ApiResponse.error("Tenant name already exists"));
         }
 
+        // Check for custom domain conflicts
+        if (request.getCustomDomain() != null &&
+            !request.getCustomDomain().isEmpty() &&
+            !request.getCustomDomain().equalsIgnoreCase(existingTenant.getCustomDomain()) &&
+            tenantService.existsByCustomDomain(request.getCustomDomain())) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Custom domain already in use"));
+        }
+
         request.updateEntity(existingTenant);
         Tenant updatedTenant = tenantService.update(id, existingTenant);
         TenantDTO tenantDTO = new TenantDTO(updatedTenant);
@@ -328,48 +345,53 @@ public class TenantController {
     }
 
     @GetMapping("/export")
-    @Operation(summary = "Export tenants to CSV", description = "Export all tenants to CSV format")
+    @Operation(summary = "Export tenants to CSV", description = "Streams all tenants as CSV; use an export job for very large exports")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> exportTenants() {
-        try {
-            List<Tenant> tenants = tenantService.findAll();
-            
-            StringWriter stringWriter = new StringWriter();
-            CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                .setHeader("ID", "Name", "Subdomain", "Admin Email", "Admin Name", 
-                         "Status", "Trial End Date", "Max Users", "Storage Limit GB", 
-                         "API Rate Limit", "Created At")
-                .build();
-            
-            try (CSVPrinter csvPrinter = new CSVPrinter(stringWriter, csvFormat)) {
-                for (Tenant tenant : tenants) {
-                    csvPrinter.printRecord(
-                        tenant.getId(),
-                        tenant.getName(),
-                        tenant.getSubdomain(),
-                        tenant.getAdminEmail(),
-                        (tenant.getAdminFirstName() != null ? tenant.getAdminFirstName() + " " : "") +
-                        (tenant.getAdminLastName() != null ? tenant.getAdminLastName() : ""),
-                        tenant.getStatus(),
-                        tenant.getTrialEndDate(),
-                        tenant.getMaxUsers(),
-                        tenant.getStorageLimitGb(),
-                        tenant.getApiRateLimit(),
-                        tenant.getCreatedAt()
-                    );
+    public ResponseEntity<StreamingResponseBody> exportTenants(
+            @Parameter(description = "Gzip the CSV") @RequestParam(defaultValue = "false") boolean gzip) {
+
+        StreamingExportLimiter.Permit permit = exportLimiter.acquire();
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+                    tenantService.exportTenants(writer);
                 }
             }
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "tenants.csv");
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(stringWriter.toString());
-                
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tenants" + (gzip ? ".csv.gz" : ".csv"))
+            .body(body);
+    }
+
+    @PostMapping("/export/jobs")
+    @Operation(summary = "Start a tenant export job", description = "Writes all tenants to a gzipped CSV file in the background")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJob>> startExportJob() {
+        ExportJob job = exportJobService.submit("tenants", tenantService::exportTenants);
+        return ResponseEntity.accepted().body(ApiResponse.success("Export started", job));
+    }
+
+    @GetMapping("/export/jobs/{jobId}")
+    @Operation(summary = "Get a tenant export job", description = "Status of an export job")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJob>> getExportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(exportJobService.find("tenants", jobId)));
+    }
+
+    @GetMapping("/export/jobs/{jobId}/download")
+    @Operation(summary = "Download a tenant export", description = "Gzipped CSV of a completed export job; supports Range requests to resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String jobId) {
+        ExportJob job = exportJobService.find("tenants", jobId);
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalStateException("Export " + jobId + " is " + job.getStatus());
         }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFilename())
+            .body(new FileSystemResource(job.getFile()));
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package io.conduktor.saas.tenant.dto;
 
 import io.conduktor.saas.tenant.entity.Tenant;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -40,6 +41,14 @@ public class CreateTenantRequest {
     private Integer storageLimitGb = 100;
     private Integer apiRateLimit = 1000;
 
+    @Size(max = 253, message = "Custom domain must not exceed 253 characters")
+    @Pattern(regexp = "^([a-z0-9]([a-z0-9-]*[a-z0-9])?\\.)+[a-z]{2,}$",
+             message = "Custom domain must be a lowercase host name such as app.acme.com")
+    private String customDomain;
+
+    @Min(value = 1, message = "Audit retention must be at least one day")
+    private Integer auditRetentionDays;
+
     public CreateTenantRequest() {}
 
     // Getters and Setters
@@ -94,6 +103,12 @@ public class CreateTenantRequest {
     public Integer getApiRateLimit() { return apiRateLimit; }
     public void setApiRateLimit(Integer apiRateLimit) { this.apiRateLimit = apiRateLimit; }
 
+    public String getCustomDomain() { return customDomain; }
+    public void setCustomDomain(String customDomain) { this.customDomain = customDomain; }
+
+    public Integer getAuditRetentionDays() { return auditRetentionDays; }
+    public void setAuditRetentionDays(Integer auditRetentionDays) { this.auditRetentionDays = auditRetentionDays; }
+
     public Tenant toEntity() {
         Tenant tenant = new Tenant();
         tenant.setName(this.name);
@@ -113,6 +128,8 @@ public class CreateTenantRequest {
         tenant.setMaxUsers(this.maxUsers);
         tenant.setStorageLimitGb(this.storageLimitGb);
         tenant.setApiRateLimit(this.apiRateLimit);
+        tenant.setCustomDomain(this.customDomain);
+        tenant.setAuditRetentionDays(this.auditRetentionDays);
         return tenant;
     }
 }
\ No newline at end of file
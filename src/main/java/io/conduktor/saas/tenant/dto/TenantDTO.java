@@ -24,6 +24,8 @@ public class TenantDTO {
     private Integer maxUsers;
     private Integer storageLimitGb;
     private Integer apiRateLimit;
+    private String customDomain;
+    private Integer auditRetentionDays;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String createdBy;
@@ -50,6 +52,8 @@ public class TenantDTO {
         this.maxUsers = tenant.getMaxUsers();
         this.storageLimitGb = tenant.getStorageLimitGb();
         this.apiRateLimit = tenant.getApiRateLimit();
+        this.customDomain = tenant.getCustomDomain();
+        this.auditRetentionDays = tenant.getAuditRetentionDays();
         this.createdAt = tenant.getCreatedAt();
         this.updatedAt = tenant.getUpdatedAt();
         this.createdBy = tenant.getCreatedBy();
@@ -111,6 +115,12 @@ public class TenantDTO {
     public Integer getApiRateLimit() { return apiRateLimit; }
     public void setApiRateLimit(Integer apiRateLimit) { this.apiRateLimit = apiRateLimit; }
 
+    public String getCustomDomain() { return customDomain; }
+    public void setCustomDomain(String customDomain) { this.customDomain = customDomain; }
+
+    public Integer getAuditRetentionDays() { return auditRetentionDays; }
+    public void setAuditRetentionDays(Integer auditRetentionDays) { this.auditRetentionDays = auditRetentionDays; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -2,6 +2,8 @@ package io.conduktor.saas.tenant.dto;
 
 import io.conduktor.saas.tenant.entity.Tenant;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
@@ -30,6 +32,14 @@ public class UpdateTenantRequest {
     private Integer storageLimitGb;
     private Integer apiRateLimit;
 
+    @Size(max = 253, message = "Custom domain must not exceed 253 characters")
+    @Pattern(regexp = "^$|^([a-z0-9]([a-z0-9-]*[a-z0-9])?\\.)+[a-z]{2,}$",
+             message = "Custom domain must be a lowercase host name such as app.acme.com, or empty to remove it")
+    private String customDomain;
+
+    @Min(value = 1, message = "Audit retention must be at least one day")
+    private Integer auditRetentionDays;
+
     public UpdateTenantRequest() {}
 
     // Getters and Setters
@@ -81,6 +91,12 @@ public class UpdateTenantRequest {
     public Integer getApiRateLimit() { return apiRateLimit; }
     public void setApiRateLimit(Integer apiRateLimit) { this.apiRateLimit = apiRateLimit; }
 
+    public String getCustomDomain() { return customDomain; }
+    public void setCustomDomain(String customDomain) { this.customDomain = customDomain; }
+
+    public Integer getAuditRetentionDays() { return auditRetentionDays; }
+    public void setAuditRetentionDays(Integer auditRetentionDays) { this.auditRetentionDays = auditRetentionDays; }
+
     public void updateEntity(Tenant tenant) {
         if (this.name != null) tenant.setName(this.name);
         if (this.description != null) tenant.setDescription(this.description);
@@ -98,5 +114,7 @@ public class UpdateTenantRequest {
         if (this.maxUsers != null) tenant.setMaxUsers(this.maxUsers);
         if (this.storageLimitGb != null) tenant.setStorageLimitGb(this.storageLimitGb);
         if (this.apiRateLimit != null) tenant.setApiRateLimit(this.apiRateLimit);
+        if (this.customDomain != null) tenant.setCustomDomain(this.customDomain.isEmpty() ? null : this.customDomain);
+        if (this.auditRetentionDays != null) tenant.setAuditRetentionDays(this.auditRetentionDays);
     }
 }
\ No newline at end of file
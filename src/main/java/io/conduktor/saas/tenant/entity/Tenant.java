@@ -73,6 +73,14 @@ public class Tenant extends BaseEntity {
     @Column(name = "api_rate_limit")
     private Integer apiRateLimit = 1000;
 
+    @Size(max = 253)
+    @Column(name = "custom_domain")
+    private String customDomain;
+
+    /** Days of Kafka audit history to keep; null uses the platform default. */
+    @Column(name = "audit_retention_days")
+    private Integer auditRetentionDays;
+
     public Tenant() {
         super();
     }
@@ -223,4 +231,20 @@ public class Tenant extends BaseEntity {
     public void setApiRateLimit(Integer apiRateLimit) {
         this.apiRateLimit = apiRateLimit;
     }
+
+    public String getCustomDomain() {
+        return customDomain;
+    }
+
+    public void setCustomDomain(String customDomain) {
+        this.customDomain = customDomain;
+    }
+
+    public Integer getAuditRetentionDays() {
+        return auditRetentionDays;
+    }
+
+    public void setAuditRetentionDays(Integer auditRetentionDays) {
+        this.auditRetentionDays = auditRetentionDays;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package io.conduktor.saas.tenant.event;
+
+import io.conduktor.saas.tenant.entity.Tenant;
+
+/**
+ * Published by {@code TenantService} after a tenant is saved or deleted, so in-memory views of
+ * tenants (directory, rate limits) can refresh the single affected entry.
+ */
+public record TenantChangedEvent(Tenant tenant, boolean deleted) {
+
+    public static TenantChangedEvent saved(Tenant tenant) {
+        return new TenantChangedEvent(tenant, false);
+    }
+
+    public static TenantChangedEvent deleted(Tenant tenant) {
+        return new TenantChangedEvent(tenant, true);
+    }
+}
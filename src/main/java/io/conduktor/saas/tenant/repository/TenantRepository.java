@@ -37,11 +37,29 @@ public interface TenantRepository extends BaseRepository<Tenant, Long> {
     boolean existsByName(String name);
     
     boolean existsBySubdomain(String subdomain);
+
+    boolean existsByCustomDomainIgnoreCase(String customDomain);
     
     List<Tenant> findByStatusAndTrialEndDateBefore(Tenant.TenantStatus status, LocalDateTime date);
     
-    @Query("SELECT t FROM Tenant t WHERE t.name LIKE %:query% OR t.subdomain LIKE %:query% OR t.adminEmail LIKE %:query%")
-    List<Tenant> searchByQuery(@Param("query") String query);
+    /**
+     * Tenants whose name, subdomain or admin email contains {@code query}, ignoring case, most
+     * similar first. Served by the trigram indexes of V3_8_0; {@code pageable} must be unsorted.
+     */
+    @Query(value = """
+        SELECT t.* FROM tenants t
+        WHERE t.name ILIKE '%' || :query || '%' OR t.subdomain ILIKE '%' || :query || '%'
+              OR t.admin_email ILIKE '%' || :query || '%'
+        ORDER BY greatest(similarity(t.name, :query), similarity(t.subdomain, :query),
+                          similarity(t.admin_email, :query)) DESC, t.id
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM tenants t
+        WHERE t.name ILIKE '%' || :query || '%' OR t.subdomain ILIKE '%' || :query || '%'
+              OR t.admin_email ILIKE '%' || :query || '%'
+        """,
+        nativeQuery = true)
+    Page<Tenant> searchByQuery(@Param("query") String query, Pageable pageable);
     
     List<Tenant> findByCreatedAtAfter(LocalDateTime since);
 }
\ No newline at end of file
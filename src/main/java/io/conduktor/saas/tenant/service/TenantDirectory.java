@@ -0,0 +1,265 @@
+package io.conduktor.saas.tenant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.conduktor.saas.core.exception.ServiceUnavailableException;
+import io.conduktor.saas.tenant.entity.Tenant;
+import io.conduktor.saas.tenant.event.TenantChangedEvent;
+import io.conduktor.saas.tenant.repository.TenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory directory of all tenants, keyed by tenant id and by subdomain, used to resolve and
+ * validate the tenant of every request without touching the database. A second index maps host
+ * names ({@code <subdomain>.<base-domain>} and each tenant's custom domain) to tenants for
+ * Host-header routing.
+ * <p>
+ * The directory is an immutable snapshot replaced copy-on-write: fully on startup and on a
+ * periodic refresh (to pick up changes made on other nodes), and entry by entry on
+ * {@link TenantChangedEvent}. Keys that are not found are remembered for a short while so a flood
+ * of bogus tenant headers cannot turn into a flood of queries.
+ */
+@Service
+public class TenantDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantDirectory.class);
+
+    private static final String ACTIVE_PLANS_QUERY =
+            "SELECT s.tenant_id, p.name FROM subscriptions s JOIN subscription_plans p ON p.id = s.plan_id " +
+            "WHERE s.status = 'ACTIVE'";
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Boolean> unknownKeys;
+
+    private final String baseDomainSuffix;
+    private final Lock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+
+    public TenantDirectory(TenantRepository tenantRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${app.tenant-directory.negative-cache-seconds:30}") long negativeCacheSeconds,
+                           @Value("${app.tenant-directory.base-domain:}") String baseDomain) {
+        this.tenantRepository = tenantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.baseDomainSuffix = baseDomain.isBlank() ? null : "." + baseDomain.toLowerCase(Locale.ROOT);
+        this.unknownKeys = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(negativeCacheSeconds))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * Resolves a tenant id or subdomain to its directory entry.
+     *
+     * @throws ServiceUnavailableException if the key is not loaded and the database cannot be
+     * reached to look it up
+     */
+    public Optional<Entry> resolve(String key) {
+        Entry entry = snapshot.byKey().get(key);
+        if (entry == null) {
+            entry = snapshot.byKey().get(key.toLowerCase(Locale.ROOT));
+        }
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        if (unknownKeys.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        return loadMissing(key);
+    }
+
+    /**
+     * Looks up a tenant id in the current snapshot only, never falling back to the database. For
+     * callers on the connection path, where a lookup query would recurse.
+     *
+     * @return the tenant, or {@code null} if it is not loaded
+     */
+    public Entry peek(String tenantId) {
+        return snapshot.byKey().get(tenantId);
+    }
+
+    /**
+     * Resolves a request host name to its tenant with a single lookup in the current host index.
+     *
+     * @return the tenant, or {@code null} if the host does not belong to any tenant
+     */
+    public Entry resolveHost(String host) {
+        // toLowerCase returns the same instance when the host is already lower case
+        return snapshot.byHost().get(host.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return true if {@code host} is a subdomain of the configured base domain, i.e. it should
+     * have resolved to a tenant
+     */
+    public boolean isTenantHost(String host) {
+        return baseDomainSuffix != null && host.length() > baseDomainSuffix.length()
+                && host.regionMatches(true, host.length() - baseDomainSuffix.length(),
+                        baseDomainSuffix, 0, baseDomainSuffix.length());
+    }
+
+    public Optional<Entry> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tenant-directory.refresh-interval-ms:60000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            Map<String, String> plans = loadActivePlans();
+            Map<Long, Entry> byId = new HashMap<>();
+            for (Tenant tenant : tenantRepository.findAll()) {
+                byId.put(tenant.getId(), Entry.from(tenant, plans.get(tenant.getTenantId())));
+            }
+            snapshot = Snapshot.of(byId, baseDomainSuffix);
+            unknownKeys.invalidateAll();
+            if (!loaded) {
+                loaded = true;
+                logger.info("Loaded {} tenants into the tenant directory", byId.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not refresh tenant directory: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onTenantChanged(TenantChangedEvent event) {
+        Tenant tenant = event.tenant();
+        if (tenant.getId() == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            Map<Long, Entry> byId = new HashMap<>(snapshot.byId());
+            if (event.deleted()) {
+                byId.remove(tenant.getId());
+            } else {
+                Entry previous = byId.get(tenant.getId());
+                byId.put(tenant.getId(), Entry.from(tenant, previous != null ? previous.plan() : null));
+                unknownKeys.invalidate(tenant.getTenantId());
+                unknownKeys.invalidate(tenant.getSubdomain());
+            }
+            snapshot = Snapshot.of(byId, baseDomainSuffix);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<Entry> loadMissing(String key) {
+        // A lock rather than synchronized, so a virtual thread waiting on the database does not pin its carrier
+        lock.lock();
+        try {
+            return loadMissingLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<Entry> loadMissingLocked(String key) {
+        Entry entry = snapshot.byKey().get(key);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        try {
+            Optional<Tenant> tenant = tenantRepository.findByTenantId(key).stream().findFirst()
+                    .or(() -> tenantRepository.findBySubdomain(key.toLowerCase(Locale.ROOT)));
+            if (tenant.isEmpty()) {
+                unknownKeys.put(key, Boolean.TRUE);
+                return Optional.empty();
+            }
+            Map<Long, Entry> byId = new HashMap<>(snapshot.byId());
+            entry = Entry.from(tenant.get(), null);
+            byId.put(entry.id(), entry);
+            snapshot = Snapshot.of(byId, baseDomainSuffix);
+            return Optional.of(entry);
+        } catch (Exception e) {
+            // Not cached as unknown, so the tenant is retried once the database is reachable again
+            logger.warn("Could not look up tenant {}: {}", key, e.getMessage());
+            throw new ServiceUnavailableException("Tenant directory is unavailable", e);
+        }
+    }
+
+    private Map<String, String> loadActivePlans() {
+        Map<String, String> plans = new HashMap<>();
+        try {
+            jdbcTemplate.query(ACTIVE_PLANS_QUERY, rs -> {
+                plans.put(rs.getString(1), rs.getString(2));
+            });
+        } catch (Exception e) {
+            logger.debug("Could not load tenant plans: {}", e.getMessage());
+        }
+        return plans;
+    }
+
+    /**
+     * What the request pipeline needs to know about a tenant.
+     */
+    public record Entry(Long id, String tenantId, String subdomain, String customDomain, String name,
+                        Tenant.TenantStatus status, Integer maxUsers, Integer storageLimitGb, Integer apiRateLimit,
+                        String plan) {
+
+        static Entry from(Tenant tenant, String plan) {
+            return new Entry(tenant.getId(), tenant.getTenantId(), tenant.getSubdomain(), tenant.getCustomDomain(),
+                    tenant.getName(), tenant.getStatus(), tenant.getMaxUsers(), tenant.getStorageLimitGb(),
+                    tenant.getApiRateLimit(), plan);
+        }
+
+        /**
+         * @return true if requests for this tenant may be served
+         */
+        public boolean isAccessible() {
+            return status == Tenant.TenantStatus.ACTIVE || status == Tenant.TenantStatus.TRIAL;
+        }
+    }
+
+    private record Snapshot(Map<Long, Entry> byId, Map<String, Entry> byKey, Map<String, Entry> byHost) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of());
+
+        static Snapshot of(Map<Long, Entry> byId, String baseDomainSuffix) {
+            Map<String, Entry> byKey = new HashMap<>();
+            Map<String, Entry> byHost = new HashMap<>();
+            for (Entry entry : byId.values()) {
+                if (entry.subdomain() != null) {
+                    String subdomain = entry.subdomain().toLowerCase(Locale.ROOT);
+                    byKey.put(subdomain, entry);
+                    if (baseDomainSuffix != null) {
+                        byHost.put(subdomain + baseDomainSuffix, entry);
+                    }
+                }
+                if (entry.tenantId() != null) {
+                    byKey.put(entry.tenantId(), entry);
+                }
+                if (entry.customDomain() != null) {
+                    byHost.put(entry.customDomain().toLowerCase(Locale.ROOT), entry);
+                }
+            }
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byKey), Map.copyOf(byHost));
+        }
+    }
+}
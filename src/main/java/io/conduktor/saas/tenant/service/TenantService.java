@@ -1,14 +1,20 @@
 package io.conduktor.saas.tenant.service;
 
+import io.conduktor.saas.core.export.CsvQueryExporter;
 import io.conduktor.saas.core.service.BaseService;
 import io.conduktor.saas.tenant.entity.Tenant;
+import io.conduktor.saas.tenant.event.TenantChangedEvent;
 import io.conduktor.saas.tenant.repository.TenantRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +24,17 @@ import java.util.Optional;
 public class TenantService {
 
     private final TenantRepository tenantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CsvQueryExporter csvQueryExporter;
 
-    public TenantService(TenantRepository tenantRepository) {
+    private static final String[] EXPORT_HEADER = {"ID", "Name", "Subdomain", "Admin Email", "Admin Name",
+            "Status", "Trial End Date", "Max Users", "Storage Limit GB", "API Rate Limit", "Created At"};
+
+    public TenantService(TenantRepository tenantRepository, ApplicationEventPublisher eventPublisher,
+                         CsvQueryExporter csvQueryExporter) {
         this.tenantRepository = tenantRepository;
+        this.eventPublisher = eventPublisher;
+        this.csvQueryExporter = csvQueryExporter;
     }
 
     // @Transactional(readOnly = true)
@@ -37,6 +51,33 @@ public class TenantService {
     public List<Tenant> findAll() {
         return tenantRepository.findAll();
     }
+
+    /**
+     * Writes every tenant to {@code writer} as CSV, streaming the exported columns from a cursor.
+     *
+     * @return the number of tenants written
+     */
+    public long exportTenants(Writer writer) throws IOException {
+        return csvQueryExporter.export(writer, EXPORT_HEADER, """
+                SELECT id, name, subdomain, admin_email,
+                       concat_ws(' ', admin_first_name, admin_last_name) AS admin_name,
+                       status, trial_end_date, max_users, storage_limit_gb, api_rate_limit, created_at
+                FROM tenants
+                ORDER BY id
+                """, rs -> new Object[]{
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("subdomain"),
+                rs.getString("admin_email"),
+                rs.getString("admin_name"),
+                rs.getString("status"),
+                rs.getObject("trial_end_date", LocalDateTime.class),
+                rs.getObject("max_users"),
+                rs.getObject("storage_limit_gb"),
+                rs.getObject("api_rate_limit"),
+                rs.getObject("created_at", LocalDateTime.class)
+        });
+    }
     
     // @Transactional(readOnly = true)
     public Tenant findById(Long id) {
@@ -46,7 +87,9 @@ public class TenantService {
     
     // @Transactional
     public void deleteById(Long id) {
+        Optional<Tenant> tenant = tenantRepository.findById(id);
         tenantRepository.deleteById(id);
+        tenant.ifPresent(deleted -> eventPublisher.publishEvent(TenantChangedEvent.deleted(deleted)));
     }
 
     // @Transactional(readOnly = true)
@@ -64,6 +107,11 @@ public class TenantService {
         return tenantRepository.existsBySubdomain(subdomain);
     }
 
+    // @Transactional(readOnly = true)
+    public boolean existsByCustomDomain(String customDomain) {
+        return tenantRepository.existsByCustomDomainIgnoreCase(customDomain);
+    }
+
     // @Transactional(readOnly = true)
     public boolean existsByName(String name) {
         return tenantRepository.existsByName(name);
@@ -110,7 +158,7 @@ public class TenantService {
             tenant.setTrialEndDate(LocalDateTime.now().plusDays(30));
         }
         
-        return tenantRepository.save(tenant);
+        return save(tenant);
     }
 
     public Tenant createWithTrial(Tenant tenant, int trialDays) {
@@ -138,8 +186,10 @@ public class TenantService {
         existingTenant.setMaxUsers(updatedTenant.getMaxUsers());
         existingTenant.setStorageLimitGb(updatedTenant.getStorageLimitGb());
         existingTenant.setApiRateLimit(updatedTenant.getApiRateLimit());
+        existingTenant.setCustomDomain(updatedTenant.getCustomDomain());
+        existingTenant.setAuditRetentionDays(updatedTenant.getAuditRetentionDays());
 
-        return tenantRepository.save(existingTenant);
+        return save(existingTenant);
     }
 
     public Tenant updateStatus(Long id, Tenant.TenantStatus status) {
@@ -151,7 +201,7 @@ public class TenantService {
             tenant.setTrialEndDate(null);
         }
         
-        return tenantRepository.save(tenant);
+        return save(tenant);
     }
 
     public Tenant extendTrial(Long id, int additionalDays) {
@@ -166,7 +216,7 @@ public class TenantService {
             : LocalDateTime.now();
         
         tenant.setTrialEndDate(currentEndDate.plusDays(additionalDays));
-        return tenantRepository.save(tenant);
+        return save(tenant);
     }
 
     public Tenant updateLimits(Long id, Integer maxUsers, Integer storageLimitGb, Integer apiRateLimit) {
@@ -182,13 +232,13 @@ public class TenantService {
             tenant.setApiRateLimit(apiRateLimit);
         }
         
-        return tenantRepository.save(tenant);
+        return save(tenant);
     }
 
     public Tenant suspend(Long id, String reason) {
         Tenant tenant = findById(id);
         tenant.setStatus(Tenant.TenantStatus.SUSPENDED);
-        return tenantRepository.save(tenant);
+        return save(tenant);
     }
 
     public Tenant reactivate(Long id) {
@@ -200,11 +250,16 @@ public class TenantService {
             throw new IllegalStateException("Cannot reactivate a canceled tenant");
         }
         
-        return tenantRepository.save(tenant);
+        return save(tenant);
     }
 
-    public List<Tenant> searchTenants(String query) {
-        return tenantRepository.searchByQuery(query);
+    /**
+     * One page of the tenants matching {@code query}, ranked by similarity; any sort in
+     * {@code pageable} is ignored.
+     */
+    public Page<Tenant> searchTenants(String query, Pageable pageable) {
+        return tenantRepository.searchByQuery(query.trim(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
     }
 
     public List<Tenant> findRecentlyCreated(int days) {
@@ -216,7 +271,7 @@ public class TenantService {
         List<Tenant> expiredTrials = findExpiredTrials();
         for (Tenant tenant : expiredTrials) {
             tenant.setStatus(Tenant.TenantStatus.SUSPENDED);
-            tenantRepository.save(tenant);
+            save(tenant);
         }
     }
 
@@ -229,4 +284,10 @@ public class TenantService {
     public boolean isNameAvailable(String name) {
         return !tenantRepository.existsByName(name);
     }
-}
\ No newline at end of file
+
+    private Tenant save(Tenant tenant) {
+        Tenant saved = tenantRepository.save(tenant);
+        eventPublisher.publishEvent(TenantChangedEvent.saved(saved));
+        return saved;
+    }
+}
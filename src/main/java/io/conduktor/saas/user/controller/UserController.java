@@ -2,6 +2,11 @@ package io.conduktor.saas.user.controller;
 
 import io.conduktor.saas.common.dto.ApiResponse;
 import io.conduktor.saas.common.dto.PageResponse;
+import io.conduktor.saas.core.bulk.BulkResult;
+import io.conduktor.saas.core.export.ExportJob;
+import io.conduktor.saas.core.export.ExportJobService;
+import io.conduktor.saas.core.export.StreamingExportLimiter;
+import io.conduktor.saas.common.dto.TotalMode;
 import io.conduktor.saas.common.dto.SearchRequest;
 import io.conduktor.saas.user.dto.*;
 import io.conduktor.saas.user.entity.User;
@@ -10,8 +15,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -21,12 +26,20 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.StringWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/users")
@@ -34,51 +47,48 @@ import java.util.stream.Collectors;
 @Tag(name = "Users", description = "User management API")
 public class UserController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final UserService userService;
+    private final ExportJobService exportJobService;
+    private final StreamingExportLimiter exportLimiter;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ExportJobService exportJobService,
+                          StreamingExportLimiter exportLimiter) {
         this.userService = userService;
+        this.exportJobService = exportJobService;
+        this.exportLimiter = exportLimiter;
     }
 
     @GetMapping
     @Operation(summary = "Get all users", description = "Retrieve paginated list of users")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<UserDTO>>> getAllUsers(
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(required = false) String total) {
         
-        Page<User> users = userService.findAll(null, pageable);
-        PageResponse<UserDTO> userDTOs = new PageResponse<>(
-            users.map(UserDTO::new)
-        );
+        PageResponse<UserDTO> userDTOs = switch (TotalMode.from(total)) {
+            case EXACT -> new PageResponse<>(userService.findAll(null, pageable).map(UserDTO::new));
+            case ESTIMATED -> PageResponse.ofEstimate(
+                userService.findSlice(pageable).map(UserDTO::new), userService.estimateCount());
+            case NONE -> PageResponse.ofSlice(userService.findSlice(pageable).map(UserDTO::new));
+        };
         
         return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", userDTOs));
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search users", description = "Search users by query string")
+    @Operation(summary = "Search users", description = "Search users by query string, most similar first")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
     public ResponseEntity<ApiResponse<PageResponse<UserDTO>>> searchUsers(
             @Valid @ModelAttribute SearchRequest searchRequest) {
         
         if (!searchRequest.hasQuery()) {
-            return getAllUsers(searchRequest.toPageable());
+            return getAllUsers(searchRequest.toPageable(), null);
         }
 
-        List<User> users = userService.searchUsers(searchRequest.getQuery());
-        List<UserDTO> userDTOs = users.stream()
-            .map(UserDTO::new)
-            .collect(Collectors.toList());
-        
-        // Create a mock page response for search results
-        PageResponse<UserDTO> response = new PageResponse<>();
-        response.setContent(userDTOs);
-        response.setTotalElements(userDTOs.size());
-        response.setPageSize(searchRequest.getSize());
-        response.setPageNumber(searchRequest.getPage());
-        response.setTotalPages((int) Math.ceil((double) userDTOs.size() / searchRequest.getSize()));
-        response.setFirst(searchRequest.getPage() == 0);
-        response.setLast(searchRequest.getPage() >= response.getTotalPages() - 1);
-        response.setEmpty(userDTOs.isEmpty());
+        Page<User> users = userService.searchUsers(searchRequest.getQuery(), searchRequest.toPageable());
+        PageResponse<UserDTO> response = new PageResponse<>(users.map(UserDTO::new));
 
         return ResponseEntity.ok(ApiResponse.success("Users found", response));
     }
@@ -117,6 +127,24 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success("User created successfully", userDTO));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk create users",
+               description = "Create users from a JSON array or newline-delimited JSON, reporting the outcome of each item")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkResult>> createUsers(InputStream body) throws IOException {
+        BulkResult result = userService.createUsers(body);
+        return ResponseEntity.ok(ApiResponse.success("Bulk create processed", result));
+    }
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk update users",
+               description = "Update users, each item naming its user by id, from a JSON array or newline-delimited JSON")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkResult>> updateUsers(InputStream body) throws IOException {
+        BulkResult result = userService.updateUsers(body);
+        return ResponseEntity.ok(ApiResponse.success("Bulk update processed", result));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update user", description = "Update an existing user")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN') or @userService.findById(#id).username == authentication.name")
@@ -302,48 +330,53 @@ public class UserController {
     }
 
     @GetMapping("/export")
-    @Operation(summary = "Export users to CSV", description = "Export all users to CSV format")
+    @Operation(summary = "Export users to CSV", description = "Streams all users as CSV; use an export job for very large exports")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
-    public ResponseEntity<String> exportUsers() {
-        try {
-            List<User> users = userService.findAll();
-            
-            StringWriter stringWriter = new StringWriter();
-            CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                .setHeader("ID", "Username", "Email", "First Name", "Last Name", 
-                         "Phone", "Status", "Enabled", "Email Verified", "Last Login", 
-                         "Login Count", "Created At")
-                .build();
-            
-            try (CSVPrinter csvPrinter = new CSVPrinter(stringWriter, csvFormat)) {
-                for (User user : users) {
-                    csvPrinter.printRecord(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getPhone(),
-                        user.getStatus(),
-                        user.isEnabled(),
-                        user.isEmailVerified(),
-                        user.getLastLogin(),
-                        user.getLoginCount(),
-                        user.getCreatedAt()
-                    );
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Gzip the CSV") @RequestParam(defaultValue = "false") boolean gzip) {
+
+        StreamingExportLimiter.Permit permit = exportLimiter.acquire();
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+                    userService.exportUsers(writer);
                 }
             }
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "users.csv");
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(stringWriter.toString());
-                
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users" + (gzip ? ".csv.gz" : ".csv"))
+            .body(body);
+    }
+
+    @PostMapping("/export/jobs")
+    @Operation(summary = "Start a user export job", description = "Writes all users to a gzipped CSV file in the background")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJob>> startExportJob() {
+        ExportJob job = exportJobService.submit("users", userService::exportUsers);
+        return ResponseEntity.accepted().body(ApiResponse.success("Export started", job));
+    }
+
+    @GetMapping("/export/jobs/{jobId}")
+    @Operation(summary = "Get a user export job", description = "Status of an export job")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ApiResponse<ExportJob>> getExportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(exportJobService.find("users", jobId)));
+    }
+
+    @GetMapping("/export/jobs/{jobId}/download")
+    @Operation(summary = "Download a user export", description = "Gzipped CSV of a completed export job; supports Range requests to resume")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String jobId) {
+        ExportJob job = exportJobService.find("users", jobId);
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalStateException("Export " + jobId + " is " + job.getStatus());
         }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFilename())
+            .body(new FileSystemResource(job.getFile()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package io.conduktor.saas.user.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One item of a bulk user update: the user to update and, as in {@link UpdateUserRequest}, only
+ * the fields to change.
+ */
+public class BulkUpdateUserRequest extends UpdateUserRequest {
+
+    @NotNull(message = "User ID is required")
+    private Long id;
+
+    public BulkUpdateUserRequest() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 @Entity
@@ -75,6 +76,15 @@ public class User extends BaseEntity {
     @Column(name = "account_locked_until")
     private LocalDateTime accountLockedUntil;
 
+    @Column(name = "security_stamp", nullable = false)
+    private Integer securityStamp = 0;
+
+    @Column(name = "security_stamp_updated_at")
+    private LocalDateTime securityStampUpdatedAt;
+
+    @Transient
+    private boolean securityStateChanged;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
@@ -124,6 +134,7 @@ public class User extends BaseEntity {
     }
 
     public void setPassword(String password) {
+        markSecurityStateChanged(this.password, password);
         this.password = password;
     }
 
@@ -180,6 +191,7 @@ public class User extends BaseEntity {
     }
 
     public void setStatus(UserStatus status) {
+        markSecurityStateChanged(this.status, status);
         this.status = status;
     }
 
@@ -188,6 +200,7 @@ public class User extends BaseEntity {
     }
 
     public void setEnabled(boolean enabled) {
+        markSecurityStateChanged(this.enabled, enabled);
         this.enabled = enabled;
     }
 
@@ -228,6 +241,7 @@ public class User extends BaseEntity {
     }
 
     public void setAccountLockedUntil(LocalDateTime accountLockedUntil) {
+        markSecurityStateChanged(this.accountLockedUntil, accountLockedUntil);
         this.accountLockedUntil = accountLockedUntil;
     }
 
@@ -236,9 +250,48 @@ public class User extends BaseEntity {
     }
 
     public void setRoles(Set<Role> roles) {
+        markSecurityStateChanged(this.roles, roles);
         this.roles = roles;
     }
 
+    public Integer getSecurityStamp() {
+        return securityStamp;
+    }
+
+    public void setSecurityStamp(Integer securityStamp) {
+        this.securityStamp = securityStamp;
+    }
+
+    public LocalDateTime getSecurityStampUpdatedAt() {
+        return securityStampUpdatedAt;
+    }
+
+    public void setSecurityStampUpdatedAt(LocalDateTime securityStampUpdatedAt) {
+        this.securityStampUpdatedAt = securityStampUpdatedAt;
+    }
+
+    /**
+     * Increments the security stamp if roles, password, status, enabled or lock state were changed
+     * through their setters since the entity was loaded. New (unsaved) users keep stamp 0.
+     *
+     * @return true if the stamp was incremented
+     */
+    public boolean refreshSecurityStamp() {
+        boolean changed = securityStateChanged && getId() != null;
+        securityStateChanged = false;
+        if (changed) {
+            securityStamp = (securityStamp != null ? securityStamp : 0) + 1;
+            securityStampUpdatedAt = LocalDateTime.now();
+        }
+        return changed;
+    }
+
+    private void markSecurityStateChanged(Object currentValue, Object newValue) {
+        if (!Objects.equals(currentValue, newValue)) {
+            securityStateChanged = true;
+        }
+    }
+
     public String getFullName() {
         if (firstName != null && lastName != null) {
             return firstName + " " + lastName;
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +19,13 @@ public interface UserRepository extends BaseRepository<User, Long> {
     Optional<User> findByTenantIdAndUsername(String tenantId, String username);
     
     Optional<User> findByTenantIdAndEmail(String tenantId, String email);
+
+    Optional<User> findFirstByUsernameOrderByIdAsc(String username);
     
     List<User> findByTenantIdAndStatus(String tenantId, User.UserStatus status);
     
     Page<User> findByTenantIdAndStatus(String tenantId, User.UserStatus status, Pageable pageable);
-    
+
     List<User> findByTenantIdAndRolesContaining(String tenantId, User.Role role);
     
     @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
@@ -45,11 +48,52 @@ public interface UserRepository extends BaseRepository<User, Long> {
     
     boolean existsByTenantIdAndEmail(String tenantId, String email);
     
-    @Query("SELECT u FROM User u WHERE u.tenantId = :tenantId AND " +
-           "(u.username LIKE %:query% OR u.email LIKE %:query% OR u.firstName LIKE %:query% OR u.lastName LIKE %:query%)")
-    List<User> searchByTenantIdAndQuery(@Param("tenantId") String tenantId, @Param("query") String query);
+    /**
+     * Users of a tenant whose username, email, first or last name contains {@code query}, ignoring
+     * case, most similar first. Served by the trigram indexes of V3_8_0; {@code pageable} must be
+     * unsorted.
+     */
+    @Query(value = """
+        SELECT u.* FROM users u
+        WHERE u.tenant_id = :tenantId
+        AND (u.username ILIKE '%' || :query || '%' OR u.email ILIKE '%' || :query || '%'
+             OR u.first_name ILIKE '%' || :query || '%' OR u.last_name ILIKE '%' || :query || '%')
+        ORDER BY greatest(similarity(u.username, :query), similarity(u.email, :query),
+                          similarity(u.first_name, :query), similarity(u.last_name, :query)) DESC, u.id
+        """,
+        countQuery = """
+        SELECT COUNT(*) FROM users u
+        WHERE u.tenant_id = :tenantId
+        AND (u.username ILIKE '%' || :query || '%' OR u.email ILIKE '%' || :query || '%'
+             OR u.first_name ILIKE '%' || :query || '%' OR u.last_name ILIKE '%' || :query || '%')
+        """,
+        nativeQuery = true)
+    Page<User> searchByTenantIdAndQuery(@Param("tenantId") String tenantId, @Param("query") String query, Pageable pageable);
     
     Page<User> findByTenantIdAndStatusAndEnabled(String tenantId, User.UserStatus status, boolean enabled, Pageable pageable);
     
     List<User> findByTenantIdAndCreatedAtAfter(String tenantId, LocalDateTime createdAt);
+
+    @Query("SELECT u.id AS id, u.securityStamp AS securityStamp, u.securityStampUpdatedAt AS securityStampUpdatedAt " +
+           "FROM User u WHERE u.securityStampUpdatedAt > :since")
+    List<SecurityStampView> findSecurityStampsChangedSince(@Param("since") LocalDateTime since);
+
+    /** Users of the tenant holding any of {@code usernames} or {@code emails}, for conflict checks. */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM User u " +
+           "WHERE u.tenantId = :tenantId AND (u.username IN :usernames OR u.email IN :emails)")
+    List<IdentityView> findIdentities(@Param("tenantId") String tenantId,
+                                      @Param("usernames") Collection<String> usernames,
+                                      @Param("emails") Collection<String> emails);
+
+    interface IdentityView {
+        Long getId();
+        String getUsername();
+        String getEmail();
+    }
+
+    interface SecurityStampView {
+        Long getId();
+        Integer getSecurityStamp();
+        LocalDateTime getSecurityStampUpdatedAt();
+    }
 }
\ No newline at end of file
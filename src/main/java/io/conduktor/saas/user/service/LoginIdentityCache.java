@@ -0,0 +1,80 @@
+package io.conduktor.saas.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.conduktor.saas.user.entity.User;
+import io.conduktor.saas.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves a login username to its user across all tenants, for logins that do not name a tenant.
+ * <p>
+ * Usernames are mapped to user ids with a single probe of {@code idx_users_username}, and the
+ * mapping is cached; a cached id is confirmed by loading the user by primary key and checking its
+ * username, so renamed or deleted users fall back to a fresh lookup. Unknown usernames are cached
+ * for {@code negative-cache-seconds}, so repeated attempts against names that do not exist cost
+ * no queries. {@link #invalidate} clears a name as soon as a user takes it on this node; on other
+ * nodes the negative entry expires.
+ */
+@Service
+public class LoginIdentityCache {
+
+    private static final Long UNKNOWN = -1L;
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> userIds;
+    private final Cache<String, Long> unknownUsernames;
+
+    public LoginIdentityCache(UserRepository userRepository,
+                              @Value("${app.security.login-identity.max-entries:100000}") long maxEntries,
+                              @Value("${app.security.login-identity.expire-minutes:60}") long expireMinutes,
+                              @Value("${app.security.login-identity.negative-cache-seconds:30}") long negativeCacheSeconds) {
+        this.userRepository = userRepository;
+        this.userIds = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .maximumSize(maxEntries)
+                .build();
+        this.unknownUsernames = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(negativeCacheSeconds))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public Optional<User> find(String username) {
+        if (username == null || unknownUsernames.getIfPresent(username) != null) {
+            return Optional.empty();
+        }
+        Long userId = userIds.getIfPresent(username);
+        if (userId != null) {
+            Optional<User> user = userRepository.findById(userId)
+                    .filter(found -> username.equals(found.getUsername()));
+            if (user.isPresent()) {
+                return user;
+            }
+            userIds.invalidate(username);
+        }
+
+        // Usernames are only unique per tenant; the oldest account wins, as it always has
+        Optional<User> user = userRepository.findFirstByUsernameOrderByIdAsc(username);
+        if (user.isPresent()) {
+            userIds.put(username, user.get().getId());
+        } else {
+            unknownUsernames.put(username, UNKNOWN);
+        }
+        return user;
+    }
+
+    /**
+     * Forgets what is cached for {@code username}, after a user was created with or renamed to it.
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            unknownUsernames.invalidate(username);
+            userIds.invalidate(username);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.conduktor.saas.user.service;
+
+import io.conduktor.saas.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of every user's security stamp, used to validate claims-built principals
+ * without a database round trip per request.
+ * <p>
+ * Only users whose stamp ever changed are held (a missing entry means stamp 0), and the map is
+ * refreshed incrementally by polling rows whose {@code security_stamp_updated_at} moved past the
+ * last seen watermark, so changes made on other nodes become visible within one refresh interval.
+ * A token whose stamp is ahead of the map was issued after a change this node has not seen yet
+ * and is accepted; only tokens behind the current stamp are stale.
+ * <p>
+ * Deleted users leave no row to poll, so {@link #revoke} also writes a tombstone to
+ * {@code user_security_tombstones}, which the refresh reads alongside the stamps. Tombstones are
+ * purged once every token issued before the deletion has expired.
+ */
+@Service
+public class SecurityStampService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityStampService.class);
+
+    /** Stamp recorded for deleted users; no issued token can ever match it. */
+    private static final int REVOKED = Integer.MAX_VALUE;
+
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long clockSkewToleranceSeconds;
+    private final long tombstoneRetentionMs;
+    private final ConcurrentMap<Long, Integer> stamps = new ConcurrentHashMap<>();
+    private final Lock refreshLock = new ReentrantLock();
+
+    private volatile LocalDateTime watermark = INITIAL_WATERMARK;
+    private volatile LocalDateTime tombstoneWatermark = INITIAL_WATERMARK;
+    private volatile boolean loaded;
+
+    public SecurityStampService(UserRepository userRepository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${app.security.claims-principal.enabled:false}") boolean enabled,
+                                @Value("${app.security.claims-principal.clock-skew-tolerance-seconds:30}") long clockSkewToleranceSeconds,
+                                @Value("${app.jwt.refresh-expiration:604800000}") long tombstoneRetentionMs) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.clockSkewToleranceSeconds = clockSkewToleranceSeconds;
+        this.tombstoneRetentionMs = tombstoneRetentionMs;
+    }
+
+    /**
+     * @return true once the initial snapshot has been loaded; until then callers must fall back
+     * to loading the user from the database
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int currentStamp(Long userId) {
+        return stamps.getOrDefault(userId, 0);
+    }
+
+    public boolean isCurrent(Long userId, int tokenStamp) {
+        return tokenStamp >= currentStamp(userId);
+    }
+
+    /**
+     * Records a stamp change made on this node so it takes effect immediately, without waiting for
+     * the next refresh. Inside a transaction the change is applied once it commits, so a rollback
+     * cannot leave a stamp that no token carries.
+     */
+    public void recordStamp(Long userId, int stamp) {
+        afterCommit(() -> applyStamp(userId, stamp));
+    }
+
+    /**
+     * Rejects every token of a deleted user, on this node once the deletion commits and on the
+     * others at their next refresh.
+     */
+    public void revoke(Long userId) {
+        jdbcTemplate.update("INSERT INTO user_security_tombstones (user_id, deleted_at) VALUES (?, ?) " +
+                "ON CONFLICT (user_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at",
+                userId, Timestamp.valueOf(LocalDateTime.now()));
+        afterCommit(() -> stamps.put(userId, REVOKED));
+    }
+
+    private void applyStamp(Long userId, int stamp) {
+        stamps.merge(userId, stamp, Math::max);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInitialSnapshot() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.claims-principal.stamp-refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            // Principals are loaded from the database, which needs no stamps
+            return;
+        }
+        refreshLock.lock();
+        try {
+            // Re-read a short overlap window so rows stamped by nodes with a lagging clock are not missed
+            LocalDateTime since = loaded ? watermark.minusSeconds(clockSkewToleranceSeconds) : INITIAL_WATERMARK;
+            List<UserRepository.SecurityStampView> changes = userRepository.findSecurityStampsChangedSince(since);
+
+            LocalDateTime newWatermark = watermark;
+            for (UserRepository.SecurityStampView change : changes) {
+                applyStamp(change.getId(), change.getSecurityStamp());
+                if (change.getSecurityStampUpdatedAt().isAfter(newWatermark)) {
+                    newWatermark = change.getSecurityStampUpdatedAt();
+                }
+            }
+            watermark = newWatermark;
+            refreshTombstones();
+
+            if (!loaded) {
+                loaded = true;
+                logger.info("Loaded {} user security stamps", stamps.size());
+            } else if (!changes.isEmpty()) {
+                logger.debug("Refreshed {} user security stamps", changes.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not refresh user security stamps: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshTombstones() {
+        LocalDateTime since = loaded ? tombstoneWatermark.minusSeconds(clockSkewToleranceSeconds) : INITIAL_WATERMARK;
+        LocalDateTime[] newWatermark = {tombstoneWatermark};
+        jdbcTemplate.query("SELECT user_id, deleted_at FROM user_security_tombstones WHERE deleted_at > ?",
+                rs -> {
+                    stamps.put(rs.getLong("user_id"), REVOKED);
+                    LocalDateTime deletedAt = rs.getTimestamp("deleted_at").toLocalDateTime();
+                    if (deletedAt.isAfter(newWatermark[0])) {
+                        newWatermark[0] = deletedAt;
+                    }
+                },
+                Timestamp.valueOf(since));
+        tombstoneWatermark = newWatermark[0];
+
+        // Entries stay in the map; only rows no token can still match are removed
+        jdbcTemplate.update("DELETE FROM user_security_tombstones WHERE deleted_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(tombstoneRetentionMs))));
+    }
+}
@@ -1,13 +1,24 @@
 package io.conduktor.saas.user.service;
 
+import io.conduktor.saas.core.bulk.BulkHandler;
+import io.conduktor.saas.core.bulk.BulkItem;
+import io.conduktor.saas.core.bulk.BulkPasswordEncoder;
+import io.conduktor.saas.core.bulk.BulkProcessor;
+import io.conduktor.saas.core.bulk.BulkResult;
 import io.conduktor.saas.core.exception.ResourceNotFoundException;
+import io.conduktor.saas.core.export.CsvQueryExporter;
 import io.conduktor.saas.core.service.BaseService;
+import io.conduktor.saas.core.service.RowCountEstimator;
 import io.conduktor.saas.security.TenantContext;
 import io.conduktor.saas.security.UserPrincipal;
+import io.conduktor.saas.user.dto.BulkUpdateUserRequest;
+import io.conduktor.saas.user.dto.CreateUserRequest;
 import io.conduktor.saas.user.entity.User;
 import io.conduktor.saas.user.repository.UserRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,10 +26,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 // @Transactional
@@ -26,10 +47,28 @@ public class UserService implements org.springframework.security.core.userdetail
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final SecurityStampService securityStampService;
+    private final RowCountEstimator rowCountEstimator;
+    private final CsvQueryExporter csvQueryExporter;
+    private final LoginIdentityCache loginIdentityCache;
+    private final BulkProcessor bulkProcessor;
+    private final BulkPasswordEncoder bulkPasswordEncoder;
+
+    private static final String[] EXPORT_HEADER = {"ID", "Username", "Email", "First Name", "Last Name",
+            "Phone", "Status", "Enabled", "Email Verified", "Last Login", "Login Count", "Created At"};
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       SecurityStampService securityStampService, RowCountEstimator rowCountEstimator,
+                       CsvQueryExporter csvQueryExporter, LoginIdentityCache loginIdentityCache,
+                       BulkProcessor bulkProcessor, BulkPasswordEncoder bulkPasswordEncoder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.securityStampService = securityStampService;
+        this.rowCountEstimator = rowCountEstimator;
+        this.csvQueryExporter = csvQueryExporter;
+        this.loginIdentityCache = loginIdentityCache;
+        this.bulkProcessor = bulkProcessor;
+        this.bulkPasswordEncoder = bulkPasswordEncoder;
     }
     
     protected String getCurrentTenantId() {
@@ -42,12 +81,28 @@ public class UserService implements org.springframework.security.core.userdetail
 
     // @Transactional(readOnly = true)
     public Page<User> findAll(Specification<User> spec, Pageable pageable) {
-        return userRepository.findAll(spec, pageable);
+        return userRepository.findAll(inCurrentTenant(spec), pageable);
+    }
+
+    /** Same rows as {@code findAll(null, pageable)} without the count query. */
+    public Slice<User> findSlice(Pageable pageable) {
+        return userRepository.findSliceByTenantId(getCurrentTenantId(), pageable);
+    }
+
+    public long estimateCount() {
+        String tenantId = getCurrentTenantId();
+        return rowCountEstimator.estimate("users", tenantId, () -> userRepository.countByTenantId(tenantId));
     }
 
     // @Transactional(readOnly = true)
     public List<User> findAll(Specification<User> spec) {
-        return userRepository.findAll(spec);
+        return userRepository.findAll(inCurrentTenant(spec));
+    }
+
+    private Specification<User> inCurrentTenant(Specification<User> spec) {
+        String tenantId = getCurrentTenantId();
+        Specification<User> tenant = (root, query, cb) -> cb.equal(root.get("tenantId"), tenantId);
+        return spec == null ? tenant : tenant.and(spec);
     }
 
 //    // @Transactional(readOnly = true)
@@ -110,6 +165,7 @@ public class UserService implements org.springframework.security.core.userdetail
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteByIdAndTenantId(id, tenantId);
+        securityStampService.revoke(id);
     }
 
     // @Transactional(readOnly = true)
@@ -117,10 +173,39 @@ public class UserService implements org.springframework.security.core.userdetail
         return userRepository.findByTenantId(getCurrentTenantId());
     }
 
+    /**
+     * Writes the current tenant's users to {@code writer} as CSV, reading only the exported
+     * columns and streaming them from a cursor rather than loading the entities.
+     *
+     * @return the number of users written
+     */
+    public long exportUsers(Writer writer) throws IOException {
+        return csvQueryExporter.export(writer, EXPORT_HEADER, """
+                SELECT id, username, email, first_name, last_name, phone, status, enabled, email_verified,
+                       last_login, login_count, created_at
+                FROM users
+                WHERE tenant_id = ?
+                ORDER BY id
+                """, rs -> new Object[]{
+                rs.getLong("id"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("phone"),
+                rs.getString("status"),
+                rs.getBoolean("enabled"),
+                rs.getBoolean("email_verified"),
+                rs.getObject("last_login", LocalDateTime.class),
+                rs.getObject("login_count"),
+                rs.getObject("created_at", LocalDateTime.class)
+        }, getCurrentTenantId());
+    }
+
     public User create(User user) {
         user.setTenantId(getCurrentTenantId());
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        return save(user);
     }
     
     @Override
@@ -133,17 +218,13 @@ public class UserService implements org.springframework.security.core.userdetail
         }
         
         User user = userOpt.get();
-        List<String> roles = user.getRoles().stream()
-                .map(role -> role.name())
-                .toList();
-        
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
                 user.getTenantId(),
-                roles,
+                user.getRoles(),
                 user.isEnabled() && user.isAccountNonLocked()
         );
     }
@@ -152,17 +233,13 @@ public class UserService implements org.springframework.security.core.userdetail
         User user = userRepository.findById(id).orElseThrow(() -> 
             new UsernameNotFoundException("User not found with id: " + id));
             
-        List<String> roles = user.getRoles().stream()
-                .map(role -> role.name())
-                .toList();
-        
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
                 user.getTenantId(),
-                roles,
+                user.getRoles(),
                 user.isEnabled() && user.isAccountNonLocked()
         );
     }
@@ -170,9 +247,7 @@ public class UserService implements org.springframework.security.core.userdetail
     // @Transactional(readOnly = true)
     public Optional<User> findByUsernameGlobal(String username) {
         // This method searches across all tenants for authentication
-        return userRepository.findAll().stream()
-                .filter(user -> user.getUsername().equals(username))
-                .findFirst();
+        return loginIdentityCache.find(username);
     }
 
     public User createWithRoles(User user, Set<User.Role> roles) {
@@ -182,6 +257,9 @@ public class UserService implements org.springframework.security.core.userdetail
 
     public User update(Long id, User updatedUser) {
         User existingUser = findById(id);
+        // Compare before copying fields: callers may pass the managed instance itself, whose password is already encoded
+        boolean passwordChanged = updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()
+                && !updatedUser.getPassword().equals(existingUser.getPassword());
         
         // Update fields but preserve password if not provided
         existingUser.setUsername(updatedUser.getUsername());
@@ -196,7 +274,7 @@ public class UserService implements org.springframework.security.core.userdetail
         existingUser.setEnabled(updatedUser.isEnabled());
         existingUser.setEmailVerified(updatedUser.isEmailVerified());
         
-        if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
+        if (passwordChanged) {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
         
@@ -204,7 +282,7 @@ public class UserService implements org.springframework.security.core.userdetail
             existingUser.setRoles(updatedUser.getRoles());
         }
 
-        return userRepository.save(existingUser);
+        return save(existingUser);
     }
 
     public User changePassword(Long id, String oldPassword, String newPassword) {
@@ -215,26 +293,26 @@ public class UserService implements org.springframework.security.core.userdetail
         }
         
         user.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        return save(user);
     }
 
     public User updateRoles(Long id, Set<User.Role> roles) {
         User user = findById(id);
         user.setRoles(roles);
-        return userRepository.save(user);
+        return save(user);
     }
 
     public User updateStatus(Long id, User.UserStatus status) {
         User user = findById(id);
         user.setStatus(status);
-        return userRepository.save(user);
+        return save(user);
     }
 
     public User lockAccount(Long id, LocalDateTime lockUntil) {
         User user = findById(id);
         user.setAccountLockedUntil(lockUntil);
         user.setEnabled(false);
-        return userRepository.save(user);
+        return save(user);
     }
 
     public User unlockAccount(Long id) {
@@ -242,7 +320,7 @@ public class UserService implements org.springframework.security.core.userdetail
         user.setAccountLockedUntil(null);
         user.setEnabled(true);
         user.setFailedLoginAttempts(0);
-        return userRepository.save(user);
+        return save(user);
     }
 
     public User recordLogin(String username) {
@@ -252,7 +330,7 @@ public class UserService implements org.springframework.security.core.userdetail
             user.setLastLogin(LocalDateTime.now());
             user.setLoginCount(user.getLoginCount() + 1);
             user.setFailedLoginAttempts(0);
-            return userRepository.save(user);
+            return save(user);
         }
         throw new ResourceNotFoundException("User not found with username: " + username);
     }
@@ -261,7 +339,7 @@ public class UserService implements org.springframework.security.core.userdetail
         user.setLastLogin(LocalDateTime.now());
         user.setLoginCount(user.getLoginCount() + 1);
         user.setFailedLoginAttempts(0);
-        return userRepository.save(user);
+        return save(user);
     }
 
     public User recordFailedLogin(String username) {
@@ -276,7 +354,7 @@ public class UserService implements org.springframework.security.core.userdetail
                 user.setEnabled(false);
             }
             
-            return userRepository.save(user);
+            return save(user);
         }
         throw new ResourceNotFoundException("User not found with username: " + username);
     }
@@ -287,12 +365,149 @@ public class UserService implements org.springframework.security.core.userdetail
         if (user.getStatus() == User.UserStatus.PENDING_VERIFICATION) {
             user.setStatus(User.UserStatus.ACTIVE);
         }
-        return userRepository.save(user);
+        return save(user);
     }
 
-    public List<User> searchUsers(String query) {
+    /**
+     * One page of the current tenant's users matching {@code query}, ranked by similarity; any
+     * sort in {@code pageable} is ignored.
+     */
+    public Page<User> searchUsers(String query, Pageable pageable) {
         String tenantId = getCurrentTenantId();
-        return userRepository.searchByTenantIdAndQuery(tenantId, query);
+        return userRepository.searchByTenantIdAndQuery(tenantId, query.trim(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    /**
+     * Creates the users in {@code body} for the current tenant; see {@link BulkProcessor}. Usernames
+     * and emails already taken, or repeated within the request, fail their item. Passwords are
+     * hashed in parallel before each chunk's transaction.
+     */
+    public BulkResult createUsers(InputStream body) throws IOException {
+        String tenantId = getCurrentTenantId();
+        Set<String> requestedUsernames = new HashSet<>();
+        Set<String> requestedEmails = new HashSet<>();
+        return bulkProcessor.process(body, CreateUserRequest.class, new BulkHandler<>() {
+            @Override
+            public void prepare(List<BulkItem<CreateUserRequest>> items) {
+                List<BulkItem<CreateUserRequest>> unique = new ArrayList<>();
+                for (BulkItem<CreateUserRequest> item : items) {
+                    CreateUserRequest request = item.value();
+                    if (requestedUsernames.contains(request.getUsername())) {
+                        item.fail("Username appears more than once in the request");
+                    } else if (requestedEmails.contains(request.getEmail())) {
+                        item.fail("Email appears more than once in the request");
+                    } else {
+                        requestedUsernames.add(request.getUsername());
+                        requestedEmails.add(request.getEmail());
+                        unique.add(item);
+                    }
+                }
+                failTaken(tenantId, unique, item -> null, item -> item.value().getUsername(), item -> item.value().getEmail());
+
+                List<BulkItem<CreateUserRequest>> accepted = unique.stream().filter(item -> !item.isDone()).toList();
+                List<String> encoded = bulkPasswordEncoder.encodeAll(
+                        accepted.stream().map(item -> item.value().getPassword()).toList());
+                for (int i = 0; i < accepted.size(); i++) {
+                    accepted.get(i).value().setPassword(encoded.get(i));
+                }
+            }
+
+            @Override
+            public void write(List<BulkItem<CreateUserRequest>> items) {
+                for (BulkItem<CreateUserRequest> item : items) {
+                    User user = item.value().toEntity();
+                    user.setTenantId(tenantId);
+                    item.created(save(user).getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies the updates in {@code body} to the current tenant's users; see {@link BulkProcessor}.
+     * Unknown ids, and usernames or emails that are taken by another user or requested twice, fail
+     * their item.
+     */
+    public BulkResult updateUsers(InputStream body) throws IOException {
+        String tenantId = getCurrentTenantId();
+        Set<Long> requestedIds = new HashSet<>();
+        Set<String> requestedUsernames = new HashSet<>();
+        Set<String> requestedEmails = new HashSet<>();
+        return bulkProcessor.process(body, BulkUpdateUserRequest.class, new BulkHandler<>() {
+            @Override
+            public void prepare(List<BulkItem<BulkUpdateUserRequest>> items) {
+                List<BulkItem<BulkUpdateUserRequest>> unique = new ArrayList<>();
+                for (BulkItem<BulkUpdateUserRequest> item : items) {
+                    BulkUpdateUserRequest request = item.value();
+                    if (requestedIds.contains(request.getId())) {
+                        item.fail("User appears more than once in the request");
+                    } else if (request.getUsername() != null && requestedUsernames.contains(request.getUsername())) {
+                        item.fail("Username appears more than once in the request");
+                    } else if (request.getEmail() != null && requestedEmails.contains(request.getEmail())) {
+                        item.fail("Email appears more than once in the request");
+                    } else {
+                        requestedIds.add(request.getId());
+                        if (request.getUsername() != null) {
+                            requestedUsernames.add(request.getUsername());
+                        }
+                        if (request.getEmail() != null) {
+                            requestedEmails.add(request.getEmail());
+                        }
+                        unique.add(item);
+                    }
+                }
+                failTaken(tenantId, unique, item -> item.value().getId(),
+                        item -> item.value().getUsername(), item -> item.value().getEmail());
+            }
+
+            @Override
+            public void write(List<BulkItem<BulkUpdateUserRequest>> items) {
+                Map<Long, User> users = userRepository.findByTenantIdAndIdIn(tenantId,
+                                items.stream().map(item -> item.value().getId()).toList())
+                        .stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+                for (BulkItem<BulkUpdateUserRequest> item : items) {
+                    User user = users.get(item.value().getId());
+                    if (user == null) {
+                        item.fail("User not found with id: " + item.value().getId());
+                        continue;
+                    }
+                    item.value().updateEntity(user);
+                    item.updated(save(user).getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Fails the items whose username or email belongs to a user of the tenant other than the one
+     * the item is for, with one query for the whole chunk.
+     */
+    private <T> void failTaken(String tenantId, List<BulkItem<T>> items, Function<BulkItem<T>, Long> userId,
+                               Function<BulkItem<T>, String> username, Function<BulkItem<T>, String> email) {
+        Set<String> usernames = items.stream().map(username).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> emails = items.stream().map(email).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (usernames.isEmpty() && emails.isEmpty()) {
+            return;
+        }
+        Map<String, Long> usernameOwners = new HashMap<>();
+        Map<String, Long> emailOwners = new HashMap<>();
+        for (UserRepository.IdentityView identity : userRepository.findIdentities(tenantId, usernames, emails)) {
+            usernameOwners.put(identity.getUsername(), identity.getId());
+            emailOwners.put(identity.getEmail(), identity.getId());
+        }
+        for (BulkItem<T> item : items) {
+            Long owner = usernameOwners.get(username.apply(item));
+            if (owner != null && !owner.equals(userId.apply(item))) {
+                item.fail("Username already exists");
+                continue;
+            }
+            owner = emailOwners.get(email.apply(item));
+            if (owner != null && !owner.equals(userId.apply(item))) {
+                item.fail("Email already exists");
+            }
+        }
     }
 
     public Page<User> findActiveUsers(Pageable pageable) {
@@ -305,4 +520,18 @@ public class UserService implements org.springframework.security.core.userdetail
         LocalDateTime since = LocalDateTime.now().minusDays(days);
         return userRepository.findByTenantIdAndCreatedAtAfter(tenantId, since);
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves the user, incrementing its security stamp when security-relevant fields changed so
+     * that access tokens issued before the change stop being accepted.
+     */
+    private User save(User user) {
+        boolean stampChanged = user.refreshSecurityStamp();
+        User saved = userRepository.save(user);
+        loginIdentityCache.invalidate(saved.getUsername());
+        if (stampChanged) {
+            securityStampService.recordStamp(saved.getId(), saved.getSecurityStamp());
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,8 @@
+-- Per-user security stamp, incremented whenever roles, enabled/lock state, status or password change.
+-- Access tokens carry the stamp they were issued with so stale tokens can be rejected in memory.
+ALTER TABLE users ADD COLUMN security_stamp INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN security_stamp_updated_at TIMESTAMP;
+
+-- Supports the incremental stamp refresh, which only reads rows changed since the last poll
+CREATE INDEX idx_users_security_stamp_updated_at ON users(security_stamp_updated_at)
+    WHERE security_stamp_updated_at IS NOT NULL;
@@ -0,0 +1,5 @@
+-- Optional vanity domain per tenant, used with the subdomain to route requests by Host header
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS custom_domain VARCHAR(253);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_tenants_custom_domain ON tenants(LOWER(custom_domain))
+    WHERE custom_domain IS NOT NULL;
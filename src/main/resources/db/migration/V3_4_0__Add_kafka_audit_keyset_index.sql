@@ -0,0 +1,8 @@
+-- Keyset pagination orders by (timestamp, id) within a tenant; with id in the index both the
+-- continuation predicate and the ORDER BY are served by a single range scan.
+-- CONCURRENTLY keeps audit writes flowing during the build; Flyway runs a script made only of
+-- concurrent index statements outside a transaction, so nothing else may be added here.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_kafka_audit_tenant_timestamp_id ON kafka_audit_logs(tenant_id, timestamp, id);
+
+-- Covered by the index above
+DROP INDEX CONCURRENTLY IF EXISTS idx_kafka_audit_tenant_timestamp;
@@ -0,0 +1,40 @@
+-- Full-text and substring search over kafka_audit_logs, replacing six unindexable LIKE '%term%'
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- The searchable text of a row, in one expression so the trigram index and queries match it exactly
+CREATE OR REPLACE FUNCTION kafka_audit_search_text(user_email TEXT, action TEXT, resource_name TEXT,
+                                                   cluster_name TEXT, topic_name TEXT, consumer_group TEXT)
+RETURNS TEXT LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT coalesce(user_email, '') || ' ' || coalesce(action, '') || ' ' || coalesce(resource_name, '') || ' ' ||
+           coalesce(cluster_name, '') || ' ' || coalesce(topic_name, '') || ' ' || coalesce(consumer_group, '')
+$$;
+
+-- Resource and topic names rank above cluster, group and action, which rank above the user
+CREATE OR REPLACE FUNCTION kafka_audit_search_vector(user_email TEXT, action TEXT, resource_name TEXT,
+                                                     cluster_name TEXT, topic_name TEXT, consumer_group TEXT)
+RETURNS tsvector LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(resource_name, '') || ' ' || coalesce(topic_name, '')), 'A') ||
+           setweight(to_tsvector('simple', coalesce(cluster_name, '') || ' ' || coalesce(consumer_group, '') || ' ' ||
+                                           coalesce(action, '')), 'B') ||
+           setweight(to_tsvector('simple', coalesce(user_email, '')), 'C')
+$$;
+
+-- Maintained by a trigger rather than GENERATED ... STORED, which would rewrite the whole table
+-- under an exclusive lock; existing rows are filled in batches by V3_5_1
+ALTER TABLE kafka_audit_logs ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION kafka_audit_logs_search_vector_update() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := kafka_audit_search_vector(NEW.user_email, NEW.action, NEW.resource_name,
+                                                   NEW.cluster_name, NEW.topic_name, NEW.consumer_group);
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_kafka_audit_logs_search_vector ON kafka_audit_logs;
+CREATE TRIGGER trg_kafka_audit_logs_search_vector
+    BEFORE INSERT OR UPDATE OF user_email, action, resource_name, cluster_name, topic_name, consumer_group
+    ON kafka_audit_logs
+    FOR EACH ROW EXECUTE FUNCTION kafka_audit_logs_search_vector_update();
+
+-- The GIN indexes are built by V3_5_2, once V3_5_1 has filled in the existing rows
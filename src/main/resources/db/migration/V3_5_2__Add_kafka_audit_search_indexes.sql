@@ -0,0 +1,8 @@
+-- Built after the V3_5_1 backfill so each index is written once from complete rows rather than
+-- updated for every backfilled row, and CONCURRENTLY so audit writes continue during the build.
+-- Flyway runs a script made only of concurrent index statements outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_kafka_audit_search_vector ON kafka_audit_logs USING GIN (search_vector);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_kafka_audit_search_trgm ON kafka_audit_logs USING GIN (
+    kafka_audit_search_text(user_email, action, resource_name, cluster_name, topic_name, consumer_group) gin_trgm_ops
+);
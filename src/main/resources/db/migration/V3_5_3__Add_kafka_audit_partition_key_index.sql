@@ -0,0 +1,5 @@
+-- The partitioned kafka_audit_logs (V3_6_0) has PRIMARY KEY (id, timestamp). Built here, CONCURRENTLY,
+-- so V3_6_0 can make it the legacy table's primary key and ATTACH adopts it instead of building a
+-- unique index over the whole history under an exclusive lock.
+-- Flyway runs a script made only of concurrent index statements outside a transaction.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS kafka_audit_logs_id_timestamp_key ON kafka_audit_logs (id, timestamp);
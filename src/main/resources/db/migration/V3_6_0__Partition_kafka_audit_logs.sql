@@ -0,0 +1,102 @@
+-- Range-partition kafka_audit_logs by timestamp. The existing table is attached as-is as the partition
+-- for everything up to the end of its newest month, so no history is copied; later partitions are
+-- created ahead of time, and dropped after retention, by AuditPartitionManager.
+
+ALTER TABLE kafka_audit_logs RENAME TO kafka_audit_logs_legacy;
+-- Swap the id-only key for the (id, timestamp) index built by V3_5_3, which matches the partitioned
+-- table's key, so ATTACH adopts it rather than building one
+ALTER TABLE kafka_audit_logs_legacy DROP CONSTRAINT kafka_audit_logs_pkey;
+ALTER TABLE kafka_audit_logs_legacy ADD CONSTRAINT kafka_audit_logs_legacy_pkey
+    PRIMARY KEY USING INDEX kafka_audit_logs_id_timestamp_key;
+DROP TRIGGER IF EXISTS trg_kafka_audit_logs_search_vector ON kafka_audit_logs_legacy;
+
+-- Free the index names for the partitioned table; ATTACH adopts these as its partitions' indexes
+ALTER INDEX IF EXISTS idx_kafka_audit_tenant_timestamp_id RENAME TO idx_kafka_audit_legacy_tenant_timestamp_id;
+ALTER INDEX IF EXISTS idx_kafka_audit_user_action RENAME TO idx_kafka_audit_legacy_user_action;
+ALTER INDEX IF EXISTS idx_kafka_audit_cluster_topic RENAME TO idx_kafka_audit_legacy_cluster_topic;
+ALTER INDEX IF EXISTS idx_kafka_audit_timestamp RENAME TO idx_kafka_audit_legacy_timestamp;
+ALTER INDEX IF EXISTS idx_kafka_audit_action RENAME TO idx_kafka_audit_legacy_action;
+ALTER INDEX IF EXISTS idx_kafka_audit_resource_type RENAME TO idx_kafka_audit_legacy_resource_type;
+ALTER INDEX IF EXISTS idx_kafka_audit_search_vector RENAME TO idx_kafka_audit_legacy_search_vector;
+ALTER INDEX IF EXISTS idx_kafka_audit_search_trgm RENAME TO idx_kafka_audit_legacy_search_trgm;
+
+CREATE TABLE kafka_audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('kafka_audit_logs_id_seq'),
+    tenant_id VARCHAR(255) NOT NULL,
+    user_id BIGINT,
+    user_email VARCHAR(255) NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    resource_type VARCHAR(50) NOT NULL,
+    resource_name VARCHAR(200),
+    cluster_id BIGINT,
+    cluster_name VARCHAR(100),
+    topic_name VARCHAR(200),
+    consumer_group VARCHAR(200),
+    details JSONB,
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    duration_ms INTEGER,
+    status VARCHAR(20) DEFAULT 'SUCCESS',
+    metadata JSONB,
+    session_id VARCHAR(255),
+    request_id VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(255) DEFAULT 'system',
+    updated_by VARCHAR(255) DEFAULT 'system',
+    version BIGINT DEFAULT 1,
+    search_vector tsvector,
+    -- The partition key has to be part of every unique constraint
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE kafka_audit_logs_id_seq OWNED BY kafka_audit_logs.id;
+ALTER TABLE kafka_audit_logs_legacy ALTER COLUMN id DROP DEFAULT;
+
+CREATE INDEX idx_kafka_audit_tenant_timestamp_id ON kafka_audit_logs(tenant_id, timestamp, id);
+CREATE INDEX idx_kafka_audit_user_action ON kafka_audit_logs(user_id, action);
+CREATE INDEX idx_kafka_audit_cluster_topic ON kafka_audit_logs(cluster_id, topic_name);
+CREATE INDEX idx_kafka_audit_timestamp ON kafka_audit_logs(timestamp);
+CREATE INDEX idx_kafka_audit_action ON kafka_audit_logs(action);
+CREATE INDEX idx_kafka_audit_resource_type ON kafka_audit_logs(resource_type);
+CREATE INDEX idx_kafka_audit_search_vector ON kafka_audit_logs USING GIN (search_vector);
+CREATE INDEX idx_kafka_audit_search_trgm ON kafka_audit_logs USING GIN (
+    kafka_audit_search_text(user_email, action, resource_name, cluster_name, topic_name, consumer_group) gin_trgm_ops
+);
+
+-- Cloned onto every partition
+CREATE TRIGGER trg_kafka_audit_logs_search_vector
+    BEFORE INSERT OR UPDATE OF user_email, action, resource_name, cluster_name, topic_name, consumer_group
+    ON kafka_audit_logs
+    FOR EACH ROW EXECUTE FUNCTION kafka_audit_logs_search_vector_update();
+
+-- Rows outside every range (e.g. clock skew) land here instead of failing the insert
+CREATE TABLE kafka_audit_logs_default PARTITION OF kafka_audit_logs DEFAULT;
+
+DO $$
+DECLARE
+    legacy_end TIMESTAMP := date_trunc('month', greatest(
+        (SELECT max(timestamp) FROM kafka_audit_logs_legacy), CURRENT_TIMESTAMP::timestamp)) + INTERVAL '1 month';
+    month_start TIMESTAMP;
+BEGIN
+    -- A CHECK matching the range lets ATTACH skip its own scan of the legacy table. The rename above
+    -- already holds ACCESS EXCLUSIVE, so a NOT VALID / VALIDATE split would not shorten any lock.
+    EXECUTE format('ALTER TABLE kafka_audit_logs_legacy ADD CONSTRAINT kafka_audit_logs_legacy_range '
+                   'CHECK (timestamp IS NOT NULL AND timestamp < %L)', legacy_end);
+    EXECUTE format('ALTER TABLE kafka_audit_logs ATTACH PARTITION kafka_audit_logs_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   legacy_end);
+    ALTER TABLE kafka_audit_logs_legacy DROP CONSTRAINT kafka_audit_logs_legacy_range;
+
+    -- The next three months, so inserts have somewhere to go before the manager first runs
+    FOR i IN 0..2 LOOP
+        month_start := legacy_end + make_interval(months => i);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF kafka_audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       'kafka_audit_logs_p' || to_char(month_start, 'YYYYMM'),
+                       month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END
+$$;
+
+-- Per-tenant audit retention, enforced by AuditPartitionManager; NULL means the platform default
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS audit_retention_days INTEGER;
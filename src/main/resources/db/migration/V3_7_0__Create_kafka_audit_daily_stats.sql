@@ -0,0 +1,22 @@
+-- Per tenant, day and action rollups of kafka_audit_logs for the stats endpoint. Maintained by the
+-- audit writer in the same transaction as each batch insert; rows before this migration are added
+-- by V3_7_1.
+CREATE TABLE IF NOT EXISTS kafka_audit_daily_stats (
+    tenant_id VARCHAR(255) NOT NULL,
+    day DATE NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    -- Only events with a duration, so duration_sum / duration_count is the average
+    duration_count BIGINT NOT NULL DEFAULT 0,
+    duration_sum BIGINT NOT NULL DEFAULT 0,
+    -- Events with duration_ms <= 10, 50, 100, 500, 1000, 5000 and above 5000
+    duration_histogram BIGINT[] NOT NULL DEFAULT '{0,0,0,0,0,0,0}',
+    PRIMARY KEY (tenant_id, day, action)
+);
+
+-- Element-wise sum, for merging histograms on upsert
+CREATE OR REPLACE FUNCTION kafka_audit_histogram_add(a BIGINT[], b BIGINT[]) RETURNS BIGINT[]
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT array_agg(COALESCE(x, 0) + COALESCE(y, 0) ORDER BY i)
+    FROM unnest(a, b) WITH ORDINALITY AS t(x, y, i)
+$$;
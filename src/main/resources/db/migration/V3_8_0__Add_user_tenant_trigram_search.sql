@@ -0,0 +1,13 @@
+-- Trigram indexes for the user and tenant search endpoints, which match '%term%' on several
+-- columns and rank by similarity; each OR branch can use its own index through a BitmapOr.
+-- pg_trgm is created by V3_5_0. CONCURRENTLY keeps writes to users (logins update last_login) and
+-- tenants flowing during the builds; Flyway runs a script made only of concurrent index statements
+-- outside a transaction, so nothing else may be added here.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm ON users USING GIN (username gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING GIN (email gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_first_name_trgm ON users USING GIN (first_name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_last_name_trgm ON users USING GIN (last_name gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_name_trgm ON tenants USING GIN (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_subdomain_trgm ON tenants USING GIN (subdomain gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tenants_admin_email_trgm ON tenants USING GIN (admin_email gin_trgm_ops);
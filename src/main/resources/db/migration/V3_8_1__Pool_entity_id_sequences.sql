@@ -0,0 +1,11 @@
+-- Entity ids move from IDENTITY to the tables' own sequences, allocated 50 at a time by Hibernate's
+-- pooled-lo optimizer, which lets inserts be batched. The increment must match the allocation size
+-- in BaseEntity. Existing ids are untouched: the next value is simply 50 past the last one used.
+-- Rows inserted with the column default still draw one value each, which can never fall inside a
+-- block Hibernate has already fetched.
+ALTER SEQUENCE tenants_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE kafka_clusters_id_seq INCREMENT BY 50;
+ALTER SEQUENCE kafka_topics_id_seq INCREMENT BY 50;
+ALTER SEQUENCE kafka_consumer_groups_id_seq INCREMENT BY 50;
+ALTER SEQUENCE kafka_audit_logs_id_seq INCREMENT BY 50;
@@ -0,0 +1,8 @@
+-- Deleted users, so every node's security stamp refresh can reject their tokens.
+-- Rows are only needed until the longest-lived token issued before the deletion has expired.
+CREATE TABLE IF NOT EXISTS user_security_tombstones (
+    user_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_security_tombstones_deleted_at ON user_security_tombstones(deleted_at);
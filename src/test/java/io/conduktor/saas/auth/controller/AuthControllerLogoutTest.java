@@ -0,0 +1,146 @@
+package io.conduktor.saas.auth.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.auth.dto.LoginRequest;
+import io.conduktor.saas.auth.dto.RefreshTokenRequest;
+import io.conduktor.saas.auth.service.AuthService;
+import io.conduktor.saas.auth.service.PasswordHashingExecutor;
+import io.conduktor.saas.security.JwtTokenProvider;
+import io.conduktor.saas.security.TenantContext;
+import io.conduktor.saas.security.TokenRevocationService;
+import io.conduktor.saas.tenant.service.TenantService;
+import io.conduktor.saas.user.entity.User;
+import io.conduktor.saas.user.repository.UserRepository;
+import io.conduktor.saas.user.service.SecurityStampService;
+import io.conduktor.saas.user.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerLogoutTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private User user;
+    private SecurityStampService securityStampService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("acme");
+        user.setId(1L);
+        user.setUsername("jane");
+        user.setEmail("jane@acme.example");
+        user.setPassword("secret");
+        user.setRoles(Set.of(User.Role.USER));
+
+        UserService userService = mock(UserService.class);
+        when(userService.findByUsername("jane")).thenReturn(Optional.of(user));
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(
+                "testSecretKey123456789012345678901234567890123456789012345678901234567890", 3600000, 604800000, 0);
+        securityStampService = new SecurityStampService(mock(UserRepository.class), mock(JdbcTemplate.class), true, 30, 604800000);
+        TokenRevocationService revocationService = new TokenRevocationService(mock(JdbcTemplate.class), 1000, 0.01, 30);
+        AuthService authService = new AuthService(userService, mock(TenantService.class), tokenProvider,
+                mock(PasswordEncoder.class), revocationService, mock(PasswordHashingExecutor.class), securityStampService);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void refreshIsRejectedAfterLogout() throws Exception {
+        JsonNode tokens = login();
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + tokens.get("accessToken").asText()))
+                .andExpect(status().isOk());
+
+        refresh(tokens.get("refreshToken").asText())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshedTokensBelongToTheLoggedOutSession() throws Exception {
+        JsonNode tokens = login();
+        String response = refresh(tokens.get("refreshToken").asText())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode rotated = objectMapper.readTree(response).get("data");
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + tokens.get("accessToken").asText()))
+                .andExpect(status().isOk());
+
+        refresh(rotated.get("refreshToken").asText())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void otherSessionsKeepWorkingAfterLogout() throws Exception {
+        JsonNode loggedOut = login();
+        JsonNode other = login();
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + loggedOut.get("accessToken").asText()))
+                .andExpect(status().isOk());
+
+        refresh(other.get("refreshToken").asText())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshIsRejectedAfterTheSecurityStampChanges() throws Exception {
+        JsonNode tokens = login();
+
+        // e.g. a password change
+        user.setSecurityStamp(1);
+        securityStampService.recordStamp(user.getId(), 1);
+
+        refresh(tokens.get("refreshToken").asText())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshIsRejectedForADisabledUser() throws Exception {
+        JsonNode tokens = login();
+
+        user.setEnabled(false);
+
+        refresh(tokens.get("refreshToken").asText())
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode login() throws Exception {
+        String response = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("jane", "secret", "acme"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("data");
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))));
+    }
+}
@@ -0,0 +1,182 @@
+package io.conduktor.saas.benchmark;
+
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogDto;
+import io.conduktor.saas.kafka.audit.dto.KafkaAuditLogSummaryDto;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import io.conduktor.saas.kafka.cluster.dto.KafkaClusterDto;
+import io.conduktor.saas.kafka.cluster.dto.KafkaClusterSummaryDto;
+import io.conduktor.saas.kafka.cluster.entity.KafkaCluster;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of turning a Kafka audit log entry or cluster into its response DTO:
+ * <ul>
+ *     <li>{@code *CopyProperties} - {@link BeanUtils#copyProperties(Object, Object)}, which the
+ *     services used before; property descriptors are cached, but every property is still read and
+ *     written through reflection</li>
+ *     <li>{@code *Setters} - the explicit getter/setter mapping the services' {@code convertToDto}
+ *     now use for detail views</li>
+ *     <li>{@code *Summary} - the summary record the list queries construct, from the same values</li>
+ * </ul>
+ * Run with {@code java -cp <test classpath> io.conduktor.saas.benchmark.DtoMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private KafkaAuditLog auditLog;
+    private KafkaCluster cluster;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+
+        auditLog = new KafkaAuditLog();
+        auditLog.setId(42L);
+        auditLog.setTenantId("acme");
+        auditLog.setUserId(7L);
+        auditLog.setUserEmail("jane.doe@acme.example");
+        auditLog.setAction("TOPIC_CREATE");
+        auditLog.setResourceType("TOPIC");
+        auditLog.setResourceName("orders.v1");
+        auditLog.setClusterId(3L);
+        auditLog.setClusterName("production-eu");
+        auditLog.setTopicName("orders.v1");
+        auditLog.setConsumerGroup("order-processor");
+        auditLog.setDetails(Map.of("partitions", 12, "replicationFactor", 3));
+        auditLog.setIpAddress("10.0.12.34");
+        auditLog.setUserAgent("Mozilla/5.0 (X11; Linux x86_64)");
+        auditLog.setTimestamp(now);
+        auditLog.setDurationMs(118);
+        auditLog.setStatus("SUCCESS");
+        auditLog.setMetadata(Map.of("source", "console"));
+        auditLog.setSessionId("5b0c8f0e-4d2a-4a53-9d1c-1f2e3d4c5b6a");
+        auditLog.setRequestId("9a8b7c6d-5e4f-3a2b-1c0d-e9f8a7b6c5d4");
+
+        cluster = new KafkaCluster();
+        cluster.setId(3L);
+        cluster.setTenantId("acme");
+        cluster.setName("production-eu");
+        cluster.setDescription("Primary production cluster");
+        cluster.setBootstrapServers("broker-1:9092,broker-2:9092,broker-3:9092");
+        cluster.setConnectionType("SASL_SSL");
+        cluster.setStatus("ACTIVE");
+        cluster.setHealthStatus("HEALTHY");
+        cluster.setKafkaVersion("3.7.0");
+        cluster.setSecurityConfig(Map.of("sasl.mechanism", "SCRAM-SHA-512"));
+        cluster.setConnectionConfig(Map.of("request.timeout.ms", 30000));
+        cluster.setLastHealthCheck(now);
+        cluster.setBrokerCount(3);
+        cluster.setTopicCount(120);
+        cluster.setPartitionCount(1440);
+        cluster.setConsumerGroupCount(35);
+        cluster.setMetrics(Map.of("bytesInPerSec", 1048576));
+        cluster.setMonitoringConfig(Map.of("alerting", true));
+        cluster.setCreatedAt(now);
+        cluster.setUpdatedAt(now);
+    }
+
+    @Benchmark
+    public KafkaAuditLogDto auditLogCopyProperties() {
+        KafkaAuditLogDto dto = new KafkaAuditLogDto();
+        BeanUtils.copyProperties(auditLog, dto);
+        return dto;
+    }
+
+    @Benchmark
+    public KafkaAuditLogDto auditLogSetters() {
+        KafkaAuditLogDto dto = new KafkaAuditLogDto();
+        dto.setId(auditLog.getId());
+        dto.setTenantId(auditLog.getTenantId());
+        dto.setUserId(auditLog.getUserId());
+        dto.setUserEmail(auditLog.getUserEmail());
+        dto.setAction(auditLog.getAction());
+        dto.setResourceType(auditLog.getResourceType());
+        dto.setResourceName(auditLog.getResourceName());
+        dto.setClusterId(auditLog.getClusterId());
+        dto.setClusterName(auditLog.getClusterName());
+        dto.setTopicName(auditLog.getTopicName());
+        dto.setConsumerGroup(auditLog.getConsumerGroup());
+        dto.setDetails(auditLog.getDetails());
+        dto.setIpAddress(auditLog.getIpAddress());
+        dto.setUserAgent(auditLog.getUserAgent());
+        dto.setTimestamp(auditLog.getTimestamp());
+        dto.setDurationMs(auditLog.getDurationMs());
+        dto.setStatus(auditLog.getStatus());
+        dto.setMetadata(auditLog.getMetadata());
+        dto.setSessionId(auditLog.getSessionId());
+        dto.setRequestId(auditLog.getRequestId());
+        return dto;
+    }
+
+    @Benchmark
+    public KafkaAuditLogSummaryDto auditLogSummary() {
+        return new KafkaAuditLogSummaryDto(auditLog.getId(), auditLog.getUserEmail(), auditLog.getAction(),
+                auditLog.getResourceType(), auditLog.getResourceName(), auditLog.getClusterId(),
+                auditLog.getClusterName(), auditLog.getTopicName(), auditLog.getConsumerGroup(),
+                auditLog.getIpAddress(), auditLog.getTimestamp(), auditLog.getDurationMs(), auditLog.getStatus());
+    }
+
+    @Benchmark
+    public KafkaClusterDto clusterCopyProperties() {
+        KafkaClusterDto dto = new KafkaClusterDto();
+        BeanUtils.copyProperties(cluster, dto);
+        return dto;
+    }
+
+    @Benchmark
+    public KafkaClusterDto clusterSetters() {
+        KafkaClusterDto dto = new KafkaClusterDto();
+        dto.setId(cluster.getId());
+        dto.setTenantId(cluster.getTenantId());
+        dto.setName(cluster.getName());
+        dto.setDescription(cluster.getDescription());
+        dto.setBootstrapServers(cluster.getBootstrapServers());
+        dto.setConnectionType(cluster.getConnectionType());
+        dto.setStatus(cluster.getStatus());
+        dto.setHealthStatus(cluster.getHealthStatus());
+        dto.setKafkaVersion(cluster.getKafkaVersion());
+        dto.setSecurityConfig(cluster.getSecurityConfig());
+        dto.setConnectionConfig(cluster.getConnectionConfig());
+        dto.setLastHealthCheck(cluster.getLastHealthCheck());
+        dto.setHealthCheckError(cluster.getHealthCheckError());
+        dto.setBrokerCount(cluster.getBrokerCount());
+        dto.setTopicCount(cluster.getTopicCount());
+        dto.setPartitionCount(cluster.getPartitionCount());
+        dto.setConsumerGroupCount(cluster.getConsumerGroupCount());
+        dto.setMetrics(cluster.getMetrics());
+        dto.setMonitoringConfig(cluster.getMonitoringConfig());
+        dto.setAutoHealthCheck(cluster.getAutoHealthCheck());
+        dto.setHealthCheckIntervalMinutes(cluster.getHealthCheckIntervalMinutes());
+        dto.setCreatedAt(cluster.getCreatedAt());
+        dto.setUpdatedAt(cluster.getUpdatedAt());
+        return dto;
+    }
+
+    @Benchmark
+    public KafkaClusterSummaryDto clusterSummary() {
+        return new KafkaClusterSummaryDto(cluster.getId(), cluster.getName(), cluster.getDescription(),
+                cluster.getBootstrapServers(), cluster.getConnectionType(), cluster.getStatus(),
+                cluster.getHealthStatus(), cluster.getKafkaVersion(), cluster.getLastHealthCheck(),
+                cluster.getBrokerCount(), cluster.getTopicCount(), cluster.getPartitionCount(),
+                cluster.getConsumerGroupCount(), cluster.getCreatedAt(), cluster.getUpdatedAt());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
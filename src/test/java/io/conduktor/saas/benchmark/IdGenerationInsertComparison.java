@@ -0,0 +1,166 @@
+package io.conduktor.saas.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bulk-insert throughput of users, Kafka audit logs and consumer groups with the statements
+ * Hibernate issues for each id strategy:
+ * <ul>
+ *     <li>{@code identity} (before) - one {@code INSERT} per entity, executed immediately to read
+ *     the generated key back, so JDBC batching never applies</li>
+ *     <li>{@code pooled-lo} (after) - one {@code nextval} per 50 entities, ids assigned in memory,
+ *     and the inserts sent in JDBC batches of 25 ({@code hibernate.jdbc.batch_size})</li>
+ * </ul>
+ * Each run inserts {@value #ROWS} rows per table, committing every {@value #ROWS_PER_TRANSACTION}.
+ * <p>
+ * Runs against in-memory H2 by default, where a round trip costs almost nothing, so the gap is a
+ * lower bound; pass {@code -Dbenchmark.jdbc-url=jdbc:postgresql://...} (with
+ * {@code benchmark.jdbc-user} and {@code benchmark.jdbc-password}) to measure against a real
+ * server. Run with {@code java -cp <test classpath> io.conduktor.saas.benchmark.IdGenerationInsertComparison}.
+ */
+public class IdGenerationInsertComparison {
+
+    private static final int ROWS = 20_000;
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 25;
+
+    /** The last column is a timestamp, the others text. */
+    private record Table(String name, List<String> columns) {
+
+        String columnList() {
+            return String.join(", ", columns);
+        }
+
+        String ddl() {
+            return String.join(" VARCHAR(255), ", columns.subList(0, columns.size() - 1))
+                    + " VARCHAR(255), " + columns.get(columns.size() - 1) + " TIMESTAMP";
+        }
+    }
+
+    private static final List<Table> TABLES = List.of(
+            new Table("bench_users", List.of("tenant_id", "username", "email", "first_name", "last_name", "status", "created_at")),
+            new Table("bench_kafka_audit_logs", List.of("tenant_id", "user_email", "action", "resource_type", "resource_name", "status", "timestamp")),
+            new Table("bench_kafka_consumer_groups", List.of("tenant_id", "group_id", "cluster_id", "state", "members_count", "lag", "created_at"))
+    );
+
+    public static void main(String[] args) throws Exception {
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            for (Table table : TABLES) {
+                create(connection, table);
+                // Warm-up, then the measured runs
+                insertIdentity(connection, table, ROWS / 10);
+                insertPooled(connection, table, ROWS / 10);
+
+                long identity = time(() -> insertIdentity(connection, table, ROWS));
+                long pooled = time(() -> insertPooled(connection, table, ROWS));
+                System.out.printf("%-28s identity %9.0f rows/s | pooled-lo + batch %9.0f rows/s | x%.1f%n",
+                        table.name(), ROWS / (identity / 1e9), ROWS / (pooled / 1e9), (double) identity / pooled);
+                drop(connection, table);
+            }
+        }
+    }
+
+    private static void insertIdentity(Connection connection, Table table, int rows) throws Exception {
+        String sql = "INSERT INTO " + table.name() + " (" + table.columnList() + ") VALUES (" + placeholders(table.columns().size()) + ")";
+        try (PreparedStatement insert = connection.prepareStatement(sql, new String[]{"id"})) {
+            for (int i = 0; i < rows; i++) {
+                bind(insert, 1, table, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    keys.getLong(1);
+                }
+                if ((i + 1) % ROWS_PER_TRANSACTION == 0) {
+                    connection.commit();
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private static void insertPooled(Connection connection, Table table, int rows) throws Exception {
+        String sql = "INSERT INTO " + table.name() + " (id, " + table.columnList() + ") VALUES (" + placeholders(table.columns().size() + 1) + ")";
+        try (PreparedStatement nextval = connection.prepareStatement("SELECT nextval('" + table.name() + "_id_seq')");
+             PreparedStatement insert = connection.prepareStatement(sql)) {
+            long next = 0;
+            long blockEnd = 0;
+            for (int i = 0; i < rows; i++) {
+                if (next == blockEnd) {
+                    try (ResultSet rs = nextval.executeQuery()) {
+                        rs.next();
+                        next = rs.getLong(1);
+                        blockEnd = next + ALLOCATION_SIZE;
+                    }
+                }
+                insert.setLong(1, next++);
+                bind(insert, 2, table, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if ((i + 1) % ROWS_PER_TRANSACTION == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int first, Table table, int i) throws Exception {
+        statement.setString(first, "tenant-" + (i % 50));
+        for (int column = 1; column < table.columns().size() - 1; column++) {
+            statement.setString(first + column, table.name() + "-" + column + "-" + i);
+        }
+        statement.setTimestamp(first + table.columns().size() - 1, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private static void create(Connection connection, Table table) throws Exception {
+        drop(connection, table);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SEQUENCE " + table.name() + "_id_seq INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE TABLE " + table.name() + " (id BIGINT DEFAULT nextval('" + table.name()
+                    + "_id_seq') PRIMARY KEY, " + table.ddl() + ")");
+        }
+        connection.commit();
+    }
+
+    private static void drop(Connection connection, Table table) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table.name());
+            statement.execute("DROP SEQUENCE IF EXISTS " + table.name() + "_id_seq");
+        }
+        connection.commit();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Connection connect() throws Exception {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:ids;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        return DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc-user", "sa"),
+                System.getProperty("benchmark.jdbc-password", ""));
+    }
+
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    private static long time(Run run) throws Exception {
+        long start = System.nanoTime();
+        run.run();
+        return System.nanoTime() - start;
+    }
+}
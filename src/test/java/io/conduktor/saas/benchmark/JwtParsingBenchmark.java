@@ -0,0 +1,85 @@
+package io.conduktor.saas.benchmark;
+
+import io.conduktor.saas.security.JwtClaims;
+import io.conduktor.saas.security.JwtTokenProvider;
+import io.conduktor.saas.user.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request JWT handling of {@code JwtAuthenticationFilter}:
+ * <ul>
+ *     <li>{@code legacyThreeParses} - validate, then read user id, then read tenant id, each with a fresh parser</li>
+ *     <li>{@code parseOnceUncached} - a single {@link JwtTokenProvider#parseVerified(String)} with the cache disabled</li>
+ *     <li>{@code parseOnceCached} - {@link JwtTokenProvider#parseVerified(String)} for a token seen before</li>
+ * </ul>
+ * Run with {@code java -cp <test classpath> io.conduktor.saas.benchmark.JwtParsingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private SecretKey secretKey;
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        cachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 86_400_000, 10_000);
+        uncachedProvider = new JwtTokenProvider(SECRET, 3_600_000, 86_400_000, 0);
+
+        User user = new User("acme");
+        user.setId(42L);
+        user.setUsername("john.doe");
+        user.setEmail("john.doe@acme-corp.com");
+        user.setRoles(Set.of(User.Role.USER, User.Role.TENANT_ADMIN));
+        token = cachedProvider.createToken(user);
+
+        // Prime the cache so the cached benchmark measures the steady-state hit path
+        cachedProvider.parseVerified(token);
+    }
+
+    @Benchmark
+    public void legacyThreeParses(Blackhole blackhole) {
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+        Claims subjectClaims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+        Claims tenantClaims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+        blackhole.consume(Long.parseLong(subjectClaims.getSubject()));
+        blackhole.consume(tenantClaims.get("tenantId", String.class));
+    }
+
+    @Benchmark
+    public JwtClaims parseOnceUncached() {
+        return uncachedProvider.parseVerified(token);
+    }
+
+    @Benchmark
+    public JwtClaims parseOnceCached() {
+        return cachedProvider.parseVerified(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
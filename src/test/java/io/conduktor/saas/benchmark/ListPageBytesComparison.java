@@ -0,0 +1,293 @@
+package io.conduktor.saas.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bytes fetched per page of the Kafka audit log and cluster listings:
+ * <ul>
+ *     <li>{@code entity} (before) - every mapped column, as Hibernate selects them to build the
+ *     entities that were then copied into DTOs, including the JSON configuration and details</li>
+ *     <li>{@code summary} (after) - only the columns of {@code KafkaAuditLogSummaryDto} and
+ *     {@code KafkaClusterSummaryDto}, which the list queries now select</li>
+ * </ul>
+ * Each table is filled with {@value #ROWS} rows whose JSON columns are sized like those the
+ * console writes, and the first page of {@link #PAGE_SIZES} rows is read in listing order. Bytes
+ * are the UTF-8 length of text values plus the fixed width of numbers and timestamps, i.e. the
+ * payload before protocol framing; the time per page is printed alongside.
+ * <p>
+ * Runs against in-memory H2 by default; pass {@code -Dbenchmark.jdbc-url=jdbc:postgresql://...}
+ * (with {@code benchmark.jdbc-user} and {@code benchmark.jdbc-password}) to measure against a real
+ * server. Run with {@code java -cp <test classpath> io.conduktor.saas.benchmark.ListPageBytesComparison}.
+ */
+public class ListPageBytesComparison {
+
+    private static final int ROWS = 5_000;
+    private static final int[] PAGE_SIZES = {20, 50};
+    private static final int READS = 2_000;
+
+    private static final String AUDIT_DDL = "CREATE TABLE bench_kafka_audit_logs ("
+            + "id BIGINT PRIMARY KEY, tenant_id VARCHAR(255), user_id BIGINT, user_email VARCHAR(255),"
+            + " action VARCHAR(50), resource_type VARCHAR(50), resource_name VARCHAR(200), cluster_id BIGINT,"
+            + " cluster_name VARCHAR(100), topic_name VARCHAR(200), consumer_group VARCHAR(200), details TEXT,"
+            + " ip_address VARCHAR(45), user_agent TEXT, timestamp TIMESTAMP, duration_ms INTEGER, status VARCHAR(20),"
+            + " metadata TEXT, session_id VARCHAR(255), request_id VARCHAR(255), created_at TIMESTAMP,"
+            + " updated_at TIMESTAMP, created_by VARCHAR(255), updated_by VARCHAR(255), version BIGINT)";
+
+    private static final String AUDIT_SUMMARY = "id, user_email, action, resource_type, resource_name, cluster_id,"
+            + " cluster_name, topic_name, consumer_group, ip_address, timestamp, duration_ms, status";
+
+    private static final String CLUSTER_DDL = "CREATE TABLE bench_kafka_clusters ("
+            + "id BIGINT PRIMARY KEY, tenant_id VARCHAR(255), name VARCHAR(100), description TEXT,"
+            + " bootstrap_servers TEXT, connection_type VARCHAR(20), status VARCHAR(20), health_status VARCHAR(20),"
+            + " kafka_version VARCHAR(50), security_config TEXT, connection_config TEXT, last_health_check TIMESTAMP,"
+            + " health_check_error TEXT, broker_count INTEGER, topic_count INTEGER, partition_count INTEGER,"
+            + " consumer_group_count INTEGER, metrics TEXT, monitoring_config TEXT, auto_health_check BOOLEAN,"
+            + " health_check_interval_minutes INTEGER, created_at TIMESTAMP, updated_at TIMESTAMP,"
+            + " created_by VARCHAR(255), updated_by VARCHAR(255), version BIGINT)";
+
+    private static final String CLUSTER_SUMMARY = "id, name, description, bootstrap_servers, connection_type, status,"
+            + " health_status, kafka_version, last_health_check, broker_count, topic_count, partition_count,"
+            + " consumer_group_count, created_at, updated_at";
+
+    private record Listing(String table, String summaryColumns, String orderBy) {
+
+        String select(String columns) {
+            return "SELECT " + columns + " FROM " + table + " WHERE tenant_id = ? ORDER BY " + orderBy + " LIMIT ?";
+        }
+    }
+
+    private static final List<Listing> LISTINGS = List.of(
+            new Listing("bench_kafka_audit_logs", AUDIT_SUMMARY, "timestamp DESC"),
+            new Listing("bench_kafka_clusters", CLUSTER_SUMMARY, "name")
+    );
+
+    public static void main(String[] args) throws Exception {
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            create(connection);
+            populateAuditLogs(connection);
+            populateClusters(connection);
+
+            for (Listing listing : LISTINGS) {
+                for (int pageSize : PAGE_SIZES) {
+                    String entity = listing.select("*");
+                    String summary = listing.select(listing.summaryColumns());
+                    // Warm-up, then the measured reads
+                    time(connection, entity, pageSize, READS / 10);
+                    time(connection, summary, pageSize, READS / 10);
+
+                    long entityBytes = bytes(connection, entity, pageSize);
+                    long summaryBytes = bytes(connection, summary, pageSize);
+                    long entityNanos = time(connection, entity, pageSize, READS);
+                    long summaryNanos = time(connection, summary, pageSize, READS);
+                    System.out.printf("%-24s page %3d | entity %8d B %7.1f us | summary %7d B %7.1f us | %.1f%% of the bytes%n",
+                            listing.table(), pageSize,
+                            entityBytes, entityNanos / 1e3 / READS,
+                            summaryBytes, summaryNanos / 1e3 / READS,
+                            100.0 * summaryBytes / entityBytes);
+                }
+            }
+            drop(connection);
+        }
+    }
+
+    private static long bytes(Connection connection, String sql, int pageSize) throws Exception {
+        long total = 0;
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setString(1, "tenant-0");
+            select.setInt(2, pageSize);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    for (int column = 1; column <= meta.getColumnCount(); column++) {
+                        total += width(rs, column, meta.getColumnType(column));
+                    }
+                }
+            }
+        }
+        connection.commit();
+        return total;
+    }
+
+    private static int width(ResultSet rs, int column, int type) throws Exception {
+        switch (type) {
+            case Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE:
+                return rs.getObject(column) == null ? 0 : 8;
+            case Types.INTEGER:
+                return rs.getObject(column) == null ? 0 : 4;
+            case Types.BOOLEAN:
+                return rs.getObject(column) == null ? 0 : 1;
+            default:
+                String value = rs.getString(column);
+                return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+
+    private static long time(Connection connection, String sql, int pageSize, int reads) throws Exception {
+        long start = System.nanoTime();
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            for (int i = 0; i < reads; i++) {
+                select.setString(1, "tenant-" + (i % 5));
+                select.setInt(2, pageSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    int columns = rs.getMetaData().getColumnCount();
+                    while (rs.next()) {
+                        for (int column = 1; column <= columns; column++) {
+                            rs.getObject(column);
+                        }
+                    }
+                }
+            }
+        }
+        connection.commit();
+        return System.nanoTime() - start;
+    }
+
+    private static void populateAuditLogs(Connection connection) throws Exception {
+        String sql = "INSERT INTO bench_kafka_audit_logs (id, tenant_id, user_id, user_email, action, resource_type,"
+                + " resource_name, cluster_id, cluster_name, topic_name, consumer_group, details, ip_address, user_agent,"
+                + " timestamp, duration_ms, status, metadata, session_id, request_id, created_at, updated_at, created_by,"
+                + " updated_by, version) VALUES (" + placeholders(25) + ")";
+        long now = System.currentTimeMillis();
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ROWS; i++) {
+                Timestamp at = new Timestamp(now - i * 1000L);
+                String topic = "orders.region-" + (i % 12) + ".v1";
+                insert.setLong(1, i + 1);
+                insert.setString(2, "tenant-" + (i % 5));
+                insert.setLong(3, i % 40);
+                insert.setString(4, "user" + (i % 40) + "@acme.example");
+                insert.setString(5, "TOPIC_UPDATE");
+                insert.setString(6, "TOPIC");
+                insert.setString(7, topic);
+                insert.setLong(8, i % 3);
+                insert.setString(9, "production-eu-" + (i % 3));
+                insert.setString(10, topic);
+                insert.setString(11, "order-processor-" + (i % 7));
+                insert.setString(12, "{\"partitions\":12,\"replicationFactor\":3,\"previous\":{\"retention.ms\":\"604800000\","
+                        + "\"cleanup.policy\":\"delete\",\"min.insync.replicas\":\"2\"},\"current\":{\"retention.ms\":\"259200000\","
+                        + "\"cleanup.policy\":\"compact,delete\",\"min.insync.replicas\":\"2\",\"max.message.bytes\":\"1048588\"},"
+                        + "\"reason\":\"Shorten retention ahead of the storage migration for " + topic + "\"}");
+                insert.setString(13, "10.0." + (i % 256) + "." + (i % 200));
+                insert.setString(14, "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko)"
+                        + " Chrome/124.0.0.0 Safari/537.36");
+                insert.setTimestamp(15, at);
+                insert.setInt(16, 20 + i % 400);
+                insert.setString(17, "SUCCESS");
+                insert.setString(18, "{\"source\":\"console\",\"correlationId\":\"c-" + i + "\",\"client\":{\"version\":\"1.24.0\","
+                        + "\"locale\":\"en-GB\",\"timezone\":\"Europe/Paris\"}}");
+                insert.setString(19, "5b0c8f0e-4d2a-4a53-9d1c-" + String.format("%012d", i));
+                insert.setString(20, "9a8b7c6d-5e4f-3a2b-1c0d-" + String.format("%012d", i));
+                insert.setTimestamp(21, at);
+                insert.setTimestamp(22, at);
+                insert.setString(23, "user" + (i % 40) + "@acme.example");
+                insert.setString(24, "user" + (i % 40) + "@acme.example");
+                insert.setLong(25, 0);
+                insert.addBatch();
+                if ((i + 1) % 500 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void populateClusters(Connection connection) throws Exception {
+        String sql = "INSERT INTO bench_kafka_clusters (id, tenant_id, name, description, bootstrap_servers, connection_type,"
+                + " status, health_status, kafka_version, security_config, connection_config, last_health_check,"
+                + " health_check_error, broker_count, topic_count, partition_count, consumer_group_count, metrics,"
+                + " monitoring_config, auto_health_check, health_check_interval_minutes, created_at, updated_at, created_by,"
+                + " updated_by, version) VALUES (" + placeholders(26) + ")";
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        StringBuilder metrics = new StringBuilder("{\"brokers\":[");
+        for (int broker = 0; broker < 6; broker++) {
+            metrics.append(broker == 0 ? "" : ",").append("{\"id\":").append(broker)
+                    .append(",\"bytesInPerSec\":1048576.5,\"bytesOutPerSec\":2097152.25,\"messagesInPerSec\":5120.75,")
+                    .append("\"underReplicatedPartitions\":0,\"requestHandlerAvgIdlePercent\":0.82}");
+        }
+        metrics.append("],\"collectedAt\":\"2024-05-01T12:00:00\"}");
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, i + 1);
+                insert.setString(2, "tenant-" + (i % 5));
+                insert.setString(3, "cluster-" + String.format("%05d", i));
+                insert.setString(4, "Cluster " + i + " for the order pipeline");
+                insert.setString(5, "broker-1.c" + i + ".acme.internal:9093,broker-2.c" + i + ".acme.internal:9093,broker-3.c"
+                        + i + ".acme.internal:9093");
+                insert.setString(6, "SASL_SSL");
+                insert.setString(7, "ACTIVE");
+                insert.setString(8, "HEALTHY");
+                insert.setString(9, "3.7.0");
+                insert.setString(10, "{\"security.protocol\":\"SASL_SSL\",\"sasl.mechanism\":\"SCRAM-SHA-512\","
+                        + "\"sasl.jaas.config\":\"org.apache.kafka.common.security.scram.ScramLoginModule required username=\\\"svc-" + i
+                        + "\\\" password=\\\"********\\\";\",\"ssl.truststore.type\":\"PEM\",\"ssl.endpoint.identification.algorithm\":\"https\"}");
+                insert.setString(11, "{\"request.timeout.ms\":30000,\"default.api.timeout.ms\":60000,\"retries\":5,"
+                        + "\"retry.backoff.ms\":500,\"metadata.max.age.ms\":300000,\"client.id\":\"console-" + i + "\"}");
+                insert.setTimestamp(12, now);
+                insert.setNull(13, Types.VARCHAR);
+                insert.setInt(14, 6);
+                insert.setInt(15, 120 + i % 50);
+                insert.setInt(16, 1440 + i % 500);
+                insert.setInt(17, 35 + i % 20);
+                insert.setString(18, metrics.toString());
+                insert.setString(19, "{\"alerting\":true,\"lagThreshold\":10000,\"channels\":[\"email\",\"slack\"],"
+                        + "\"recipients\":[\"oncall@acme.example\"]}");
+                insert.setBoolean(20, true);
+                insert.setInt(21, 5);
+                insert.setTimestamp(22, now);
+                insert.setTimestamp(23, now);
+                insert.setString(24, "admin@acme.example");
+                insert.setString(25, "admin@acme.example");
+                insert.setLong(26, 0);
+                insert.addBatch();
+                if ((i + 1) % 500 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void create(Connection connection) throws Exception {
+        drop(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(AUDIT_DDL);
+            statement.execute("CREATE INDEX bench_kafka_audit_logs_tenant_timestamp ON bench_kafka_audit_logs (tenant_id, timestamp)");
+            statement.execute(CLUSTER_DDL);
+            statement.execute("CREATE INDEX bench_kafka_clusters_tenant_name ON bench_kafka_clusters (tenant_id, name)");
+        }
+        connection.commit();
+    }
+
+    private static void drop(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            for (Listing listing : LISTINGS) {
+                statement.execute("DROP TABLE IF EXISTS " + listing.table());
+            }
+        }
+        connection.commit();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Connection connect() throws Exception {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:pages;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        return DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc-user", "sa"),
+                System.getProperty("benchmark.jdbc-password", ""));
+    }
+}
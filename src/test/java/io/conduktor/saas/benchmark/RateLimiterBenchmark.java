@@ -0,0 +1,55 @@
+package io.conduktor.saas.benchmark;
+
+import io.conduktor.saas.security.TenantRateLimiter;
+import io.conduktor.saas.security.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the tenant rate limiter:
+ * <ul>
+ *     <li>{@code bucketTryAcquire} - a single {@link TokenBucket} CAS, shared by all benchmark threads</li>
+ *     <li>{@code tenantTryAcquire} - the full {@link TenantRateLimiter#tryAcquireForTenant(String)} path</li>
+ * </ul>
+ * Limits are set high enough that every call is admitted. Run with
+ * {@code java -cp <test classpath> io.conduktor.saas.benchmark.RateLimiterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private TokenBucket bucket;
+    private TenantRateLimiter rateLimiter;
+
+    @Setup
+    public void setUp() {
+        bucket = new TokenBucket(Integer.MAX_VALUE, 1, TimeUnit.SECONDS);
+        rateLimiter = new TenantRateLimiter(null, true, 1, 1000, 100);
+        rateLimiter.updateLimit("acme", Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long bucketTryAcquire() {
+        return bucket.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    public TenantRateLimiter.Decision tenantTryAcquire() {
+        return rateLimiter.tryAcquireForTenant("acme");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package io.conduktor.saas.benchmark;
+
+import io.conduktor.saas.security.PrincipalMethodSecurityExpressionHandler;
+import io.conduktor.saas.security.UserPrincipal;
+import io.conduktor.saas.user.entity.User;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an {@code @PreAuthorize("hasRole('ADMIN') or hasRole('TENANT_ADMIN')")} check for a
+ * TENANT_ADMIN user, and of {@link UserPrincipal#hasRole(String)} on its own:
+ * <ul>
+ *     <li>{@code legacy*} - the previous principal (authority list streamed with {@code "ROLE_" + role})
+ *     and the default expression handler</li>
+ *     <li>{@code bitmask*} - the role bitmask and {@link PrincipalMethodSecurityExpressionHandler}</li>
+ * </ul>
+ * Run with {@code java -cp <test classpath> io.conduktor.saas.benchmark.RoleCheckBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleCheckBenchmark {
+
+    private static final String EXPRESSION = "hasRole('ADMIN') or hasRole('TENANT_ADMIN')";
+
+    private LegacyPrincipal legacyPrincipal;
+    private UserPrincipal principal;
+
+    private DefaultMethodSecurityExpressionHandler legacyHandler;
+    private PrincipalMethodSecurityExpressionHandler bitmaskHandler;
+    private Expression legacyExpression;
+    private Expression bitmaskExpression;
+    private Authentication legacyAuthentication;
+    private Authentication authentication;
+    private MethodInvocation invocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        legacyPrincipal = new LegacyPrincipal(List.of("USER", "TENANT_ADMIN"));
+        principal = new UserPrincipal(1L, "john.doe", "john.doe@acme-corp.com", null, "acme",
+                Set.of(User.Role.USER, User.Role.TENANT_ADMIN), true);
+
+        legacyHandler = new DefaultMethodSecurityExpressionHandler();
+        bitmaskHandler = new PrincipalMethodSecurityExpressionHandler();
+        legacyExpression = legacyHandler.getExpressionParser().parseExpression(EXPRESSION);
+        bitmaskExpression = bitmaskHandler.getExpressionParser().parseExpression(EXPRESSION);
+
+        legacyAuthentication = new UsernamePasswordAuthenticationToken(legacyPrincipal, null, legacyPrincipal.authorities);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        invocation = new SimpleMethodInvocation(this, RoleCheckBenchmark.class.getMethod("setUp"));
+    }
+
+    @Benchmark
+    public boolean legacyHasRole() {
+        return legacyPrincipal.hasRole("TENANT_ADMIN");
+    }
+
+    @Benchmark
+    public boolean bitmaskHasRole() {
+        return principal.hasRole("TENANT_ADMIN");
+    }
+
+    @Benchmark
+    public Boolean legacyPreAuthorize() {
+        EvaluationContext context = legacyHandler.createEvaluationContext(() -> legacyAuthentication, invocation);
+        return legacyExpression.getValue(context, Boolean.class);
+    }
+
+    @Benchmark
+    public Boolean bitmaskPreAuthorize() {
+        EvaluationContext context = bitmaskHandler.createEvaluationContext(() -> authentication, invocation);
+        return bitmaskExpression.getValue(context, Boolean.class);
+    }
+
+    /** The role handling of {@code UserPrincipal} before roles were held as a bitmask. */
+    static final class LegacyPrincipal {
+
+        private final List<SimpleGrantedAuthority> authorities;
+
+        LegacyPrincipal(List<String> roles) {
+            this.authorities = roles.stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                    .toList();
+        }
+
+        boolean hasRole(String role) {
+            return authorities.stream()
+                    .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RoleCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,143 @@
+package io.conduktor.saas.core.export;
+
+import io.conduktor.saas.core.exception.TooManyRequestsException;
+import io.conduktor.saas.security.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // One worker and one queued job at most
+        service = new ExportJobService(directory.toString(), 10, 60, 1, 1);
+        TenantContext.setCurrentTenantId("acme-corp");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        TenantContext.clear();
+    }
+
+    @Test
+    void rejectsJobsOnceThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> tenants = new CopyOnWriteArrayList<>();
+        ExportJobService.CsvSource source = writer -> {
+            tenants.add(TenantContext.getCurrentTenantId());
+            started.countDown();
+            await(release);
+            writer.write("id\n");
+            return 0;
+        };
+
+        ExportJob running = service.submit("users", source);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        ExportJob queued = service.submit("users", source);
+
+        assertThatThrownBy(() -> service.submit("users", source))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+        assertThat(tenants).containsExactly("acme-corp", "acme-corp");
+    }
+
+    @Test
+    void aRejectedJobDoesNotCountAgainstTheTenant() throws Exception {
+        ExportJobService limited = new ExportJobService(directory.toString(), 3, 60, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExportJobService.CsvSource source = writer -> {
+            await(release);
+            return 0;
+        };
+        try {
+            limited.submit("users", source);
+            limited.submit("users", source);
+            assertThatThrownBy(() -> limited.submit("users", source))
+                    .isInstanceOf(TooManyRequestsException.class)
+                    .hasMessageContaining("queued");
+
+            // Still below max-jobs-per-tenant, so the queue rejects it again rather than the tenant limit
+            assertThatThrownBy(() -> limited.submit("users", source))
+                    .isInstanceOf(TooManyRequestsException.class)
+                    .hasMessageContaining("queued");
+        } finally {
+            release.countDown();
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    void limitsUnfinishedJobsPerTenantUntilOneFinishes() throws Exception {
+        ExportJobService limited = new ExportJobService(directory.toString(), 1, 60, 2, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ExportJob first = limited.submit("users", writer -> {
+                await(release);
+                return 0;
+            });
+
+            assertThatThrownBy(() -> limited.submit("users", writer -> 0))
+                    .isInstanceOf(TooManyRequestsException.class)
+                    .hasMessageContaining("this tenant");
+            TenantContext.setCurrentTenantId("globex");
+            limited.submit("users", writer -> 0);
+
+            TenantContext.setCurrentTenantId("acme-corp");
+            release.countDown();
+            // The slot is released once the job has run, not only once it is cleaned up
+            ExportJob next = null;
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (next == null && System.currentTimeMillis() < deadline) {
+                try {
+                    next = limited.submit("users", writer -> 0);
+                } catch (TooManyRequestsException e) {
+                    Thread.sleep(10);
+                }
+            }
+            assertThat(first.isFinished()).isTrue();
+            assertThat(next).isNotNull();
+        } finally {
+            release.countDown();
+            limited.shutdown();
+        }
+    }
+
+    private void awaitFinished(ExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!service.find(job.getType(), job.getId()).isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.isFinished()).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.conduktor.saas.core.export;
+
+import io.conduktor.saas.core.exception.TooManyRequestsException;
+import io.conduktor.saas.security.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingExportLimiterTest {
+
+    private final StreamingExportLimiter limiter = new StreamingExportLimiter(3, 2);
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void rejectsATenantOverItsOwnLimitWhileOthersCanStillExport() {
+        TenantContext.setCurrentTenantId("acme-corp");
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("this tenant");
+
+        TenantContext.setCurrentTenantId("globex");
+        limiter.acquire();
+        assertThat(limiter.available()).isZero();
+    }
+
+    @Test
+    void rejectsEveryoneOnceAllSlotsAreTaken() {
+        TenantContext.setCurrentTenantId("acme-corp");
+        StreamingExportLimiter.Permit acme = limiter.acquire();
+        TenantContext.setCurrentTenantId("globex");
+        limiter.acquire();
+        limiter.acquire();
+
+        TenantContext.setCurrentTenantId("hooli");
+        assertThatThrownBy(limiter::acquire).isInstanceOf(TooManyRequestsException.class);
+
+        acme.close();
+        // The rejected attempts did not use up any of hooli's own slots
+        limiter.acquire();
+        assertThat(limiter.available()).isZero();
+    }
+
+    @Test
+    void closingAPermitTwiceReleasesItOnce() {
+        TenantContext.setCurrentTenantId("acme-corp");
+        StreamingExportLimiter.Permit permit = limiter.acquire();
+
+        permit.close();
+        permit.close();
+
+        assertThat(limiter.available()).isEqualTo(3);
+        limiter.acquire();
+        limiter.acquire();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(TooManyRequestsException.class);
+    }
+}
@@ -0,0 +1,120 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * How {@link AuditLogWriter} handles batches that fail without a write-ahead log behind it.
+ */
+class AuditLogWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private List<String> written;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        written = new ArrayList<>();
+    }
+
+    @Test
+    void writesTheRestOfABatchAroundARejectedEvent() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO kafka_audit_logs"), any(PreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    List<String> actions = bind(invocation.getArgument(1));
+                    if (actions.contains("POISON")) {
+                        throw new DataIntegrityViolationException("value too long for type character varying(50)");
+                    }
+                    written.addAll(actions);
+                    return actions.size();
+                });
+        AuditLogWriter writer = writer(0);
+
+        List<String> submitted = List.of("A", "B", "POISON", "C", "D", "E");
+        submitted.forEach(action -> writer.submit(event(action)));
+        writer.shutdown();
+
+        assertThat(written).containsExactlyInAnyOrder("A", "B", "C", "D", "E");
+        assertThat(meterRegistry.counter("audit.writer.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesABatchWhileTheDatabaseIsUnreachable() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(jdbcTemplate.update(startsWith("INSERT INTO kafka_audit_logs"), any(PreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    List<String> actions = bind(invocation.getArgument(1));
+                    if (attempts.incrementAndGet() <= 2) {
+                        throw new CannotGetJdbcConnectionException("Connection refused");
+                    }
+                    written.addAll(actions);
+                    return actions.size();
+                });
+        AuditLogWriter writer = writer(3);
+
+        writer.submit(event("A"));
+        writer.submit(event("B"));
+        writer.shutdown();
+
+        assertThat(written).containsExactlyInAnyOrder("A", "B");
+        assertThat(meterRegistry.counter("audit.writer.failed").count()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private AuditLogWriter writer(int retryAttempts) {
+        AuditorAware<String> auditorAware = mock(AuditorAware.class);
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.empty());
+        ObjectProvider<AuditWriteAheadLog> noWriteAheadLog = mock(ObjectProvider.class);
+        return new AuditLogWriter(jdbcTemplate, mock(PlatformTransactionManager.class), mock(AuditStatsRollup.class),
+                mock(AuditFilterDictionary.class), new ObjectMapper().findAndRegisterModules(), auditorAware,
+                noWriteAheadLog, meterRegistry, 100, 100, 50, "block", 100, 30_000, retryAttempts, 1);
+    }
+
+    /** The actions bound by {@code setter}, one per row. */
+    private static List<String> bind(PreparedStatementSetter setter) throws Exception {
+        List<String> actions = new ArrayList<>();
+        PreparedStatement ps = mock(PreparedStatement.class);
+        doAnswer(invocation -> {
+            // action is the fourth of 24 columns
+            if ((invocation.<Integer>getArgument(0) - 4) % 24 == 0) {
+                actions.add(invocation.getArgument(1));
+            }
+            return null;
+        }).when(ps).setString(anyInt(), any());
+        setter.setValues(ps);
+        return actions;
+    }
+
+    private static KafkaAuditLog event(String action) {
+        KafkaAuditLog auditLog = new KafkaAuditLog();
+        auditLog.setTenantId("acme-corp");
+        auditLog.setUserEmail("jane@acme.example");
+        auditLog.setAction(action);
+        auditLog.setResourceType("TOPIC");
+        auditLog.setTimestamp(LocalDateTime.now());
+        return auditLog;
+    }
+}
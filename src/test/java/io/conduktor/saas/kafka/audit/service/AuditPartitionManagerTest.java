@@ -0,0 +1,123 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Which partitions {@link AuditPartitionManager} expires, whether it drops them, and that the daily
+ * rollups of expired events go with them.
+ */
+class AuditPartitionManagerTest {
+
+    private static final String EXPIRED = "kafka_audit_logs_p201501";
+    private static final String CURRENT = "kafka_audit_logs_p209901";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ResultSet expired = partition(EXPIRED, "2015-01-01 00:00:00", "2015-02-01 00:00:00");
+        // Ends beyond the premake horizon, so no partitions are created
+        ResultSet current = partition(CURRENT, "2099-01-01 00:00:00", "2099-02-01 00:00:00");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(expired);
+            handler.processRow(current);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT c.relname"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), any()))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList(startsWith("SELECT tenant_id"), any(Object[].class))).thenReturn(List.of());
+    }
+
+    @Test
+    void keepsEverythingWhenNoRetentionIsConfigured() {
+        tenantRetention(1, 90);
+
+        manager(null, false).maintain();
+
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void expiresOnceEveryTenantHasARetention() {
+        tenantRetention(0, 90);
+
+        manager(null, false).maintain();
+
+        verify(jdbcTemplate).execute("ALTER TABLE kafka_audit_logs DETACH PARTITION " + EXPIRED);
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION " + CURRENT));
+    }
+
+    @Test
+    void onlyDetachesExpiredPartitionsUnlessDropIsEnabled() {
+        tenantRetention(1, null);
+
+        manager(365, false).maintain();
+        verify(jdbcTemplate).execute("ALTER TABLE kafka_audit_logs DETACH PARTITION " + EXPIRED);
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+
+        manager(365, true).maintain();
+        verify(jdbcTemplate).execute("DROP TABLE " + EXPIRED);
+    }
+
+    @Test
+    void removesTheRollupsOfAnExpiredPartition() {
+        tenantRetention(0, 90);
+
+        manager(null, false).maintain();
+
+        verify(jdbcTemplate).update("DELETE FROM kafka_audit_daily_stats WHERE day < ?", Date.valueOf("2015-02-01"));
+    }
+
+    @Test
+    void trimsATenantsRollupsToTheSameWholeDaysAsItsEvents() {
+        tenantRetention(0, 365);
+        Map<String, Object> tenant = new HashMap<>();
+        tenant.put("tenant_id", "acme-corp");
+        tenant.put("retention_days", 30);
+        when(jdbcTemplate.queryForList(startsWith("SELECT tenant_id"), any(Object[].class))).thenReturn(List.of(tenant));
+        LocalDate cutoff = LocalDate.now().minusDays(30);
+
+        manager(null, false).maintain();
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM kafka_audit_logs"), eq("acme-corp"), eq(cutoff.atStartOfDay()), eq(10000));
+        verify(jdbcTemplate).update("DELETE FROM kafka_audit_daily_stats WHERE tenant_id = ? AND day < ?",
+                "acme-corp", Date.valueOf(cutoff));
+    }
+
+    private AuditPartitionManager manager(Integer defaultRetentionDays, boolean dropExpired) {
+        return new AuditPartitionManager(jdbcTemplate, mock(PlatformTransactionManager.class),
+                new AuditStatsRollup(jdbcTemplate), true, "monthly", 3,
+                defaultRetentionDays, dropExpired, 10000);
+    }
+
+    private void tenantRetention(long tenantsWithoutRetention, Integer longest) {
+        Map<String, Object> retention = new HashMap<>();
+        retention.put("unlimited", tenantsWithoutRetention);
+        retention.put("longest", longest);
+        when(jdbcTemplate.queryForMap(startsWith("SELECT COUNT(*) FILTER"))).thenReturn(retention);
+    }
+
+    private static ResultSet partition(String name, String from, String to) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(1)).thenReturn(name);
+        when(row.getString(2)).thenReturn("FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return row;
+    }
+}
@@ -0,0 +1,177 @@
+package io.conduktor.saas.kafka.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.kafka.audit.entity.KafkaAuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditWriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<AuditWriteAheadLog> opened = new ArrayList<>();
+    private final List<String> written = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(AuditWriteAheadLog::close);
+    }
+
+    @Test
+    void replaysUnacknowledgedEventsAfterARestart() throws IOException {
+        AuditWriteAheadLog log = open();
+        log.append(event("A"));
+        AuditWriteAheadLog.Position acknowledged = log.append(event("B"));
+        log.append(event("C"));
+        log.acknowledge(acknowledged);
+        restart(log);
+
+        open().replay(100, this::write);
+
+        assertThat(written).containsExactly("A", "C");
+        // Only the new, empty current segment is left
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void doesNotReplayAFullyAcknowledgedSegment() throws IOException {
+        AuditWriteAheadLog log = open();
+        log.acknowledge(log.append(event("A")));
+        log.acknowledge(log.append(event("B")));
+        restart(log);
+
+        open().replay(100, this::write);
+
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void ignoresEverythingFromATornRecordOn() throws IOException {
+        AuditWriteAheadLog log = open();
+        log.append(event("A"));
+        AuditWriteAheadLog.Position torn = log.append(event("B"));
+        log.append(event("C"));
+        restart(log);
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // Flip a payload byte behind the 12-byte header
+            file.seek(torn.offset() + 12 + 2);
+            int value = file.read();
+            file.seek(torn.offset() + 12 + 2);
+            file.write(value ^ 0xff);
+        }
+
+        open().replay(100, this::write);
+
+        assertThat(written).containsExactly("A");
+    }
+
+    @Test
+    void refusesADirectoryThatIsAlreadyInUse() throws IOException {
+        open();
+
+        assertThatThrownBy(this::open)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("in use");
+    }
+
+    @Test
+    void requiresADirectory() {
+        assertThatThrownBy(() -> new AuditWriteAheadLog(objectMapper, "", SEGMENT_SIZE, 0, 0, 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.audit.wal.directory");
+    }
+
+    @Test
+    void deadLettersAnEventTheDatabaseKeepsRejecting() throws IOException {
+        AuditWriteAheadLog log = open();
+        for (String action : List.of("A", "B", "POISON", "C")) {
+            log.append(event(action));
+        }
+        AuditWriteAheadLog.Sink sink = batch -> {
+            if (batch.stream().anyMatch(auditLog -> auditLog.getAction().equals("POISON"))) {
+                return AuditWriteAheadLog.Outcome.REJECTED;
+            }
+            return write(batch);
+        };
+
+        log.replay(100, sink);
+        assertThat(written).containsExactlyInAnyOrder("A", "B", "C");
+        assertThat(segments()).hasSize(2);
+
+        log.replay(100, sink);
+        log.replay(100, sink);
+
+        assertThat(written).containsExactlyInAnyOrder("A", "B", "C");
+        assertThat(Files.readString(directory.resolve("dead-letter.jsonl"))).contains("\"action\":\"POISON\"");
+        // Only the empty current segment is left
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void stopsWithoutSplittingWhileTheDatabaseIsUnavailable() throws IOException {
+        AuditWriteAheadLog log = open();
+        log.append(event("A"));
+        log.append(event("B"));
+        AtomicInteger calls = new AtomicInteger();
+
+        log.replay(100, batch -> {
+            calls.incrementAndGet();
+            return AuditWriteAheadLog.Outcome.UNAVAILABLE;
+        });
+        assertThat(calls).hasValue(1);
+
+        log.replay(100, this::write);
+        assertThat(written).containsExactly("A", "B");
+    }
+
+    private AuditWriteAheadLog.Outcome write(List<KafkaAuditLog> batch) {
+        batch.forEach(auditLog -> written.add(auditLog.getAction()));
+        return AuditWriteAheadLog.Outcome.WRITTEN;
+    }
+
+    /** Rolls the segment on every replay and replays it at once. */
+    private AuditWriteAheadLog open() throws IOException {
+        AuditWriteAheadLog log = new AuditWriteAheadLog(objectMapper, directory.toString(), SEGMENT_SIZE, 0, 0, 3);
+        opened.add(log);
+        return log;
+    }
+
+    private void restart(AuditWriteAheadLog log) {
+        log.close();
+        opened.remove(log);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".wal")).sorted().toList();
+        }
+    }
+
+    private static KafkaAuditLog event(String action) {
+        KafkaAuditLog auditLog = new KafkaAuditLog();
+        auditLog.setTenantId("acme-corp");
+        auditLog.setUserEmail("jane@acme.example");
+        auditLog.setAction(action);
+        auditLog.setResourceType("TOPIC");
+        auditLog.setTimestamp(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return auditLog;
+    }
+}
@@ -0,0 +1,87 @@
+package io.conduktor.saas.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.tenant.entity.Tenant;
+import io.conduktor.saas.tenant.repository.TenantRepository;
+import io.conduktor.saas.user.entity.User;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private TenantRepository tenantRepository;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tenantRepository = mock(TenantRepository.class);
+        filter = new RateLimitFilter(new TenantRateLimiter(tenantRepository, true, 60, 1000, 1), new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsAnonymousClientsOverTheirLimit() throws Exception {
+        MockHttpServletResponse first = filter("198.51.100.7");
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader("RateLimit-Limit")).isEqualTo("1");
+        assertThat(first.getHeader("RateLimit-Remaining")).isEqualTo("0");
+
+        MockHttpServletResponse second = filter("198.51.100.7");
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(second.getContentAsString()).contains("Rate limit exceeded");
+    }
+
+    @Test
+    void keepsSeparateBucketsPerClientAddress() throws Exception {
+        filter("198.51.100.7");
+
+        assertThat(filter("198.51.100.8").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void limitsAuthenticatedRequestsByTheirTenant() throws Exception {
+        Tenant tenant = new Tenant("acme");
+        tenant.setApiRateLimit(2);
+        when(tenantRepository.findByTenantId("acme")).thenReturn(List.of(tenant));
+        UserPrincipal principal = new UserPrincipal(1L, "jane", "jane@acme.example", null, "acme",
+                Set.of(User.Role.USER), true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // The anonymous limit of 1 per address does not apply
+        assertThat(filter("198.51.100.7").getStatus()).isEqualTo(200);
+        assertThat(filter("198.51.100.7").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = filter("198.51.100.7");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("RateLimit-Limit")).isEqualTo("2");
+    }
+
+    private MockHttpServletResponse filter(String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,162 @@
+package io.conduktor.saas.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.conduktor.saas.tenant.entity.Tenant;
+import io.conduktor.saas.tenant.repository.TenantRepository;
+import io.conduktor.saas.tenant.service.TenantDirectory;
+import io.conduktor.saas.user.entity.User;
+import io.conduktor.saas.user.service.SecurityStampService;
+import io.conduktor.saas.user.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The tenant checks of {@link TenantFilter} and {@link JwtAuthenticationFilter}, run in the order
+ * the application registers them.
+ */
+class TenantAccessFilterTest {
+
+    private static final String SECRET = "testSecretKey123456789012345678901234567890123456789012345678901234567890";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TenantRepository tenantRepository;
+    private UserService userService;
+    private JwtTokenProvider tokenProvider;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        tenantRepository = mock(TenantRepository.class);
+        when(tenantRepository.findAll()).thenReturn(List.of(
+                tenant(1L, "acme-corp", "acme", Tenant.TenantStatus.ACTIVE),
+                tenant(2L, "globex", "globex", Tenant.TenantStatus.ACTIVE),
+                tenant(3L, "initech", "initech", Tenant.TenantStatus.SUSPENDED)));
+        TenantDirectory tenantDirectory = new TenantDirectory(tenantRepository, mock(JdbcTemplate.class), 30, "");
+        tenantDirectory.refresh();
+
+        userService = mock(UserService.class);
+        tokenProvider = new JwtTokenProvider(SECRET, 3600000, 604800000, 0);
+
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(jwtFilter, "userService", userService);
+        ReflectionTestUtils.setField(jwtFilter, "securityStampService", mock(SecurityStampService.class));
+        ReflectionTestUtils.setField(jwtFilter, "tokenRevocationService",
+                new TokenRevocationService(mock(JdbcTemplate.class), 1000, 0.01, 30));
+        ReflectionTestUtils.setField(jwtFilter, "tenantDirectory", tenantDirectory);
+        ReflectionTestUtils.setField(jwtFilter, "objectMapper", objectMapper);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new TenantEchoController())
+                .addFilters(new TenantFilter(tenantDirectory, objectMapper), jwtFilter)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    void servesAnActiveTenantFromTheToken() throws Exception {
+        mockMvc.perform(get("/tenant").header("Authorization", bearer(10L, "acme-corp")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("acme-corp"));
+    }
+
+    @Test
+    void rejectsASuspendedTenantsTokenWithoutATenantHeader() throws Exception {
+        mockMvc.perform(get("/tenant").header("Authorization", bearer(30L, "initech")))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(containsString("Tenant not active")));
+    }
+
+    @Test
+    void rejectsASuspendedTenantNamedInTheHeader() throws Exception {
+        mockMvc.perform(get("/tenant").header("X-Tenant-ID", "initech"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsATokenUsedForAnotherTenant() throws Exception {
+        mockMvc.perform(get("/tenant")
+                        .header("Authorization", bearer(10L, "acme-corp"))
+                        .header("X-Tenant-ID", "globex"))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(containsString("Tenant mismatch")));
+    }
+
+    @Test
+    void acceptsTheSubdomainOfTheTokensTenantInTheHeader() throws Exception {
+        mockMvc.perform(get("/tenant")
+                        .header("Authorization", bearer(10L, "acme-corp"))
+                        .header("X-Tenant-ID", "acme"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("acme-corp"));
+    }
+
+    @Test
+    void answersServiceUnavailableWhenTheTenantCannotBeLookedUp() throws Exception {
+        when(tenantRepository.findByTenantId("hooli")).thenThrow(new IllegalStateException("connection refused"));
+
+        mockMvc.perform(get("/tenant").header("X-Tenant-ID", "hooli"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void answersNotFoundForAnUnknownTenant() throws Exception {
+        when(tenantRepository.findByTenantId("hooli")).thenReturn(List.of());
+        when(tenantRepository.findBySubdomain("hooli")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/tenant").header("X-Tenant-ID", "hooli"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String bearer(Long userId, String tenantId) {
+        User user = new User(tenantId);
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setEmail("user" + userId + "@example.com");
+        user.setPassword("secret");
+        user.setRoles(Set.of(User.Role.USER));
+        when(userService.loadUserById(userId)).thenReturn(new UserPrincipal(userId, user.getUsername(),
+                user.getEmail(), user.getPassword(), tenantId, user.getRoles(), true));
+        return "Bearer " + tokenProvider.createToken(user);
+    }
+
+    private static Tenant tenant(Long id, String tenantId, String subdomain, Tenant.TenantStatus status) {
+        Tenant tenant = new Tenant(tenantId);
+        tenant.setId(id);
+        tenant.setSubdomain(subdomain);
+        tenant.setStatus(status);
+        return tenant;
+    }
+
+    @RestController
+    static class TenantEchoController {
+
+        @GetMapping("/tenant")
+        String tenant() {
+            return TenantContext.getCurrentTenantId();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.conduktor.saas.security;
+
+import io.conduktor.saas.tenant.entity.Tenant;
+import io.conduktor.saas.tenant.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TenantRateLimiterTest {
+
+    private TenantRepository tenantRepository;
+    private TenantRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        tenantRepository = mock(TenantRepository.class);
+        rateLimiter = new TenantRateLimiter(tenantRepository, true, 60, 5, 2);
+    }
+
+    @Test
+    void enforcesTheTenantsApiRateLimit() {
+        when(tenantRepository.findByTenantId("acme")).thenReturn(List.of(tenant("acme", 2)));
+
+        assertThat(rateLimiter.tryAcquireForTenant("acme").allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquireForTenant("acme").allowed()).isTrue();
+        TenantRateLimiter.Decision rejected = rateLimiter.tryAcquireForTenant("acme");
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.limit()).isEqualTo(2);
+        assertThat(rejected.retryAfterSeconds()).isPositive();
+        verify(tenantRepository, times(1)).findByTenantId("acme");
+    }
+
+    @Test
+    void usesTheDefaultLimitWhenTheTenantCannotBeLoaded() {
+        when(tenantRepository.findByTenantId("acme")).thenThrow(new IllegalStateException("database down"));
+
+        assertThat(rateLimiter.tryAcquireForTenant("acme").limit()).isEqualTo(5);
+    }
+
+    @Test
+    void appliesChangedLimitsImmediately() {
+        when(tenantRepository.findByTenantId("acme")).thenReturn(List.of(tenant("acme", 1)));
+        rateLimiter.tryAcquireForTenant("acme");
+        assertThat(rateLimiter.tryAcquireForTenant("acme").allowed()).isFalse();
+
+        rateLimiter.updateLimit("acme", 10);
+
+        TenantRateLimiter.Decision decision = rateLimiter.tryAcquireForTenant("acme");
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitsAnonymousRequestsPerClientAddress() {
+        assertThat(rateLimiter.tryAcquireAnonymous("203.0.113.1").allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquireAnonymous("203.0.113.1").allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquireAnonymous("203.0.113.1").allowed()).isFalse();
+
+        assertThat(rateLimiter.tryAcquireAnonymous("203.0.113.2").allowed()).isTrue();
+        verifyNoInteractions(tenantRepository);
+    }
+
+    private static Tenant tenant(String tenantId, int apiRateLimit) {
+        Tenant tenant = new Tenant(tenantId);
+        tenant.setApiRateLimit(apiRateLimit);
+        return tenant;
+    }
+}
@@ -0,0 +1,55 @@
+package io.conduktor.saas.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TokenRevocationService service = new TokenRevocationService(jdbcTemplate, 1000, 0.01, 30);
+
+    @Test
+    void stampsRevokedAtWithTheDatabaseClockWhenTheRowIsWritten() {
+        service.revoke(claims("jti-1"));
+
+        service.snapshot();
+
+        verify(jdbcTemplate).batchUpdate(contains("VALUES (?, ?, ?, ?, now())"), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void keepsRevocationsForTheNextSnapshotWhileTheDatabaseIsDown() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO revoked_tokens"), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(new int[][] {{1}});
+        service.revoke(claims("jti-1"));
+
+        service.snapshot();
+        service.snapshot();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO revoked_tokens"), any(Collection.class),
+                anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate, atLeastOnce()).query(startsWith("SELECT jti"), any(RowCallbackHandler.class), any(Object[].class));
+        assertThat(service.isRevoked(claims("jti-1"))).isTrue();
+    }
+
+    private static JwtClaims claims(String tokenId) {
+        return new JwtClaims(tokenId, 1L, "jane", "jane@acme.example", "acme-corp", List.of("USER"), null,
+                Instant.now(), Instant.now().plusSeconds(3600), 0, null);
+    }
+}
@@ -0,0 +1,122 @@
+package io.conduktor.saas.user.service;
+
+import io.conduktor.saas.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class SecurityStampServiceTest {
+
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SecurityStampService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new SecurityStampService(userRepository, jdbcTemplate, true, 30, 604800000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void acceptsTokensAtOrAheadOfTheKnownStamp() {
+        service.recordStamp(1L, 3);
+
+        assertThat(service.isCurrent(1L, 2)).isFalse();
+        assertThat(service.isCurrent(1L, 3)).isTrue();
+        // Issued on another node after a change this node has not refreshed yet
+        assertThat(service.isCurrent(1L, 4)).isTrue();
+    }
+
+    @Test
+    void appliesStampChangesOnlyWhenTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordStamp(1L, 5);
+        assertThat(service.currentStamp(1L)).isZero();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(service.currentStamp(1L)).isEqualTo(5);
+    }
+
+    @Test
+    void keepsTheStampWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordStamp(1L, 5);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(service.isCurrent(1L, 0)).isTrue();
+    }
+
+    @Test
+    void revokeWritesATombstoneAndRejectsEveryToken() {
+        service.revoke(7L);
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO user_security_tombstones"), eq(7L), any(Timestamp.class));
+        assertThat(service.isCurrent(7L, 0)).isFalse();
+        assertThat(service.isCurrent(7L, 100)).isFalse();
+    }
+
+    @Test
+    void refreshRevokesUsersDeletedOnOtherNodes() throws Exception {
+        ResultSet tombstone = mock(ResultSet.class);
+        when(tombstone.getLong("user_id")).thenReturn(9L);
+        when(tombstone.getTimestamp("deleted_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(tombstone);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT user_id, deleted_at"), any(RowCallbackHandler.class), any(Object[].class));
+
+        service.refresh();
+
+        assertThat(service.isLoaded()).isTrue();
+        assertThat(service.isCurrent(9L, 0)).isFalse();
+        verify(jdbcTemplate).update(startsWith("DELETE FROM user_security_tombstones"), any(Object[].class));
+    }
+
+    @Test
+    void refreshDoesNotPollWhenClaimsPrincipalsAreDisabled() {
+        SecurityStampService disabled = new SecurityStampService(userRepository, jdbcTemplate, false, 30, 604800000);
+
+        disabled.refresh();
+
+        assertThat(disabled.isLoaded()).isFalse();
+        verifyNoInteractions(userRepository, jdbcTemplate);
+    }
+
+    @Test
+    void refreshAppliesStampsChangedOnOtherNodes() {
+        UserRepository.SecurityStampView change = mock(UserRepository.SecurityStampView.class);
+        when(change.getId()).thenReturn(3L);
+        when(change.getSecurityStamp()).thenReturn(2);
+        when(change.getSecurityStampUpdatedAt()).thenReturn(LocalDateTime.now());
+        when(userRepository.findSecurityStampsChangedSince(any())).thenReturn(List.of(change));
+
+        service.refresh();
+
+        assertThat(service.isCurrent(3L, 1)).isFalse();
+        assertThat(service.isCurrent(3L, 2)).isTrue();
+    }
+}
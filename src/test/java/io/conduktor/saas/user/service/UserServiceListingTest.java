@@ -0,0 +1,78 @@
+package io.conduktor.saas.user.service;
+
+import io.conduktor.saas.core.bulk.BulkPasswordEncoder;
+import io.conduktor.saas.core.bulk.BulkProcessor;
+import io.conduktor.saas.core.export.CsvQueryExporter;
+import io.conduktor.saas.core.service.RowCountEstimator;
+import io.conduktor.saas.security.TenantContext;
+import io.conduktor.saas.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The listing variants behind {@code GET /users} only ever see the current tenant's users.
+ */
+class UserServiceListingTest {
+
+    private UserRepository userRepository;
+    private RowCountEstimator rowCountEstimator;
+    private UserService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        rowCountEstimator = mock(RowCountEstimator.class);
+        service = new UserService(userRepository, mock(PasswordEncoder.class), mock(SecurityStampService.class),
+                rowCountEstimator, mock(CsvQueryExporter.class), mock(LoginIdentityCache.class),
+                mock(BulkProcessor.class), mock(BulkPasswordEncoder.class));
+        TenantContext.setCurrentTenantId("acme-corp");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void sliceReadsOnlyTheCurrentTenant() {
+        Pageable pageable = PageRequest.of(0, 20);
+
+        service.findSlice(pageable);
+
+        verify(userRepository).findSliceByTenantId("acme-corp", pageable);
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void estimateCountsOnlyTheCurrentTenant() {
+        when(rowCountEstimator.estimate(eq("users"), eq("acme-corp"), any())).thenAnswer(
+                invocation -> invocation.<LongSupplier>getArgument(2).getAsLong());
+        when(userRepository.countByTenantId("acme-corp")).thenReturn(42L);
+
+        assertThat(service.estimateCount()).isEqualTo(42L);
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void listingWithoutATenantFails() {
+        TenantContext.clear();
+
+        assertThatThrownBy(() -> service.findSlice(PageRequest.of(0, 20)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.estimateCount())
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(userRepository, rowCountEstimator);
+    }
+}